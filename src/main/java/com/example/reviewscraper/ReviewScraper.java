@@ -1,5 +1,6 @@
 package com.example.reviewscraper;
 
+import com.example.reviewscraper.util.FieldNormalizer;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import io.github.bonigarcia.wdm.WebDriverManager;
@@ -135,8 +136,8 @@ public class ReviewScraper {
                 try {
                     Review r = new Review();
 
-                    safeFindElement(b, By.cssSelector("h3, .review__title, .headline")).ifPresent(e -> r.title = e.getText().trim());
-                    safeFindElement(b, By.cssSelector("div.review__body, .review-body, p, .description")).ifPresent(e -> r.review = e.getText().trim());
+                    safeFindElement(b, By.cssSelector("h3, .review__title, .headline")).ifPresent(e -> r.title = FieldNormalizer.text(e.getText()));
+                    safeFindElement(b, By.cssSelector("div.review__body, .review-body, p, .description")).ifPresent(e -> r.review = FieldNormalizer.text(e.getText()));
 
                     Optional<WebElement> dateEl = safeFindElement(b, By.cssSelector("time, .review-date, .date, .posted-on"));
                     String rawDate = null;
@@ -144,8 +145,8 @@ public class ReviewScraper {
                         WebElement el = dateEl.get();
                         // prefer datetime attribute if present
                         String dtAttr = el.getAttribute("datetime");
-                        if (dtAttr != null && !dtAttr.trim().isEmpty()) {
-                            rawDate = dtAttr.trim();
+                        if (dtAttr != null && !dtAttr.isBlank()) {
+                            rawDate = FieldNormalizer.text(dtAttr);
                         } else {
                             String txt = el.getText();
                             if (txt != null && !txt.trim().isEmpty()) rawDate = txt.trim();
@@ -165,15 +166,12 @@ public class ReviewScraper {
 
                     // reviewer (unchanged)
                     safeFindElement(b, By.cssSelector(".consumer-name, .reviewer, .author, .user"))
-                        .ifPresent(e -> r.reviewer = e.getText().trim());
+                        .ifPresent(e -> r.reviewer = FieldNormalizer.text(e.getText()));
 
                     // rating (unchanged)
                     safeFindElement(b, By.cssSelector(".rating, [data-rating], .stars, [class*='star']")).ifPresent(e -> {
                         String txt = Optional.ofNullable(e.getAttribute("aria-label")).orElse(e.getText());
-                        String digits = txt.replaceAll("[^0-9.]", "");
-                        if (!digits.isEmpty()) {
-                            try { r.rating = Double.parseDouble(digits); } catch (NumberFormatException ignored) {}
-                        }
+                        r.rating = FieldNormalizer.rating(txt);
                     });
 
                    
@@ -216,8 +214,8 @@ public class ReviewScraper {
             for (WebElement b : blocks) {
                 try {
                     Review r = new Review();
-                    safeFindElement(b, By.cssSelector(".review-title, h3")).ifPresent(e -> r.title = e.getText().trim());
-                    safeFindElement(b, By.cssSelector(".review-body, p, .comment")).ifPresent(e -> r.review = e.getText().trim());
+                    safeFindElement(b, By.cssSelector(".review-title, h3")).ifPresent(e -> r.title = FieldNormalizer.text(e.getText()));
+                    safeFindElement(b, By.cssSelector(".review-body, p, .comment")).ifPresent(e -> r.review = FieldNormalizer.text(e.getText()));
 
                     Optional<WebElement> dateEl = safeFindElement(b, By.cssSelector("time, .date, .review-date"));
                     String rawDate = dateEl.map(WebElement::getText).orElse(null);
@@ -225,14 +223,11 @@ public class ReviewScraper {
                     if (parsed != null && !inRange(parsed, start, end)) continue;
                     r.date = parsed != null ? parsed.toString() : rawDate;
 
-                    safeFindElement(b, By.cssSelector(".reviewer, .user, .author")).ifPresent(e -> r.reviewer = e.getText().trim());
+                    safeFindElement(b, By.cssSelector(".reviewer, .user, .author")).ifPresent(e -> r.reviewer = FieldNormalizer.text(e.getText()));
 
                     safeFindElement(b, By.cssSelector("[class*=star], .rating, [data-rating]")).ifPresent(e -> {
                         String txt = Optional.ofNullable(e.getAttribute("aria-label")).orElse(e.getText());
-                        String digits = txt.replaceAll("[^0-9.]", "");
-                        if (!digits.isEmpty()) {
-                            try { r.rating = Double.parseDouble(digits); } catch (NumberFormatException ignored) {}
-                        }
+                        r.rating = FieldNormalizer.rating(txt);
                     });
 
                     String key = (r.date != null ? r.date : "") + "|" + (r.review != null ? r.review.substring(0, Math.min(120, r.review.length())) : "");
@@ -273,8 +268,8 @@ public class ReviewScraper {
             for (WebElement b : blocks) {
                 try {
                     Review r = new Review();
-                    safeFindElement(b, By.cssSelector(".review-title, h3")).ifPresent(e -> r.title = e.getText().trim());
-                    safeFindElement(b, By.cssSelector(".review-body, .pros-cons, p")).ifPresent(e -> r.review = e.getText().trim());
+                    safeFindElement(b, By.cssSelector(".review-title, h3")).ifPresent(e -> r.title = FieldNormalizer.text(e.getText()));
+                    safeFindElement(b, By.cssSelector(".review-body, .pros-cons, p")).ifPresent(e -> r.review = FieldNormalizer.text(e.getText()));
 
                     Optional<WebElement> dateEl = safeFindElement(b, By.cssSelector("time, .date, .review-date"));
                     String rawDate = dateEl.map(WebElement::getText).orElse(null);
@@ -282,14 +277,11 @@ public class ReviewScraper {
                     if (parsed != null && !inRange(parsed, start, end)) continue;
                     r.date = parsed != null ? parsed.toString() : rawDate;
 
-                    safeFindElement(b, By.cssSelector(".user, .author, .reviewer")).ifPresent(e -> r.reviewer = e.getText().trim());
+                    safeFindElement(b, By.cssSelector(".user, .author, .reviewer")).ifPresent(e -> r.reviewer = FieldNormalizer.text(e.getText()));
 
                     safeFindElement(b, By.cssSelector(".rating, [data-rating], [class*=star]")).ifPresent(e -> {
                         String txt = Optional.ofNullable(e.getAttribute("aria-label")).orElse(e.getText());
-                        String digits = txt.replaceAll("[^0-9.]", "");
-                        if (!digits.isEmpty()) {
-                            try { r.rating = Double.parseDouble(digits); } catch (NumberFormatException ignored) {}
-                        }
+                        r.rating = FieldNormalizer.rating(txt);
                     });
 
                     String key = (r.date != null ? r.date : "") + "|" + (r.review != null ? r.review.substring(0, Math.min(120, r.review.length())) : "");
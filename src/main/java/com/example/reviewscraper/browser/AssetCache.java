@@ -0,0 +1,400 @@
+package com.example.reviewscraper.browser;
+
+import com.example.reviewscraper.util.EventLog;
+import com.google.gson.Gson;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Two-level LRU cache of static asset responses for {@link AssetProxy}: bodies of recently used
+ * entries in memory, every entry on disk (when a directory is given) so the cache survives
+ * restarts. Each level evicts least recently used entries beyond its byte budget.
+ *
+ * Only responses that a shared cache may store and that are static assets are admitted: GET,
+ * 200, a script/style/font/image/wasm content type, no Set-Cookie, no {@code no-store} or
+ * {@code private}, and no Vary beyond Accept-Encoding. HTML (review listings), JSON and anything
+ * else always goes to the origin. Freshness follows the response: s-maxage, max-age, Expires,
+ * or 10% of the time since Last-Modified (at most a day); stale entries and {@code no-cache}
+ * entries are revalidated with their ETag / Last-Modified.
+ */
+public final class AssetCache {
+
+    private static final Gson G = new Gson();
+    private static final long HEURISTIC_MAX_MS = 24 * 3600_000L;
+
+    /**
+     * A stored response (headers lower-cased, hop-by-hop and length headers removed).
+     */
+    static final class Entry {
+        String url;
+        int status;
+        Map<String, List<String>> headers;
+        long storedAt;
+        long freshUntil;
+        boolean noCache;
+        long size;
+        transient byte[] body;
+
+        boolean isFresh(long now) {
+            return !noCache && now < freshUntil;
+        }
+
+        String header(String name) {
+            List<String> v = headers.get(name);
+            return v == null || v.isEmpty() ? null : v.get(0);
+        }
+    }
+
+    private final Path dir;
+    private final long maxDiskBytes;
+    private final long maxMemoryBytes;
+    // key -> entry, in access order; bodies are held by `memory`
+    private final LinkedHashMap<String, Entry> index = new LinkedHashMap<>(256, 0.75f, true);
+    private final LinkedHashMap<String, byte[]> memory = new LinkedHashMap<>(256, 0.75f, true);
+    private long diskBytes;
+    private long memoryBytes;
+
+    /**
+     * @param dir disk level, or null for memory only
+     */
+    public AssetCache(Path dir, long maxDiskBytes, long maxMemoryBytes) throws IOException {
+        this.dir = dir;
+        this.maxDiskBytes = dir != null ? maxDiskBytes : 0;
+        this.maxMemoryBytes = maxMemoryBytes;
+        if (dir != null) {
+            Files.createDirectories(dir);
+            load();
+        }
+    }
+
+    /**
+     * @return the entry with its body, or null
+     */
+    Entry get(String key) {
+        Entry e;
+        byte[] body;
+        synchronized (this) {
+            e = index.get(key);
+            if (e == null) return null;
+            body = memory.get(key);
+        }
+        if (body == null) {
+            if (dir == null) return null;
+            try {
+                body = Files.readAllBytes(bodyFile(key));
+            } catch (IOException ex) {
+                remove(key);
+                return null;
+            }
+            synchronized (this) {
+                if (index.get(key) != e) return null;
+                remember(key, body);
+            }
+        }
+        Entry copy = copy(e);
+        copy.body = body;
+        return copy;
+    }
+
+    void put(String key, Entry e, byte[] body) {
+        e.size = body.length;
+        if (body.length > Math.max(maxDiskBytes, maxMemoryBytes) / 8) return; // one asset must not flush the cache
+        if (dir != null) {
+            try {
+                write(key, e, body);
+            } catch (IOException ex) {
+                EventLog.warn("assets.store_failed", "asset cache: could not store {url}: {error}", "url", e.url, "error", ex.getMessage());
+                return;
+            }
+        }
+        synchronized (this) {
+            Entry old = index.put(key, e);
+            if (old != null && dir != null) diskBytes -= old.size;
+            if (dir != null) diskBytes += e.size;
+            forget(key);
+            remember(key, body);
+            evictDisk();
+        }
+    }
+
+    /**
+     * A 304 from the origin: keep the body, take the new freshness and updated headers.
+     */
+    void refresh(String key, Entry e, Map<String, List<String>> notModifiedHeaders, long now) {
+        Entry updated = copy(e);
+        for (Map.Entry<String, List<String>> h : notModifiedHeaders.entrySet()) {
+            if (!h.getKey().equals("content-length")) updated.headers.put(h.getKey(), h.getValue());
+        }
+        updated.storedAt = now;
+        updated.freshUntil = now + lifetime(updated.headers, now);
+        updated.noCache = noCache(updated.headers);
+        if (dir != null) {
+            try {
+                writeMeta(key, updated);
+            } catch (IOException ex) {
+                return;
+            }
+        }
+        synchronized (this) {
+            if (index.containsKey(key)) index.put(key, updated);
+        }
+    }
+
+    public synchronized int entries() {
+        return index.size();
+    }
+
+    public synchronized long diskBytes() {
+        return diskBytes;
+    }
+
+    public synchronized long memoryBytes() {
+        return memoryBytes;
+    }
+
+    // --- admission and freshness ---
+
+    static boolean storable(String method, int status, Map<String, List<String>> h) {
+        if (!"GET".equals(method) || status != 200) return false;
+        String cc = join(h, "cache-control");
+        if (directive(cc, "no-store") || directive(cc, "private")) return false;
+        if (h.containsKey("set-cookie")) return false;
+        for (String v : join(h, "vary").split(",")) {
+            String t = v.trim();
+            if (!t.isEmpty() && !t.equals("accept-encoding")) return false;
+        }
+        if (!isStaticType(join(h, "content-type"))) return false;
+        return lifetime(h, System.currentTimeMillis()) > 0 || h.containsKey("etag") || h.containsKey("last-modified");
+    }
+
+    static boolean isStaticType(String contentType) {
+        String ct = contentType.toLowerCase(Locale.ROOT);
+        return ct.startsWith("text/css") || ct.contains("javascript") || ct.startsWith("text/ecmascript")
+                || ct.startsWith("font/") || ct.contains("font-") || ct.contains("/font")
+                || ct.startsWith("application/vnd.ms-fontobject") || ct.startsWith("image/")
+                || ct.startsWith("application/wasm");
+    }
+
+    static long lifetime(Map<String, List<String>> h, long now) {
+        String cc = join(h, "cache-control");
+        long maxAge = seconds(cc, "s-maxage");
+        if (maxAge < 0) maxAge = seconds(cc, "max-age");
+        long age = 0;
+        try {
+            age = Math.max(0, Long.parseLong(join(h, "age").trim()) * 1000);
+        } catch (NumberFormatException ignored) {}
+        if (maxAge >= 0) return maxAge * 1000 - age;
+        long date = httpDate(raw(h, "date"), now);
+        String expires = raw(h, "expires");
+        if (!expires.isEmpty()) return httpDate(expires, 0) - date;
+        String lastModified = raw(h, "last-modified");
+        if (!lastModified.isEmpty()) {
+            long lm = httpDate(lastModified, date);
+            return Math.min(HEURISTIC_MAX_MS, Math.max(0, (date - lm) / 10));
+        }
+        return 0;
+    }
+
+    static boolean noCache(Map<String, List<String>> h) {
+        return directive(join(h, "cache-control"), "no-cache") || join(h, "pragma").contains("no-cache");
+    }
+
+    static String join(Map<String, List<String>> h, String name) {
+        List<String> v = h.get(name);
+        if (v == null || v.isEmpty()) return "";
+        return v.size() == 1 ? v.get(0).toLowerCase(Locale.ROOT) : String.join(",", v).toLowerCase(Locale.ROOT);
+    }
+
+    private static String raw(Map<String, List<String>> h, String name) {
+        List<String> v = h.get(name);
+        return v == null || v.isEmpty() ? "" : v.get(0).trim();
+    }
+
+    private static boolean directive(String cacheControl, String name) {
+        for (String d : cacheControl.split(",")) {
+            String t = d.trim();
+            if (t.equals(name) || t.startsWith(name + "=")) return true;
+        }
+        return false;
+    }
+
+    private static long seconds(String cacheControl, String name) {
+        for (String d : cacheControl.split(",")) {
+            String t = d.trim();
+            if (t.startsWith(name + "=")) {
+                try {
+                    return Long.parseLong(t.substring(name.length() + 1).replace("\"", "").trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static long httpDate(String value, long fallback) {
+        if (value.isEmpty()) return fallback;
+        try {
+            return ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME.withLocale(Locale.ENGLISH)).toInstant().toEpochMilli();
+        } catch (Exception e) {
+            // includes Expires "0" / "-1", which the caller passes 0 for: already expired
+            return fallback;
+        }
+    }
+
+    // --- storage ---
+
+    static String key(String url, String acceptEncoding) {
+        return url + "\n" + (acceptEncoding == null ? "" : acceptEncoding.replace(" ", "").toLowerCase(Locale.ROOT));
+    }
+
+    private void remember(String key, byte[] body) {
+        if (body.length > maxMemoryBytes / 4) return;
+        byte[] old = memory.put(key, body);
+        if (old != null) memoryBytes -= old.length;
+        memoryBytes += body.length;
+        for (Iterator<Map.Entry<String, byte[]>> it = memory.entrySet().iterator(); memoryBytes > maxMemoryBytes && it.hasNext(); ) {
+            Map.Entry<String, byte[]> lru = it.next();
+            memoryBytes -= lru.getValue().length;
+            it.remove();
+            // without a disk level the memory level is the cache
+            if (dir == null) index.remove(lru.getKey());
+        }
+    }
+
+    private void forget(String key) {
+        byte[] old = memory.remove(key);
+        if (old != null) memoryBytes -= old.length;
+    }
+
+    private void evictDisk() {
+        if (dir == null) return;
+        for (Iterator<Map.Entry<String, Entry>> it = index.entrySet().iterator(); diskBytes > maxDiskBytes && it.hasNext(); ) {
+            Map.Entry<String, Entry> lru = it.next();
+            it.remove();
+            diskBytes -= lru.getValue().size;
+            forget(lru.getKey());
+            deleteFiles(lru.getKey());
+        }
+    }
+
+    private void remove(String key) {
+        synchronized (this) {
+            Entry e = index.remove(key);
+            if (e != null && dir != null) diskBytes -= e.size;
+            forget(key);
+        }
+        if (dir != null) deleteFiles(key);
+    }
+
+    private void write(String key, Entry e, byte[] body) throws IOException {
+        Path tmp = Files.createTempFile(dir, "put", ".tmp");
+        Files.write(tmp, body);
+        Files.move(tmp, bodyFile(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        writeMeta(key, e);
+    }
+
+    private void writeMeta(String key, Entry e) throws IOException {
+        Path tmp = Files.createTempFile(dir, "meta", ".tmp");
+        Map<String, Object> meta = new LinkedHashMap<>();
+        meta.put("key", key);
+        meta.put("entry", e);
+        Files.writeString(tmp, G.toJson(meta), StandardCharsets.UTF_8);
+        Files.move(tmp, metaFile(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /** Rebuild the index from the meta files, least recently modified first. */
+    private void load() throws IOException {
+        List<Path> metas = new ArrayList<>();
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir)) {
+            for (Path p : ds) {
+                String name = p.getFileName().toString();
+                if (name.endsWith(".meta")) metas.add(p);
+                else if (name.endsWith(".tmp")) Files.deleteIfExists(p);
+            }
+        }
+        metas.sort((a, b) -> {
+            try {
+                return Files.getLastModifiedTime(a).compareTo(Files.getLastModifiedTime(b));
+            } catch (IOException e) {
+                return 0;
+            }
+        });
+        for (Path p : metas) {
+            try {
+                Stored s = G.fromJson(Files.readString(p, StandardCharsets.UTF_8), Stored.class);
+                if (s == null || s.key == null || s.entry == null || !Files.isRegularFile(bodyFile(s.key))) {
+                    Files.deleteIfExists(p);
+                    continue;
+                }
+                Map<String, List<String>> headers = new TreeMap<>(s.entry.headers);
+                s.entry.headers = headers;
+                index.put(s.key, s.entry);
+                diskBytes += s.entry.size;
+            } catch (Exception e) {
+                Files.deleteIfExists(p);
+            }
+        }
+        evictDisk();
+    }
+
+    private static final class Stored {
+        String key;
+        Entry entry;
+    }
+
+    private void deleteFiles(String key) {
+        try {
+            Files.deleteIfExists(bodyFile(key));
+            Files.deleteIfExists(metaFile(key));
+        } catch (IOException ignored) {}
+    }
+
+    private Path bodyFile(String key) {
+        return dir.resolve(hash(key) + ".body");
+    }
+
+    private Path metaFile(String key) {
+        return dir.resolve(hash(key) + ".meta");
+    }
+
+    private static String hash(String key) {
+        try {
+            byte[] d = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(40);
+            for (int i = 0; i < 20; i++) sb.append(String.format("%02x", d[i]));
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** A detached copy without the body, safe to hand out while the original stays indexed. */
+    static Entry copy(Entry e) {
+        Entry c = new Entry();
+        c.url = e.url;
+        c.status = e.status;
+        c.headers = new TreeMap<>(e.headers);
+        c.storedAt = e.storedAt;
+        c.freshUntil = e.freshUntil;
+        c.noCache = e.noCache;
+        c.size = e.size;
+        return c;
+    }
+}
@@ -0,0 +1,458 @@
+package com.example.reviewscraper.browser;
+
+import com.example.reviewscraper.exec.VirtualThreads;
+import com.example.reviewscraper.util.EventLog;
+
+import javax.net.ssl.SSLSocket;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local HTTP(S) proxy that every pooled browser goes through, so a script bundle, stylesheet or
+ * font is downloaded once for all of them instead of once per browser (see {@link AssetCache}
+ * for what is cached and for how long).
+ *
+ * HTTPS is terminated in the proxy: a CONNECT is answered with a certificate for the requested
+ * host from {@link ProxyCertificates}, which the browsers accept through
+ * {@code --ignore-certificate-errors-spki-list} (see {@link DriverManager}); the proxy itself
+ * verifies the origin's certificate as usual. Browsers talk HTTP/1.1 to the proxy; the proxy uses
+ * HTTP/2 to origins where offered. Concurrent misses for the same asset wait for one origin
+ * fetch. WebSocket upgrades are not supported and are answered with 501.
+ *
+ * One virtual thread per client connection; close the proxy to stop it and print its counters.
+ */
+public final class AssetProxy implements AutoCloseable {
+
+    private static final Set<String> HOP_BY_HOP = Set.of("connection", "keep-alive", "proxy-connection",
+            "proxy-authorization", "proxy-authenticate", "te", "trailer", "transfer-encoding", "upgrade",
+            "host", "content-length", "expect", "http2-settings", "alt-svc");
+    private static final Set<String> STATIC_EXTENSIONS = Set.of("js", "mjs", "css", "woff", "woff2", "ttf", "otf",
+            "eot", "png", "jpg", "jpeg", "gif", "webp", "avif", "svg", "ico", "wasm");
+    private static final int MAX_HEADER_BYTES = 64 * 1024;
+
+    private final AssetCache cache;
+    private final ProxyCertificates certs;
+    private final HttpClient client;
+    private final ServerSocket server;
+    private final ExecutorService connections;
+    private final Map<String, CompletableFuture<AssetCache.Entry>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong revalidated = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong bytesFromCache = new AtomicLong();
+    private final AtomicLong bytesFromOrigin = new AtomicLong();
+
+    private AssetProxy(AssetCache cache) throws IOException, GeneralSecurityException {
+        this.cache = cache;
+        this.certs = new ProxyCertificates();
+        this.connections = VirtualThreads.newPerTaskExecutor("asset-proxy-");
+        this.client = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(15))
+                .executor(connections)
+                .build();
+        this.server = new ServerSocket();
+        this.server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 256);
+    }
+
+    /**
+     * Start the proxy on a free loopback port.
+     */
+    public static AssetProxy start(AssetCache cache) throws IOException {
+        AssetProxy p;
+        try {
+            p = new AssetProxy(cache);
+        } catch (GeneralSecurityException e) {
+            throw new IOException("cannot create proxy certificates: " + e.getMessage(), e);
+        }
+        Thread acceptor = new Thread(p::acceptLoop, "asset-proxy-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        return p;
+    }
+
+    /** host:port for Chrome's --proxy-server. */
+    public String address() {
+        return "127.0.0.1:" + server.getLocalPort();
+    }
+
+    /** Value for Chrome's --ignore-certificate-errors-spki-list. */
+    public String spkiHash() {
+        return certs.spkiHash();
+    }
+
+    public long getBytesFromOrigin() {
+        return bytesFromOrigin.get();
+    }
+
+    public long getBytesFromCache() {
+        return bytesFromCache.get();
+    }
+
+    public String summary() {
+        return String.format("%d requests, %d cache hits (%d revalidated, %d shared in flight), %d misses; "
+                        + "%d KB from cache, %d KB from origins; %d entries, %d KB on disk",
+                requests.get(), hits.get(), revalidated.get(), coalesced.get(), misses.get(),
+                bytesFromCache.get() / 1024, bytesFromOrigin.get() / 1024, cache.entries(), cache.diskBytes() / 1024);
+    }
+
+    @Override
+    public void close() {
+        try {
+            server.close();
+        } catch (IOException ignored) {}
+        connections.shutdownNow();
+    }
+
+    private void acceptLoop() {
+        while (!server.isClosed()) {
+            try {
+                Socket s = server.accept();
+                connections.submit(() -> serve(s));
+            } catch (IOException e) {
+                if (!server.isClosed()) EventLog.warn("assets.accept_failed", "asset proxy: accept failed: {error}", "error", e.getMessage());
+            } catch (RuntimeException e) {
+                // executor shut down
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (Socket s = socket) {
+            s.setSoTimeout(120_000);
+            InputStream in = new BufferedInputStream(s.getInputStream());
+            OutputStream out = new BufferedOutputStream(s.getOutputStream());
+            Request first = Request.read(in);
+            if (first == null) return;
+            if (first.method.equals("CONNECT")) {
+                String authority = first.target;
+                String host = authority.contains(":") ? authority.substring(0, authority.lastIndexOf(':')) : authority;
+                out.write("HTTP/1.1 200 Connection Established\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1));
+                out.flush();
+                byte[] early = new byte[in.available()];
+                int n = in.read(early, 0, early.length);
+                SSLSocket tls = (SSLSocket) certs.forHost(host.replace("[", "").replace("]", ""))
+                        .createSocket(s, n > 0 ? new ByteArrayInputStream(early, 0, n) : null, true);
+                tls.setUseClientMode(false);
+                tls.startHandshake();
+                InputStream tin = new BufferedInputStream(tls.getInputStream());
+                OutputStream tout = new BufferedOutputStream(tls.getOutputStream());
+                for (Request r = Request.read(tin); r != null; r = Request.read(tin)) {
+                    if (!handle(r, "https://" + (authority.endsWith(":443") ? host : authority) + r.target, tout)) break;
+                }
+            } else {
+                for (Request r = first; r != null; r = Request.read(in)) {
+                    if (!handle(r, r.target, out)) break;
+                }
+            }
+        } catch (EOFException | SocketException ignored) {
+            // client went away
+        } catch (IOException e) {
+            if (!server.isClosed()) EventLog.debug("assets.connection_failed", "asset proxy: {error}", "error", e.getMessage());
+        }
+    }
+
+    /**
+     * Answer one request from the cache or the origin.
+     * @return whether the connection stays open
+     */
+    private boolean handle(Request req, String url, OutputStream out) throws IOException {
+        requests.incrementAndGet();
+        URI uri;
+        try {
+            uri = URI.create(url);
+        } catch (IllegalArgumentException e) {
+            writeError(out, 400, "bad request target");
+            return false;
+        }
+        if (req.headers.containsKey("upgrade")) {
+            writeError(out, 501, "upgrade not supported by the asset proxy");
+            return false;
+        }
+        boolean keepAlive = !"close".equalsIgnoreCase(first(req.headers, "connection"));
+        boolean head = req.method.equals("HEAD");
+
+        String key = null;
+        if (req.method.equals("GET") && !req.headers.containsKey("range") && !req.headers.containsKey("authorization")) {
+            key = AssetCache.key(url, first(req.headers, "accept-encoding"));
+        }
+        boolean reload = AssetCache.noCache(req.headers);
+
+        AssetCache.Entry cached = key != null ? cache.get(key) : null;
+        long now = System.currentTimeMillis();
+        if (cached != null && cached.isFresh(now) && !reload) {
+            hits.incrementAndGet();
+            bytesFromCache.addAndGet(cached.body.length);
+            writeCached(out, cached, now, keepAlive, false);
+            return keepAlive;
+        }
+
+        if (cached == null && key != null && looksStatic(uri)) {
+            // several browsers loading the same bundle at once: one origin fetch
+            CompletableFuture<AssetCache.Entry> mine = new CompletableFuture<>();
+            CompletableFuture<AssetCache.Entry> running = inFlight.putIfAbsent(key, mine);
+            if (running != null) {
+                AssetCache.Entry shared = running.join();
+                if (shared != null) {
+                    hits.incrementAndGet();
+                    coalesced.incrementAndGet();
+                    bytesFromCache.addAndGet(shared.body.length);
+                    writeCached(out, shared, System.currentTimeMillis(), keepAlive, false);
+                    return keepAlive;
+                }
+            } else {
+                try {
+                    return forward(req, uri, key, null, out, keepAlive, head, mine);
+                } finally {
+                    inFlight.remove(key, mine);
+                    mine.complete(null);
+                }
+            }
+        }
+        return forward(req, uri, key, cached, out, keepAlive, head, null);
+    }
+
+    /**
+     * Fetch from the origin (conditionally, when a stale entry has validators), store what may be
+     * stored and write the response.
+     */
+    private boolean forward(Request req, URI uri, String key, AssetCache.Entry stale, OutputStream out,
+                            boolean keepAlive, boolean head, CompletableFuture<AssetCache.Entry> waiting) throws IOException {
+        HttpRequest.Builder b = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(60));
+        for (Map.Entry<String, List<String>> h : req.headers.entrySet()) {
+            if (HOP_BY_HOP.contains(h.getKey())) continue;
+            for (String v : h.getValue()) b.header(h.getKey(), v);
+        }
+        boolean conditional = false;
+        if (stale != null && !req.headers.containsKey("if-none-match") && !req.headers.containsKey("if-modified-since")) {
+            String etag = stale.header("etag");
+            String lastModified = stale.header("last-modified");
+            if (etag != null) b.header("if-none-match", etag);
+            if (lastModified != null) b.header("if-modified-since", lastModified);
+            conditional = etag != null || lastModified != null;
+        }
+        b.method(req.method, req.body.length == 0 ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofByteArray(req.body));
+
+        HttpResponse<byte[]> resp;
+        try {
+            resp = client.send(b.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            writeError(out, 502, "interrupted");
+            return false;
+        } catch (IOException | IllegalArgumentException e) {
+            writeError(out, 502, "origin unreachable: " + e.getMessage());
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        Map<String, List<String>> headers = new TreeMap<>();
+        resp.headers().map().forEach((k, v) -> {
+            String name = k.toLowerCase(Locale.ROOT);
+            if (!name.startsWith(":") && !HOP_BY_HOP.contains(name)) headers.put(name, v);
+        });
+        byte[] body = resp.body();
+        bytesFromOrigin.addAndGet(body.length);
+
+        if (conditional && resp.statusCode() == 304) {
+            revalidated.incrementAndGet();
+            hits.incrementAndGet();
+            cache.refresh(key, stale, headers, now);
+            bytesFromCache.addAndGet(stale.body.length);
+            writeCached(out, stale, now, keepAlive, head);
+            return keepAlive;
+        }
+
+        misses.incrementAndGet();
+        if (key != null && AssetCache.storable(req.method, resp.statusCode(), headers)) {
+            AssetCache.Entry e = new AssetCache.Entry();
+            e.url = uri.toString();
+            e.status = resp.statusCode();
+            e.headers = headers;
+            e.storedAt = now;
+            e.freshUntil = now + AssetCache.lifetime(headers, now);
+            e.noCache = AssetCache.noCache(headers);
+            cache.put(key, e, body);
+            if (waiting != null) {
+                // the indexed entry must not pin the body; the cache decides how long it is held
+                AssetCache.Entry shared = AssetCache.copy(e);
+                shared.body = body;
+                waiting.complete(shared);
+            }
+        }
+        if (head) {
+            List<String> length = resp.headers().allValues("content-length");
+            writeHead(out, resp.statusCode(), headers, length.isEmpty() ? -1 : Long.parseLong(length.get(0)), keepAlive);
+        } else {
+            writeResponse(out, resp.statusCode(), headers, body, keepAlive);
+        }
+        return keepAlive;
+    }
+
+    private static boolean looksStatic(URI uri) {
+        String path = uri.getPath();
+        if (path == null) return false;
+        int dot = path.lastIndexOf('.');
+        return dot > path.lastIndexOf('/') && STATIC_EXTENSIONS.contains(path.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    private static void writeCached(OutputStream out, AssetCache.Entry e, long now, boolean keepAlive, boolean head) throws IOException {
+        Map<String, List<String>> headers = new TreeMap<>(e.headers);
+        headers.put("age", List.of(Long.toString(Math.max(0, (now - e.storedAt) / 1000))));
+        headers.put("x-cache", List.of("HIT"));
+        if (head) writeHead(out, e.status, headers, e.body.length, keepAlive);
+        else writeResponse(out, e.status, headers, e.body, keepAlive);
+    }
+
+    private static void writeResponse(OutputStream out, int status, Map<String, List<String>> headers,
+                                      byte[] body, boolean keepAlive) throws IOException {
+        boolean noBody = status == 204 || status == 304 || status < 200;
+        writeHead(out, status, headers, noBody ? -1 : body.length, keepAlive);
+        if (!noBody) out.write(body);
+        out.flush();
+    }
+
+    private static void writeHead(OutputStream out, int status, Map<String, List<String>> headers,
+                                  long contentLength, boolean keepAlive) throws IOException {
+        StringBuilder sb = new StringBuilder(512);
+        sb.append("HTTP/1.1 ").append(status).append(' ').append(reason(status)).append("\r\n");
+        for (Map.Entry<String, List<String>> h : headers.entrySet()) {
+            for (String v : h.getValue()) sb.append(h.getKey()).append(": ").append(v).append("\r\n");
+        }
+        if (contentLength >= 0) sb.append("content-length: ").append(contentLength).append("\r\n");
+        sb.append("connection: ").append(keepAlive ? "keep-alive" : "close").append("\r\n\r\n");
+        out.write(sb.toString().getBytes(StandardCharsets.ISO_8859_1));
+        out.flush();
+    }
+
+    private static void writeError(OutputStream out, int status, String message) throws IOException {
+        byte[] body = message.getBytes(StandardCharsets.UTF_8);
+        Map<String, List<String>> h = new TreeMap<>();
+        h.put("content-type", List.of("text/plain; charset=utf-8"));
+        writeResponse(out, status, h, body, false);
+    }
+
+    private static String reason(int status) {
+        switch (status) {
+            case 200: return "OK";
+            case 204: return "No Content";
+            case 301: return "Moved Permanently";
+            case 302: return "Found";
+            case 304: return "Not Modified";
+            case 400: return "Bad Request";
+            case 404: return "Not Found";
+            case 501: return "Not Implemented";
+            case 502: return "Bad Gateway";
+            default: return "Status";
+        }
+    }
+
+    private static String first(Map<String, List<String>> headers, String name) {
+        List<String> v = headers.get(name);
+        return v == null || v.isEmpty() ? null : v.get(0);
+    }
+
+    /**
+     * One HTTP/1.1 request read off a client connection (header names lower-cased).
+     */
+    private static final class Request {
+        String method;
+        String target;
+        final Map<String, List<String>> headers = new TreeMap<>();
+        byte[] body = new byte[0];
+
+        /** @return the next request, or null at end of stream */
+        static Request read(InputStream in) throws IOException {
+            String line = readLine(in);
+            while (line != null && line.isEmpty()) line = readLine(in); // tolerate stray CRLF between requests
+            if (line == null) return null;
+            String[] parts = line.split(" ");
+            if (parts.length < 3) throw new IOException("malformed request line: " + line);
+            Request r = new Request();
+            r.method = parts[0].toUpperCase(Locale.ROOT);
+            r.target = parts[1];
+            int total = line.length();
+            for (String h = readLine(in); h != null && !h.isEmpty(); h = readLine(in)) {
+                total += h.length();
+                if (total > MAX_HEADER_BYTES) throw new IOException("request headers too large");
+                int colon = h.indexOf(':');
+                if (colon <= 0) continue;
+                r.headers.computeIfAbsent(h.substring(0, colon).trim().toLowerCase(Locale.ROOT), k -> new ArrayList<>())
+                        .add(h.substring(colon + 1).trim());
+            }
+            String te = first(r.headers, "transfer-encoding");
+            String length = first(r.headers, "content-length");
+            if (te != null && te.toLowerCase(Locale.ROOT).contains("chunked")) {
+                r.body = readChunked(in);
+            } else if (length != null) {
+                r.body = in.readNBytes(Integer.parseInt(length.trim()));
+            }
+            return r;
+        }
+
+        private static byte[] readChunked(InputStream in) throws IOException {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            while (true) {
+                String size = readLine(in);
+                if (size == null) throw new EOFException();
+                int semi = size.indexOf(';');
+                int n = Integer.parseInt((semi >= 0 ? size.substring(0, semi) : size).trim(), 16);
+                if (n == 0) {
+                    for (String t = readLine(in); t != null && !t.isEmpty(); t = readLine(in)) {
+                        // trailers are dropped
+                    }
+                    return body.toByteArray();
+                }
+                body.write(in.readNBytes(n));
+                readLine(in);
+            }
+        }
+
+        private static String readLine(InputStream in) throws IOException {
+            StringBuilder sb = new StringBuilder(64);
+            int c;
+            while ((c = in.read()) != -1) {
+                if (c == '\n') {
+                    int len = sb.length();
+                    if (len > 0 && sb.charAt(len - 1) == '\r') sb.setLength(len - 1);
+                    return sb.toString();
+                }
+                sb.append((char) c);
+                if (sb.length() > MAX_HEADER_BYTES) throw new IOException("header line too long");
+            }
+            return sb.length() == 0 ? null : sb.toString();
+        }
+    }
+}
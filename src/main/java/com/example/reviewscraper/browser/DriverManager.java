@@ -1,11 +1,15 @@
 package com.example.reviewscraper.browser;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
+import com.example.reviewscraper.util.StartupTimer;
 import org.openqa.selenium.Dimension;
+import org.openqa.selenium.SessionNotCreatedException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.chrome.ChromeDriver;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -13,14 +17,65 @@ import java.util.Map;
  * Enhanced driver factory with anti-detection measures for Cloudflare.
  */
 public class DriverManager {
-    
+
+    private static volatile ProfileTemplate profileTemplate;
+    private static volatile AssetProxy assetProxy;
+
+    /**
+     * Launch every new browser on a clone of this warmed profile instead of a fresh one (null = off).
+     */
+    public static void setProfileTemplate(ProfileTemplate template) {
+        profileTemplate = template;
+    }
+
+    /**
+     * Route every new browser (without an explicit proxy) through this shared caching proxy (null = off).
+     */
+    public static void setAssetProxy(AssetProxy proxy) {
+        assetProxy = proxy;
+    }
+
+    public static AssetProxy getAssetProxy() {
+        return assetProxy;
+    }
+
     public static WebDriver createChromeDriver(boolean headless) {
         return createChromeDriver(headless, null);
     }
     
     public static WebDriver createChromeDriver(boolean headless, String proxyServer) {
-        WebDriverManager.chromedriver().setup();
+        ProfileTemplate template = profileTemplate;
+        if (template == null) return launch(headless, proxyServer, null);
+        Path clone;
+        try {
+            clone = template.newClone(headless);
+        } catch (IOException e) {
+            throw new UncheckedIOException("could not prepare browser profile: " + e.getMessage(), e);
+        }
+        try {
+            ChromeDriver driver = launch(headless, proxyServer, clone, () -> template.dispose(clone));
+            template.checkVersion(browserVersion(driver));
+            return driver;
+        } catch (RuntimeException e) {
+            template.dispose(clone);
+            throw e;
+        }
+    }
+
+    /**
+     * Launch Chrome on the given --user-data-dir (null = chromedriver's temporary profile).
+     */
+    static ChromeDriver launch(boolean headless, String proxyServer, Path userDataDir) {
+        return launch(headless, proxyServer, userDataDir, null);
+    }
+
+    private static ChromeDriver launch(boolean headless, String proxyServer, Path userDataDir, Runnable afterQuit) {
+        // cached/configured path first; WebDriverManager network resolution only as a fallback
+        DriverResolver.resolve();
         ChromeOptions options = new ChromeOptions();
+        if (userDataDir != null) {
+            options.addArguments("--user-data-dir=" + userDataDir.toAbsolutePath());
+        }
         
         // Basic options
         if (headless) {
@@ -48,6 +103,11 @@ public class DriverManager {
         if (proxyServer != null && !proxyServer.isEmpty()) {
             options.addArguments("--proxy-server=" + proxyServer);
             System.out.println("Using proxy: " + proxyServer);
+        } else if (assetProxy != null) {
+            // the shared asset cache terminates TLS with its own key; trust only that key
+            options.addArguments("--proxy-server=http://" + assetProxy.address());
+            options.addArguments("--proxy-bypass-list=<-loopback>");
+            options.addArguments("--ignore-certificate-errors-spki-list=" + assetProxy.spkiHash());
         }
         
         // Exclude automation switches
@@ -63,7 +123,16 @@ public class DriverManager {
         // Additional experimental option to hide webdriver flag
         options.setExperimentalOption("useAutomationExtension", false);
         
-        ChromeDriver driver = new ChromeDriver(options);
+        ChromeDriver driver;
+        try {
+            driver = newDriver(options, afterQuit);
+        } catch (SessionNotCreatedException e) {
+            // a cached chromedriver may be older than the installed Chrome
+            if (!DriverResolver.resolvedFromCache() || DriverResolver.isOffline()) throw e;
+            System.out.println("Cached chromedriver rejected (" + e.getRawMessage() + "), resolving online");
+            DriverResolver.resolveOnline();
+            driver = newDriver(options, afterQuit);
+        }
         
         // Execute CDP commands to further mask automation
         Map<String, Object> params = new HashMap<>();
@@ -76,7 +145,26 @@ public class DriverManager {
         driver.executeCdpCommand("Page.addScriptToEvaluateOnNewDocument", params);
         
         driver.manage().window().setSize(new Dimension(1920, 1080));
-        
+
+        StartupTimer.mark("driver ready");
         return driver;
     }
-}
\ No newline at end of file
+
+    static String browserVersion(WebDriver driver) {
+        return driver instanceof ChromeDriver ? ((ChromeDriver) driver).getCapabilities().getBrowserVersion() : null;
+    }
+
+    private static ChromeDriver newDriver(ChromeOptions options, Runnable afterQuit) {
+        return new ChromeDriver(options) {
+            @Override
+            public void quit() {
+                NetworkMonitor.detach(this);
+                try {
+                    super.quit();
+                } finally {
+                    if (afterQuit != null) afterQuit.run();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.reviewscraper.browser;
+
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pool of live browsers that are reused between jobs, so a job does not pay
+ * driver resolution and Chrome launch. Drivers are created lazily up to {@code size}
+ * (or eagerly via {@link #warmUp()}) and replaced when they stop responding.
+ */
+public class DriverPool implements AutoCloseable {
+
+    private final int size;
+    private final Supplier<WebDriver> factory;
+    private final LinkedBlockingDeque<WebDriver> idle = new LinkedBlockingDeque<>();
+    private final List<WebDriver> all = new ArrayList<>();
+    private int launching;
+    private volatile boolean closed;
+
+    public DriverPool(int size, boolean headless) {
+        this(size, () -> DriverManager.createChromeDriver(headless));
+    }
+
+    public DriverPool(int size, Supplier<WebDriver> factory) {
+        if (size < 1) throw new IllegalArgumentException("pool size must be >= 1");
+        this.size = size;
+        this.factory = factory;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Launch all browsers up front so the first jobs do not wait for Chrome.
+     */
+    public void warmUp() {
+        List<WebDriver> created = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            WebDriver d;
+            try {
+                d = tryCreate();
+            } catch (Exception e) {
+                System.err.println("driver warm-up failed: " + e.getMessage());
+                break;
+            }
+            if (d == null) break;
+            created.add(d);
+        }
+        created.forEach(idle::addLast);
+    }
+
+    /**
+     * Take a driver, launching a new one if the pool is not full yet, otherwise waiting.
+     */
+    public WebDriver borrow() throws InterruptedException {
+        if (closed) throw new IllegalStateException("pool closed");
+        while (true) {
+            WebDriver d = idle.pollFirst();
+            if (d == null) d = tryCreate();
+            // poll with a timeout: a discarded driver frees a slot without anything being returned
+            if (d == null) d = idle.pollFirst(1, TimeUnit.SECONDS);
+            if (closed) {
+                if (d != null) discard(d);
+                throw new IllegalStateException("pool closed");
+            }
+            if (d == null) continue;
+            if (healthy(d)) return d;
+            discard(d);
+        }
+    }
+
+    /**
+     * Return a driver. Broken drivers (crashed browser, failed job) are quit instead of reused.
+     */
+    public void release(WebDriver d, boolean broken) {
+        if (d == null) return;
+        if (broken || closed) {
+            discard(d);
+            return;
+        }
+        try {
+            d.get("about:blank");
+        } catch (Exception e) {
+            discard(d);
+            return;
+        }
+        idle.addFirst(d);
+    }
+
+    private WebDriver tryCreate() {
+        // reserve a slot first so the (slow) browser launch happens outside the lock
+        synchronized (all) {
+            if (all.size() + launching >= size) return null;
+            launching++;
+        }
+        WebDriver d = null;
+        try {
+            d = factory.get();
+            return d;
+        } finally {
+            synchronized (all) {
+                launching--;
+                if (d != null) all.add(d);
+            }
+        }
+    }
+
+    private void discard(WebDriver d) {
+        synchronized (all) {
+            all.remove(d);
+        }
+        try { d.quit(); } catch (Exception ignored) {}
+    }
+
+    private static boolean healthy(WebDriver d) {
+        try {
+            d.getWindowHandle();
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        List<WebDriver> copy;
+        synchronized (all) {
+            copy = new ArrayList<>(all);
+            all.clear();
+        }
+        idle.clear();
+        for (WebDriver d : copy) {
+            try { d.quit(); } catch (Exception ignored) {}
+        }
+    }
+}
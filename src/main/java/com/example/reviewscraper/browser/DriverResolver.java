@@ -0,0 +1,149 @@
+package com.example.reviewscraper.browser;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Finds the chromedriver binary without touching the network when possible.
+ *
+ * Resolution order, once per JVM:
+ * <ol>
+ *   <li>{@code -Dwebdriver.chrome.driver} or the {@code CHROMEDRIVER_PATH} environment variable</li>
+ *   <li>the path remembered from the last online resolution (~/.review-scraper/chromedriver.path)</li>
+ *   <li>the newest chromedriver in the local WebDriverManager / Selenium cache (~/.cache/selenium)</li>
+ *   <li>WebDriverManager online resolution, unless offline mode is on
+ *       ({@code offline=true} on the command line or {@code -Dreviewscraper.offline=true})</li>
+ * </ol>
+ */
+public final class DriverResolver {
+
+    private static final String PROP = "webdriver.chrome.driver";
+    private static final Path REMEMBERED = Paths.get(System.getProperty("user.home"), ".review-scraper", "chromedriver.path");
+    private static final Path CACHE = Paths.get(System.getProperty("user.home"), ".cache", "selenium", "chromedriver");
+
+    private static volatile boolean offline = Boolean.getBoolean("reviewscraper.offline");
+    private static String resolved;
+    private static boolean fromCache;
+
+    private DriverResolver() {}
+
+    public static void setOffline(boolean value) {
+        offline = value;
+    }
+
+    public static boolean isOffline() {
+        return offline;
+    }
+
+    /**
+     * Resolve the chromedriver path and publish it as {@code webdriver.chrome.driver}.
+     */
+    public static synchronized String resolve() {
+        if (resolved != null) return resolved;
+
+        String explicit = Optional.ofNullable(System.getProperty(PROP)).orElse(System.getenv("CHROMEDRIVER_PATH"));
+        if (executable(explicit)) {
+            return publish(explicit, false);
+        }
+
+        String remembered = readRemembered();
+        if (executable(remembered)) {
+            return publish(remembered, true);
+        }
+
+        String cached = newestCached();
+        if (cached != null) {
+            return publish(cached, true);
+        }
+
+        if (offline) {
+            throw new IllegalStateException("offline mode: no chromedriver found in " + CACHE
+                    + "; set -D" + PROP + " or CHROMEDRIVER_PATH");
+        }
+        return resolveOnline();
+    }
+
+    /**
+     * True when the current path came from a cache and might not match the installed Chrome.
+     */
+    public static synchronized boolean resolvedFromCache() {
+        return fromCache;
+    }
+
+    /**
+     * Drop a cached path (e.g. after a version-mismatch session error) and resolve online.
+     */
+    public static synchronized String resolveOnline() {
+        WebDriverManager wdm = WebDriverManager.chromedriver();
+        wdm.setup();
+        String path = wdm.getDownloadedDriverPath();
+        if (path == null) path = System.getProperty(PROP);
+        remember(path);
+        return publish(path, false);
+    }
+
+    private static String publish(String path, boolean cache) {
+        resolved = path;
+        fromCache = cache;
+        System.setProperty(PROP, path);
+        return path;
+    }
+
+    private static boolean executable(String path) {
+        return path != null && !path.isBlank() && new File(path).canExecute();
+    }
+
+    private static String readRemembered() {
+        try {
+            return Files.isRegularFile(REMEMBERED) ? Files.readString(REMEMBERED, StandardCharsets.UTF_8).trim() : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static void remember(String path) {
+        if (path == null) return;
+        try {
+            Files.createDirectories(REMEMBERED.getParent());
+            Files.writeString(REMEMBERED, path, StandardCharsets.UTF_8);
+        } catch (Exception e) {
+            System.err.println("could not remember chromedriver path: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Cache layout is chromedriver/<os>/<version>/chromedriver[.exe]; pick the highest version.
+     */
+    private static String newestCached() {
+        if (!Files.isDirectory(CACHE)) return null;
+        try (Stream<Path> s = Files.walk(CACHE, 4)) {
+            return s.filter(p -> {
+                        String n = p.getFileName().toString();
+                        return (n.equals("chromedriver") || n.equals("chromedriver.exe")) && Files.isExecutable(p);
+                    })
+                    .max(Comparator.comparing(p -> versionKey(p.getParent().getFileName().toString())))
+                    .map(Path::toString)
+                    .orElse(null);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    // zero-padded numeric parts so "137.0.7151.68" sorts above "99.0.4844.51"
+    private static String versionKey(String version) {
+        StringBuilder sb = new StringBuilder();
+        for (String part : version.split("\\.")) {
+            String digits = part.replaceAll("\\D", "");
+            sb.append(String.format("%08d", digits.isEmpty() ? 0 : Long.parseLong(digits.substring(0, Math.min(8, digits.length())))));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.reviewscraper.browser;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Compares browser launch on chromedriver's fresh temporary profile against launch on a clone
+ * of a warmed {@link ProfileTemplate}: time to a ready driver, time to load the first page,
+ * and how much of that page came over the network rather than from the disk cache.
+ *
+ * <pre>
+ *   java -cp target/review12-0.0.1-SNAPSHOT.jar com.example.reviewscraper.browser.LaunchBenchmark \
+ *        [url=https://www.g2.com/] [launches=5] [template=dir] [clone=auto|copy|link] [headless=true]
+ * </pre>
+ * The template is built before the first measured launch (warmed with {@code url}) and not
+ * counted; without {@code template} a temporary one is used and deleted afterwards.
+ */
+public class LaunchBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        String url = arg(args, "url", "https://www.g2.com/");
+        int launches = Integer.parseInt(arg(args, "launches", "5"));
+        boolean headless = Boolean.parseBoolean(arg(args, "headless", "true"));
+        String dir = arg(args, "template", null);
+        Path root = dir != null ? Path.of(dir) : Files.createTempDirectory("profile-template");
+        ProfileTemplate template = new ProfileTemplate(root, List.of(url),
+                ProfileTemplate.CloneMode.parse(arg(args, "clone", "auto")), Duration.ofDays(7));
+
+        try {
+            // build the template (and resolve chromedriver) outside the measurement
+            DriverManager.setProfileTemplate(template);
+            DriverManager.createChromeDriver(headless).quit();
+
+            DriverManager.setProfileTemplate(null);
+            Sample fresh = measure("fresh profile", url, launches, headless);
+            DriverManager.setProfileTemplate(template);
+            Sample cloned = measure("template clone", url, launches, headless);
+
+            System.out.println();
+            System.out.printf("%-16s %12s %12s %14s %14s %12s%n", "", "launch p50", "launch max",
+                    "first page p50", "first page max", "network KB");
+            fresh.print();
+            cloned.print();
+        } finally {
+            DriverManager.setProfileTemplate(null);
+            if (dir == null) ProfileTemplate.deleteTree(root);
+        }
+    }
+
+    private static Sample measure(String label, String url, int launches, boolean headless) {
+        Sample s = new Sample(label);
+        for (int i = 0; i < launches; i++) {
+            long t0 = System.nanoTime();
+            WebDriver driver = DriverManager.createChromeDriver(headless);
+            long t1 = System.nanoTime();
+            try {
+                driver.get(url);
+                long t2 = System.nanoTime();
+                Object bytes = ((JavascriptExecutor) driver).executeScript(
+                        "return performance.getEntriesByType('navigation').concat(performance.getEntriesByType('resource'))"
+                                + ".reduce((n, e) => n + (e.transferSize || 0), 0)");
+                s.add(t1 - t0, t2 - t1, bytes instanceof Number ? ((Number) bytes).longValue() : 0);
+            } finally {
+                driver.quit();
+            }
+        }
+        return s;
+    }
+
+    private static String arg(String[] args, String key, String def) {
+        for (String a : args) {
+            if (a.startsWith(key + "=")) return a.substring(key.length() + 1);
+        }
+        return def;
+    }
+
+    private static class Sample {
+        final String label;
+        final List<Long> launch = new ArrayList<>();
+        final List<Long> firstPage = new ArrayList<>();
+        long networkBytes;
+
+        Sample(String label) {
+            this.label = label;
+        }
+
+        void add(long launchNanos, long pageNanos, long bytes) {
+            launch.add(launchNanos);
+            firstPage.add(pageNanos);
+            networkBytes += bytes;
+        }
+
+        void print() {
+            System.out.printf("%-16s %10d ms %10d ms %12d ms %12d ms %12d%n", label,
+                    ms(median(launch)), ms(Collections.max(launch)),
+                    ms(median(firstPage)), ms(Collections.max(firstPage)),
+                    networkBytes / Math.max(1, launch.size()) / 1024);
+        }
+
+        private static long median(List<Long> v) {
+            List<Long> sorted = new ArrayList<>(v);
+            Collections.sort(sorted);
+            return sorted.get(sorted.size() / 2);
+        }
+
+        private static long ms(long nanos) {
+            return nanos / 1_000_000;
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.example.reviewscraper.browser;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.devtools.v137.network.Network;
+import org.openqa.selenium.devtools.v137.network.model.RequestId;
+import org.openqa.selenium.devtools.v137.network.model.Response;
+import org.openqa.selenium.devtools.v137.network.model.ResourceType;
+import org.openqa.selenium.devtools.v137.page.Page;
+import org.openqa.selenium.devtools.v137.page.model.FrameId;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Watches CDP Network events of one Chrome session and remembers the HTTP status of the last
+ * document load, plus any 429/503 (and its Retry-After) seen on the page or its XHR/fetch calls.
+ *
+ * Selenium itself never exposes status codes, so this is how scrapers notice they are being
+ * throttled. It can also hand the bodies of matching XHR/fetch responses to a
+ * {@link BodyListener} (see {@link #addBodyCapture}). One monitor is kept per driver; drivers
+ * without DevTools get none. {@link #detach} drops it when the driver quits.
+ */
+public class NetworkMonitor {
+
+    private static final Map<WebDriver, NetworkMonitor> MONITORS = new WeakHashMap<>();
+
+    /**
+     * Receives the body of a captured response. Called on the monitor's own thread, one body at a time.
+     */
+    public interface BodyListener {
+        void onBody(String url, String body);
+    }
+
+    private static final class Capture {
+        final Predicate<String> urlMatch;
+        final BodyListener listener;
+
+        Capture(Predicate<String> urlMatch, BodyListener listener) {
+            this.urlMatch = urlMatch;
+            this.listener = listener;
+        }
+    }
+
+    private final DevTools devTools;
+    // the tab's top frame; iframes (ads, embeds, consent dialogs) load documents too
+    private volatile String mainFrame;
+    private final List<Capture> captures = new CopyOnWriteArrayList<>();
+    private final Map<RequestId, Object[]> pendingBodies = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    // bodies are fetched off the CDP event thread: a command sent from an event callback can stall it.
+    // The thread ends when idle, so a monitor whose driver was dropped without detach leaves nothing running.
+    private final ExecutorService bodyFetcher = new ThreadPoolExecutor(0, 1, 30, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), r -> {
+                Thread t = new Thread(r, "cdp-body-fetch");
+                t.setDaemon(true);
+                return t;
+            });
+    private volatile Integer documentStatus;
+    private volatile Integer throttleStatus;
+    private volatile long retryAfterMs;
+
+    private NetworkMonitor(DevTools devTools) {
+        this.devTools = devTools;
+    }
+
+    /**
+     * The monitor for {@code driver}, attaching on first use.
+     * @return null if the driver has no DevTools or the session could not be opened
+     */
+    public static NetworkMonitor attach(WebDriver driver) {
+        synchronized (MONITORS) {
+            if (MONITORS.containsKey(driver)) return MONITORS.get(driver);
+            NetworkMonitor m = null;
+            if (driver instanceof HasDevTools) {
+                try {
+                    DevTools dt = ((HasDevTools) driver).getDevTools();
+                    dt.createSessionIfThereIsNotOne();
+                    dt.send(Network.enable(Optional.empty(), Optional.empty(), Optional.empty()));
+                    m = new NetworkMonitor(dt);
+                    NetworkMonitor self = m;
+                    try {
+                        m.mainFrame = dt.send(Page.getFrameTree()).getFrame().getId().toString();
+                    } catch (Exception e) {
+                        System.err.println("Top frame unknown, document status may come from an iframe: " + e.getMessage());
+                    }
+                    dt.addListener(Network.responseReceived(),
+                            ev -> self.onResponse(ev.getRequestId(), ev.getType(), ev.getResponse(), ev.getFrameId()));
+                    dt.addListener(Network.loadingFinished(), ev -> self.onFinished(ev.getRequestId()));
+                    dt.addListener(Network.loadingFailed(), ev -> self.pendingBodies.remove(ev.getRequestId()));
+                } catch (Exception e) {
+                    System.err.println("Network monitoring unavailable: " + e.getMessage());
+                    m = null;
+                }
+            }
+            MONITORS.put(driver, m);
+            return m;
+        }
+    }
+
+    /**
+     * Forget the monitor of {@code driver} and stop its body reader; call when the driver quits.
+     */
+    public static void detach(WebDriver driver) {
+        NetworkMonitor m;
+        synchronized (MONITORS) {
+            m = MONITORS.remove(driver);
+        }
+        if (m != null) {
+            m.captures.clear();
+            m.pendingBodies.clear();
+            m.bodyFetcher.shutdownNow();
+        }
+    }
+
+    /** Session the monitor listens on, for callers that want to subscribe to more events. */
+    public DevTools getDevTools() {
+        return devTools;
+    }
+
+    private void onResponse(RequestId id, ResourceType type, Response response, Optional<FrameId> frame) {
+        int status = response.getStatus() != null ? response.getStatus() : 0;
+        if (type == ResourceType.DOCUMENT && isMainFrame(frame)) documentStatus = status;
+        if (status == 429 || status == 503) {
+            throttleStatus = status;
+            retryAfterMs = Math.max(retryAfterMs, retryAfterMs(response));
+        }
+        if (status / 100 != 2 || (type != ResourceType.XHR && type != ResourceType.FETCH)) return;
+        for (Capture c : captures) {
+            if (c.urlMatch.test(response.getUrl())) {
+                // the body can only be read once loading has finished
+                pendingBodies.put(id, new Object[]{response.getUrl(), c.listener});
+                return;
+            }
+        }
+    }
+
+    private boolean isMainFrame(Optional<FrameId> frame) {
+        String main = mainFrame;
+        return main == null || frame.isEmpty() || main.equals(frame.get().toString());
+    }
+
+    private void onFinished(RequestId id) {
+        Object[] pending = pendingBodies.remove(id);
+        if (pending == null) return;
+        String url = (String) pending[0];
+        BodyListener listener = (BodyListener) pending[1];
+        inFlight.incrementAndGet();
+        try {
+            bodyFetcher.submit(() -> {
+                try {
+                    Network.GetResponseBodyResponse r = devTools.send(Network.getResponseBody(id));
+                    String body = Boolean.TRUE.equals(r.getBase64Encoded())
+                            ? new String(Base64.getDecoder().decode(r.getBody()), StandardCharsets.UTF_8)
+                            : r.getBody();
+                    listener.onBody(url, body);
+                } catch (Exception e) {
+                    System.err.println("Could not read response body of " + url + ": " + e.getMessage());
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.decrementAndGet(); // detached
+        }
+    }
+
+    /**
+     * Deliver bodies of successful XHR/fetch responses whose URL matches to {@code listener}.
+     */
+    public void addBodyCapture(Predicate<String> urlMatch, BodyListener listener) {
+        captures.add(new Capture(urlMatch, listener));
+    }
+
+    public void removeBodyCapture(BodyListener listener) {
+        captures.removeIf(c -> c.listener == listener);
+        pendingBodies.values().removeIf(p -> p[1] == listener);
+    }
+
+    /**
+     * Wait until captured responses seen so far have been delivered (or {@code timeoutMs} passes).
+     */
+    public void awaitBodies(long timeoutMs) {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while ((!pendingBodies.isEmpty() || inFlight.get() > 0) && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Forget what was seen so far; call right before a navigation.
+     */
+    public void reset() {
+        documentStatus = null;
+        throttleStatus = null;
+        retryAfterMs = 0;
+    }
+
+    /** Status of the last top-frame document response since {@link #reset()}, or null. */
+    public Integer getDocumentStatus() {
+        return documentStatus;
+    }
+
+    /** 429 or 503 if any response since {@link #reset()} had one, else null. */
+    public Integer getThrottleStatus() {
+        return throttleStatus;
+    }
+
+    /** Largest Retry-After (in ms) sent with a throttling response, 0 if none. */
+    public long getRetryAfterMs() {
+        return retryAfterMs;
+    }
+
+    private static long retryAfterMs(Response response) {
+        if (response.getHeaders() == null) return 0;
+        for (Map.Entry<String, Object> h : response.getHeaders().entrySet()) {
+            if (!"retry-after".equalsIgnoreCase(h.getKey()) || h.getValue() == null) continue;
+            try {
+                return Math.max(0, Long.parseLong(h.getValue().toString().trim())) * 1000;
+            } catch (NumberFormatException e) {
+                return 0; // HTTP-date form: fall back to the governor's own backoff
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,337 @@
+package com.example.reviewscraper.browser;
+
+import com.example.reviewscraper.util.EventLog;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * A Chrome profile that has been through first-run initialization and has the sites' static
+ * assets (scripts, styles, fonts) in its disk cache, cloned for every new browser so a launch
+ * skips profile creation and the first pages do not download the same bundles again.
+ *
+ * Layout under the template directory:
+ * <pre>
+ *   template/       the warmed --user-data-dir (never used by a running browser)
+ *   template.json   when and from which URLs it was built, and the Chrome version
+ *   clones/pid-n/   one per live browser, deleted when the driver quits
+ * </pre>
+ * The template is (re)built on first use, when it is older than {@code maxAge}, when the warm-up
+ * URLs change, or after a browser reports a different Chrome version than the one that built it.
+ * A build happens in a side directory and is swapped in with a rename; building and cloning hold
+ * a lock file, so several processes can share one template directory.
+ *
+ * Clones are reflinks (copy-on-write: btrfs, XFS, APFS) where the file system supports them and
+ * plain copies elsewhere. {@link CloneMode#LINK} hard-links the disk cache instead of copying it,
+ * which is fastest on any file system but lets browsers update cache entries of the template in
+ * place; the template is then only as fresh as its next rebuild.
+ */
+public final class ProfileTemplate {
+
+    public enum CloneMode {
+        /** reflink where supported, copy otherwise */
+        AUTO,
+        COPY,
+        LINK;
+
+        public static CloneMode parse(String s) {
+            return valueOf(s.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private static final Gson G = new Gson();
+    private static final long PAGE_SETTLE_MS = 1500;
+    // Chrome's per-process lock files, meaningless (and harmful) in a copy
+    private static final Set<String> SKIP = Set.of("SingletonLock", "SingletonSocket", "SingletonCookie", "lockfile");
+    private static final Set<String> CACHE_DIRS = Set.of("Cache", "Code Cache", "GPUCache");
+
+    private final Path root;
+    private final List<String> warmUrls;
+    private final CloneMode mode;
+    private final Duration maxAge;
+    private final Set<Path> live = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger seq = new AtomicInteger();
+    private boolean ready;
+    private String chromeVersion;
+    private Boolean reflink;
+
+    /**
+     * @param root directory holding the template and the clones
+     * @param warmUrls pages loaded while building, to prime the cache
+     */
+    public ProfileTemplate(Path root, List<String> warmUrls, CloneMode mode, Duration maxAge) {
+        this.root = root.toAbsolutePath();
+        this.warmUrls = List.copyOf(warmUrls);
+        this.mode = mode;
+        this.maxAge = maxAge;
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> live.forEach(ProfileTemplate::deleteTree), "profile-clones-cleanup"));
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    /**
+     * A fresh private copy of the template, building the template first if needed. Pass it to
+     * Chrome as --user-data-dir and hand it back to {@link #dispose(Path)} after quitting.
+     */
+    public synchronized Path newClone(boolean headless) throws IOException {
+        Files.createDirectories(root.resolve("clones"));
+        try (FileChannel ch = FileChannel.open(root.resolve("template.lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            FileLock lock = ch.lock();
+            try {
+                if (!ready) {
+                    sweepDeadClones();
+                    if (needsBuild()) build(headless);
+                    ready = true;
+                }
+                Path clone = root.resolve("clones").resolve(ProcessHandle.current().pid() + "-" + seq.incrementAndGet());
+                long t0 = System.nanoTime();
+                cloneTree(root.resolve("template"), clone);
+                live.add(clone);
+                EventLog.debug("profile.clone", "Profile clone {clone} ready in {ms} ms ({mode})", "clone", clone.getFileName(),
+                        "ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0), "mode", describeMode());
+                return clone;
+            } finally {
+                lock.release();
+            }
+        }
+    }
+
+    /**
+     * Delete a clone once its browser has quit.
+     */
+    public void dispose(Path clone) {
+        if (clone == null) return;
+        live.remove(clone);
+        deleteTree(clone);
+    }
+
+    /**
+     * Called with the version a browser launched from a clone reports; a different version than
+     * the one that built the template means Chrome was upgraded, so the next clone rebuilds it.
+     */
+    public synchronized void checkVersion(String version) {
+        if (version == null || chromeVersion == null || version.equals(chromeVersion)) return;
+        EventLog.info("profile.stale", "Chrome {version} differs from profile template's {templateVersion}, rebuilding on next launch",
+                "version", version, "templateVersion", chromeVersion);
+        try {
+            Files.deleteIfExists(root.resolve("template.json"));
+        } catch (IOException ignored) {}
+        ready = false;
+    }
+
+    private boolean needsBuild() {
+        Path meta = root.resolve("template.json");
+        if (!Files.isDirectory(root.resolve("template")) || !Files.isRegularFile(meta)) return true;
+        try {
+            JsonObject m = G.fromJson(Files.readString(meta, StandardCharsets.UTF_8), JsonObject.class);
+            Instant built = Instant.parse(m.get("built").getAsString());
+            if (built.plus(maxAge).isBefore(Instant.now())) return true;
+            if (!G.toJsonTree(warmUrls).equals(m.get("warmUrls"))) return true;
+            chromeVersion = m.has("chromeVersion") ? m.get("chromeVersion").getAsString() : null;
+            return false;
+        } catch (Exception e) {
+            return true;
+        }
+    }
+
+    /**
+     * Launch Chrome on an empty profile, load the warm-up pages, quit cleanly and swap the result in.
+     */
+    private void build(boolean headless) throws IOException {
+        Path work = root.resolve("template.new");
+        deleteTree(work);
+        Files.createDirectories(work);
+        long t0 = System.nanoTime();
+        WebDriver driver = DriverManager.launch(headless, null, work);
+        String version;
+        try {
+            version = DriverManager.browserVersion(driver);
+            for (String url : warmUrls) {
+                try {
+                    driver.get(url);
+                    // let late scripts, fonts and lazy chunks land in the cache
+                    Thread.sleep(PAGE_SETTLE_MS);
+                    ((JavascriptExecutor) driver).executeScript("return document.readyState");
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("interrupted while building profile template");
+                } catch (Exception e) {
+                    EventLog.warn("profile.warm_failed", "Profile template: could not load {url}: {error}", "url", url, "error", e.getMessage());
+                }
+            }
+        } finally {
+            driver.quit();
+        }
+
+        Path template = root.resolve("template");
+        Path old = root.resolve("template.old");
+        deleteTree(old);
+        if (Files.exists(template)) Files.move(template, old, StandardCopyOption.ATOMIC_MOVE);
+        Files.move(work, template, StandardCopyOption.ATOMIC_MOVE);
+        deleteTree(old);
+
+        JsonObject meta = new JsonObject();
+        meta.addProperty("built", Instant.now().toString());
+        meta.addProperty("chromeVersion", version);
+        meta.add("warmUrls", G.toJsonTree(warmUrls));
+        Path tmp = root.resolve("template.json.tmp");
+        Files.writeString(tmp, G.toJson(meta), StandardCharsets.UTF_8);
+        Files.move(tmp, root.resolve("template.json"), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        chromeVersion = version;
+        EventLog.info("profile.built", "Profile template built in {ms} ms ({pages} warm-up pages, Chrome {version})",
+                "ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0), "pages", warmUrls.size(), "version", version);
+    }
+
+    private void cloneTree(Path from, Path to) throws IOException {
+        if (mode == CloneMode.AUTO && reflinkSupported()) {
+            Path parent = to.getParent();
+            Path staging = parent.resolve(to.getFileName() + ".tmp");
+            List<String> cmd = isMac()
+                    ? List.of("cp", "-c", "-R", from.toString(), staging.toString())
+                    : List.of("cp", "-a", "--reflink=always", from.toString(), staging.toString());
+            if (run(cmd)) {
+                for (String name : SKIP) Files.deleteIfExists(staging.resolve(name));
+                Files.move(staging, to, StandardCopyOption.ATOMIC_MOVE);
+                return;
+            }
+            deleteTree(staging);
+            reflink = false;
+        }
+        boolean link = mode == CloneMode.LINK;
+        Files.walkFileTree(from, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                Files.createDirectories(to.resolve(from.relativize(dir).toString()));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                if (SKIP.contains(file.getFileName().toString()) || attrs.isSymbolicLink()) return FileVisitResult.CONTINUE;
+                Path target = to.resolve(from.relativize(file).toString());
+                if (link && inCache(from.relativize(file))) {
+                    Files.createLink(target, file);
+                } else {
+                    Files.copy(file, target, StandardCopyOption.COPY_ATTRIBUTES);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static boolean inCache(Path relative) {
+        for (Path part : relative) {
+            if (CACHE_DIRS.contains(part.toString())) return true;
+        }
+        return false;
+    }
+
+    /** Probe once whether cp can reflink on the template's file system. */
+    private boolean reflinkSupported() throws IOException {
+        if (reflink == null) {
+            Path probe = root.resolve("clones").resolve(".reflink-probe");
+            Path copy = root.resolve("clones").resolve(".reflink-probe.copy");
+            Files.writeString(probe, "probe", StandardCharsets.UTF_8);
+            reflink = run(isMac()
+                    ? List.of("cp", "-c", probe.toString(), copy.toString())
+                    : List.of("cp", "--reflink=always", probe.toString(), copy.toString()));
+            Files.deleteIfExists(probe);
+            Files.deleteIfExists(copy);
+        }
+        return reflink;
+    }
+
+    private String describeMode() {
+        if (mode == CloneMode.AUTO) return Boolean.TRUE.equals(reflink) ? "reflink" : "copy";
+        return mode.name().toLowerCase(Locale.ROOT);
+    }
+
+    /** Remove clones left behind by processes that are gone (killed before their shutdown hook ran). */
+    private void sweepDeadClones() throws IOException {
+        List<Path> stale = new ArrayList<>();
+        try (Stream<Path> dirs = Files.list(root.resolve("clones"))) {
+            dirs.forEach(d -> {
+                String name = d.getFileName().toString();
+                int dash = name.indexOf('-');
+                if (dash <= 0) return;
+                try {
+                    long pid = Long.parseLong(name.substring(0, dash));
+                    if (ProcessHandle.of(pid).map(ProcessHandle::isAlive).orElse(false)) return;
+                } catch (NumberFormatException e) {
+                    return;
+                }
+                stale.add(d);
+            });
+        }
+        stale.forEach(ProfileTemplate::deleteTree);
+    }
+
+    private static boolean run(List<String> cmd) {
+        try {
+            Process p = new ProcessBuilder(cmd).redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+            return p.waitFor(60, TimeUnit.SECONDS) && p.exitValue() == 0;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static boolean isMac() {
+        return System.getProperty("os.name", "").toLowerCase(Locale.ROOT).contains("mac");
+    }
+
+    static void deleteTree(Path dir) {
+        if (!Files.exists(dir, LinkOption.NOFOLLOW_LINKS)) return;
+        try {
+            Files.walkFileTree(dir, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                    Files.deleteIfExists(file);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path d, IOException exc) throws IOException {
+                    Files.deleteIfExists(d);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            EventLog.warn("profile.delete_failed", "Could not delete {dir}: {error}", "dir", dir, "error", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.reviewscraper.browser;
+
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.asn1.x509.GeneralName;
+import org.bouncycastle.asn1.x509.GeneralNames;
+import org.bouncycastle.cert.X509v3CertificateBuilder;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.cert.jcajce.JcaX509v3CertificateBuilder;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocketFactory;
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.KeyStore;
+import java.security.MessageDigest;
+import java.security.cert.Certificate;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-host TLS certificates for {@link AssetProxy}, all self-signed with one key pair generated
+ * at startup. Chrome accepts them because it is launched with that key's SPKI hash in
+ * {@code --ignore-certificate-errors-spki-list}; nothing is added to any trust store, and the key
+ * never leaves the process.
+ */
+final class ProxyCertificates {
+
+    private static final char[] PASSWORD = "asset-proxy".toCharArray();
+    private static final Duration VALIDITY = Duration.ofDays(30);
+
+    private final KeyPair keys;
+    private final String spkiHash;
+    private final Map<String, SSLSocketFactory> factories = new ConcurrentHashMap<>();
+
+    ProxyCertificates() throws GeneralSecurityException {
+        KeyPairGenerator kpg = KeyPairGenerator.getInstance("EC");
+        kpg.initialize(256);
+        this.keys = kpg.generateKeyPair();
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(keys.getPublic().getEncoded());
+        this.spkiHash = Base64.getEncoder().encodeToString(digest);
+    }
+
+    /**
+     * Base64 SHA-256 of the public key, the value Chrome expects in the SPKI list.
+     */
+    String spkiHash() {
+        return spkiHash;
+    }
+
+    /**
+     * Server-side socket factory presenting a certificate for {@code host}.
+     */
+    SSLSocketFactory forHost(String host) {
+        return factories.computeIfAbsent(host, h -> {
+            try {
+                return context(h).getSocketFactory();
+            } catch (Exception e) {
+                throw new IllegalStateException("could not create certificate for " + h + ": " + e.getMessage(), e);
+            }
+        });
+    }
+
+    private SSLContext context(String host) throws Exception {
+        KeyStore ks = KeyStore.getInstance("PKCS12");
+        ks.load(null, null);
+        ks.setKeyEntry("host", keys.getPrivate(), PASSWORD, new Certificate[] {certificate(host)});
+        KeyManagerFactory kmf = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        kmf.init(ks, PASSWORD);
+        SSLContext ctx = SSLContext.getInstance("TLS");
+        ctx.init(kmf.getKeyManagers(), null, null);
+        return ctx;
+    }
+
+    private X509Certificate certificate(String host) throws Exception {
+        Instant now = Instant.now();
+        X500Name name = new X500Name("CN=" + host.replaceAll("[,=+<>#;\"\\\\]", ""));
+        X509v3CertificateBuilder builder = new JcaX509v3CertificateBuilder(name,
+                BigInteger.valueOf(now.toEpochMilli()).shiftLeft(16).add(BigInteger.valueOf(host.hashCode() & 0xffff)),
+                Date.from(now.minus(Duration.ofDays(1))), Date.from(now.plus(VALIDITY)), name, keys.getPublic());
+        boolean ip = host.matches("[0-9.]+") || host.contains(":");
+        builder.addExtension(Extension.subjectAlternativeName, false,
+                new GeneralNames(new GeneralName(ip ? GeneralName.iPAddress : GeneralName.dNSName, host)));
+        return new JcaX509CertificateConverter()
+                .getCertificate(builder.build(new JcaContentSignerBuilder("SHA256withECDSA").build(keys.getPrivate())));
+    }
+}
@@ -1,20 +1,100 @@
 package com.example.reviewscraper.cli;
 
+import com.example.reviewscraper.browser.AssetCache;
+import com.example.reviewscraper.browser.AssetProxy;
 import com.example.reviewscraper.browser.DriverManager;
-import com.example.reviewscraper.io.JsonWriter;
+import com.example.reviewscraper.browser.DriverPool;
+import com.example.reviewscraper.browser.DriverResolver;
+import com.example.reviewscraper.browser.ProfileTemplate;
+import com.example.reviewscraper.dedupe.SeenReviews;
+import com.example.reviewscraper.enrich.Enricher;
+import com.example.reviewscraper.exec.CrawlHistory;
+import com.example.reviewscraper.exec.Orchestrator;
+import com.example.reviewscraper.exec.YieldScheduler;
+import com.example.reviewscraper.io.OutputFormat;
+import com.example.reviewscraper.io.PartitionedDataset;
 import com.example.reviewscraper.model.Review;
 import com.example.reviewscraper.scraper.*;
+import com.example.reviewscraper.stats.ReviewStats;
+import com.example.reviewscraper.util.EventLog;
+import com.example.reviewscraper.util.SelectorRegistry;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 public class App {
     public static void main(String[] args) {
+        try {
+            run(args);
+        } catch (NumberFormatException e) {
+            System.err.println("Error: invalid number (" + e.getMessage() + ")");
+        } catch (IllegalArgumentException e) {
+            // bad option values, raised before any browser is started
+            System.err.println("Error: " + e.getMessage());
+        }
+    }
+
+    private static void run(String[] args) {
+        if (args.length >= 1 && args[0].equalsIgnoreCase("serve")) {
+            serve(args);
+            return;
+        }
+        if (args.length >= 1 && args[0].equalsIgnoreCase("batch")) {
+            batch(args);
+            return;
+        }
+        if (args.length >= 1 && args[0].equalsIgnoreCase("enqueue")) {
+            Distributed.enqueue(args);
+            return;
+        }
+        if (args.length >= 1 && args[0].equalsIgnoreCase("worker")) {
+            Distributed.work(args);
+            return;
+        }
+        if (args.length >= 1 && args[0].equalsIgnoreCase("merge")) {
+            Distributed.merge(args);
+            return;
+        }
+        if (args.length >= 1 && args[0].equalsIgnoreCase("consolidate")) {
+            Consolidate.run(args);
+            return;
+        }
+        if (args.length >= 1 && args[0].equalsIgnoreCase("soak")) {
+            Soak.run(args);
+            return;
+        }
+        if (args.length >= 1 && args[0].equals("--cds-training")) {
+            trainCds();
+            return;
+        }
         if (args.length < 4) {
-            System.out.println("Usage: java -jar review-scraper.jar \"Company Name\" <start yyyy-MM-dd> <end yyyy-MM-dd> <source:g2|capterra|trustradius> [headless:true|false] [maxPages] [delayMs]");
+            System.out.println("Usage: java -jar review-scraper.jar \"Company Name\" <start yyyy-MM-dd> <end yyyy-MM-dd> <source:g2|capterra|trustradius> [headless:true|false] [maxPages] [delayMs] [format=json|ndjson|ndjson.gz|ndjson.zst|arrow] [configDir=path] [offline=true] [maxRps=1] [prefetch=true] [fullText=true] [detailConcurrency=4] [detailCache=dir|off] [logLevel=info|debug] [trace=path|off] [dedupeStore=path] [dedupeBloom=true] [profileTemplate=dir] [profileClone=auto|copy|link] [warmUrls=url,...] [assetCache=dir|memory] [assetCacheMb=1024] [dataset=dir] [enrich=true|language,sentiment,keywords] [enrichThreads=N]");
+            System.out.println("       java -jar review-scraper.jar batch <products.txt> <start> <end> <source> [drivers=4] [timeout=30m] [maxPages=10] [delayMs=800] [headless=true|false] [format=...] [deadline=45m|05:30] [maxReviews=N] [schedule=yield] [stalePages=N] [history=path] [dataset=dir] [enrich=...]");
+            System.out.println("       java -jar review-scraper.jar serve [port=8080] [drivers=2] [headless=true|false] [configDir=path]");
+            System.out.println("       java -jar review-scraper.jar enqueue <queueDir> <products.txt> <start> <end> <source> [maxPages=10] [shardPages=5]");
+            System.out.println("       java -jar review-scraper.jar worker <queueDir> [drivers=2] [leaseTtl=2m] [delayMs=800] [headless=true|false]");
+            System.out.println("       java -jar review-scraper.jar merge <queueDir> [format=json] [partial=true] [dataset=dir]");
+            System.out.println("       java -jar review-scraper.jar consolidate <output> <file|dir>... [format=json] [memoryMb=256] [tmpDir=dir]");
+            System.out.println("       java -jar review-scraper.jar soak [products=20] [pages=5] [reviews=25] [source=g2|capterra|both] [drivers=4] [latencyMs=50] [renderMs=0] [errorRate=0] [dates=uniform|recent]");
             return;
         }
 
@@ -33,43 +113,443 @@ public class App {
             return;
         }
         String source = args[3].toLowerCase();
-        boolean headless = args.length < 5 || !args[4].equalsIgnoreCase("headless=false");
-        int maxPages = args.length >= 6 ? Integer.parseInt(args[5]) : 10;
-        long delayMs = args.length >= 7 ? Long.parseLong(args[6]) : 800L;
+
+        // trailing args: positional [headless] [maxPages] [delayMs], plus key=value options anywhere
+        List<String> positional = new ArrayList<>();
+        Map<String, String> opts = new HashMap<>();
+        parseTrailing(args, 4, positional, opts);
+        boolean headless = positional.isEmpty() || !positional.get(0).equalsIgnoreCase("headless=false");
+        int maxPages = positional.size() >= 2 ? Integer.parseInt(positional.get(1)) : 10;
+        long delayMs = positional.size() >= 3 ? Long.parseLong(positional.get(2)) : 800L;
+
+        OutputFormat format;
+        try {
+            format = OutputFormat.parse(opts.getOrDefault("format", "json"));
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            return;
+        }
+        applyCommonOptions(opts);
 
         WebDriver driver = null;
+        ProductOutput output = null;
         try {
             driver = DriverManager.createChromeDriver(headless);
-            Scraper scraper;
-            switch (source) {
-                case "g2":
-                    scraper = new G2Scraper(driver, maxPages, delayMs);
-                    break;
-                case "capterra":
-                    scraper = new CapterraScraper(driver, maxPages, delayMs);
-                    break;
-                case "trustradius":
-                case "trust":
-                    scraper = new TrustRadiusScraper(driver, maxPages, delayMs);
-                    break;
-                default:
-                    System.err.println("Unsupported source: " + source);
-                    return;
+            Scraper scraper = Scrapers.create(source, driver, maxPages, delayMs);
+            if (scraper == null) {
+                System.err.println("Unsupported source: " + source);
+                return;
             }
+            applyScraperOptions(scraper, opts);
+
+            output = new ProductOutput(ProductOutput.baseName(source, company, start, end), format)
+                    .setPartition(source, company);
+            output.attach(scraper);
 
             List<Review> reviews = scraper.scrape(company, start, end);
             System.out.println("Collected " + reviews.size() + " reviews.");
 
-            String filename = String.format("reviews_%s_%s_%s_%s.json", source, company.replaceAll("\\s+","_"), start, end);
-            File out = JsonWriter.write(reviews, filename);
+            File out = output.finish(reviews);
             System.out.println("Wrote " + out.getAbsolutePath());
+            System.out.println("Wrote " + output.statsFile().getAbsolutePath());
         } catch (Exception ex) {
             System.err.println("Error: " + ex.getMessage());
             ex.printStackTrace();
         } finally {
+            if (output != null) output.close();
             if (driver != null) {
                 try { driver.quit(); } catch (Exception ignored) {}
             }
         }
     }
+
+    /**
+     * Collect trailing args: key=value pairs go to {@code opts} (keys lower-cased), the rest
+     * (including the legacy "headless=false" flag) to {@code positional}.
+     */
+    static void parseTrailing(String[] args, int from, List<String> positional, Map<String, String> opts) {
+        for (int i = from; i < args.length; i++) {
+            String a = args[i];
+            int eq = a.indexOf('=');
+            if (eq > 0 && !a.toLowerCase(Locale.ROOT).startsWith("headless=")) {
+                opts.put(a.substring(0, eq).toLowerCase(Locale.ROOT), a.substring(eq + 1));
+            } else {
+                positional.add(a);
+            }
+        }
+    }
+
+    /**
+     * Process-wide options shared by all commands.
+     * @throws IllegalArgumentException for an invalid value; reported by {@link #main} as "Error: ..."
+     */
+    static void applyCommonOptions(Map<String, String> opts) {
+        if (opts.containsKey("configdir")) {
+            SelectorRegistry.watch(Path.of(opts.get("configdir")));
+        }
+        if ("true".equalsIgnoreCase(opts.get("offline"))) {
+            DriverResolver.setOffline(true);
+        }
+        if (opts.containsKey("loglevel")) {
+            EventLog.setLevel(EventLog.parseLevel(opts.get("loglevel")));
+        }
+        if (opts.containsKey("trace")) {
+            EventLog.configureTrace(opts.get("trace"));
+        }
+        if (opts.containsKey("maxrps")) {
+            RateGovernor.setCeiling(Double.parseDouble(opts.get("maxrps")));
+        }
+        if (opts.containsKey("detailconcurrency")) {
+            DetailFetcher.setConcurrency(Integer.parseInt(opts.get("detailconcurrency")));
+        }
+        if (opts.containsKey("detailcache")) {
+            String dir = opts.get("detailcache");
+            DetailFetcher.setCacheDir(dir.equalsIgnoreCase("off") ? null : Path.of(dir));
+        }
+        if (opts.containsKey("dataset")) {
+            try {
+                ProductOutput.setDataset(new PartitionedDataset(Path.of(opts.get("dataset")),
+                        OutputFormat.parse(opts.getOrDefault("format", "ndjson"))));
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Cannot open dataset: " + e.getMessage(), e);
+            }
+        }
+        if (opts.containsKey("enrich")) {
+            Set<Enricher.Stage> stages = Enricher.Stage.parse(opts.get("enrich"));
+            if (!stages.isEmpty()) {
+                int threads = Integer.parseInt(opts.getOrDefault("enrichthreads",
+                        String.valueOf(Runtime.getRuntime().availableProcessors())));
+                ProductOutput.setEnricher(new Enricher(threads, stages));
+            }
+        }
+        if (opts.containsKey("dedupestore")) {
+            try {
+                SeenReviews.openShared(Path.of(opts.get("dedupestore")), "true".equalsIgnoreCase(opts.get("dedupebloom")));
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Cannot open dedupe store: " + e.getMessage(), e);
+            }
+        }
+        // last: these start processes and threads, so only once every other option is valid
+        if (opts.containsKey("profiletemplate")) {
+            DriverManager.setProfileTemplate(profileTemplate(opts));
+        }
+        if (opts.containsKey("assetcache")) {
+            startAssetProxy(opts);
+        }
+    }
+
+    /**
+     * assetCache=dir|memory with assetCacheMb=1024 (disk) and assetMemoryMb=128: one caching proxy
+     * for every browser this process launches, stopped (and its counters printed) at exit.
+     */
+    private static void startAssetProxy(Map<String, String> opts) {
+        if (DriverManager.getAssetProxy() != null) return;
+        String where = opts.get("assetcache");
+        try {
+            AssetCache cache = new AssetCache(where.equalsIgnoreCase("memory") ? null : Path.of(where),
+                    Long.parseLong(opts.getOrDefault("assetcachemb", "1024")) << 20,
+                    Long.parseLong(opts.getOrDefault("assetmemorymb", "128")) << 20);
+            AssetProxy proxy = AssetProxy.start(cache);
+            DriverManager.setAssetProxy(proxy);
+            System.out.println("Asset cache proxy on " + proxy.address() + " (" + cache.entries() + " cached assets)");
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                System.out.println("Asset cache: " + proxy.summary());
+                proxy.close();
+            }, "asset-proxy-stop"));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot start asset cache: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * profileTemplate=dir with profileClone=auto|copy|link, warmUrls=url,url (default: the home pages
+     * of the bundled sources) and templateMaxAge=168h.
+     */
+    static ProfileTemplate profileTemplate(Map<String, String> opts) {
+        List<String> warm = new ArrayList<>();
+        if (opts.containsKey("warmurls")) {
+            for (String u : opts.get("warmurls").split(",")) {
+                if (!u.isBlank()) warm.add(u.trim());
+            }
+        } else {
+            for (String source : new String[] {"g2", "capterra", "trustradius"}) {
+                String home = Scrapers.homePage(source);
+                if (home != null) warm.add(home);
+            }
+        }
+        return new ProfileTemplate(Path.of(opts.get("profiletemplate")), warm,
+                ProfileTemplate.CloneMode.parse(opts.getOrDefault("profileclone", "auto")),
+                parseDuration(opts.getOrDefault("templatemaxage", "168h")));
+    }
+
+    static void applyScraperOptions(Scraper scraper, Map<String, String> opts) {
+        if (scraper instanceof BaseScraper) {
+            ((BaseScraper) scraper).setPrefetch("true".equalsIgnoreCase(opts.get("prefetch")));
+            ((BaseScraper) scraper).setFullText("true".equalsIgnoreCase(opts.get("fulltext")));
+            if (opts.containsKey("stalepages")) {
+                ((BaseScraper) scraper).setStopAfterStalePages(Integer.parseInt(opts.get("stalepages")));
+            }
+        }
+    }
+
+    /**
+     * Batch mode: one product per line of a text file, run concurrently on a driver pool with
+     * one virtual thread per product and an optional overall timeout.
+     */
+    private static void batch(String[] args) {
+        if (args.length < 5) {
+            System.err.println("Usage: batch <products.txt> <start> <end> <source> [drivers=4] [timeout=30m] ...");
+            return;
+        }
+        List<String> positional = new ArrayList<>();
+        Map<String, String> opts = new HashMap<>();
+        parseTrailing(args, 5, positional, opts);
+        applyCommonOptions(opts);
+
+        List<String> products;
+        LocalDate start;
+        LocalDate end;
+        OutputFormat format;
+        try {
+            products = new ArrayList<>();
+            for (String line : Files.readAllLines(Path.of(args[1]), StandardCharsets.UTF_8)) {
+                String p = line.trim();
+                if (!p.isEmpty() && !p.startsWith("#")) products.add(p);
+            }
+            start = LocalDate.parse(args[2]);
+            end = LocalDate.parse(args[3]);
+            format = OutputFormat.parse(opts.getOrDefault("format", "json"));
+        } catch (Exception e) {
+            System.err.println("Invalid batch arguments: " + e.getMessage());
+            return;
+        }
+        String source = args[4].toLowerCase(Locale.ROOT);
+        if (!Scrapers.isSupported(source)) {
+            System.err.println("Unsupported source: " + source);
+            return;
+        }
+        boolean headless = positional.stream().noneMatch(a -> a.equalsIgnoreCase("headless=false"));
+        int drivers = Integer.parseInt(opts.getOrDefault("drivers", "4"));
+        int maxPages = Integer.parseInt(opts.getOrDefault("maxpages", "10"));
+        long delayMs = Long.parseLong(opts.getOrDefault("delayms", "800"));
+        Duration timeout = opts.containsKey("timeout") ? parseDuration(opts.get("timeout")) : null;
+
+        if (opts.containsKey("deadline") || opts.containsKey("maxreviews") || "yield".equalsIgnoreCase(opts.get("schedule"))) {
+            Instant deadline;
+            try {
+                deadline = opts.containsKey("deadline") ? parseDeadline(opts.get("deadline"))
+                        : timeout != null ? Instant.now().plus(timeout) : null;
+            } catch (RuntimeException e) {
+                System.err.println("Invalid deadline: " + opts.get("deadline"));
+                return;
+            }
+            scheduledBatch(products, start, end, source, format, opts, deadline, drivers, headless, maxPages, delayMs);
+            return;
+        }
+
+        try (DriverPool pool = new DriverPool(drivers, headless);
+             Orchestrator orchestrator = new Orchestrator(pool)) {
+            List<Orchestrator.ProductTask<File>> tasks = new ArrayList<>();
+            for (String product : products) {
+                tasks.add(driver -> {
+                    Scraper scraper = Scrapers.create(source, driver, maxPages, delayMs);
+                    applyScraperOptions(scraper, opts);
+                    try (ProductOutput output = new ProductOutput(ProductOutput.baseName(source, product, start, end), format)
+                            .setPartition(source, product)) {
+                        output.attach(scraper);
+                        List<Review> reviews = scraper.scrape(product, start, end);
+                        System.out.println(product + ": collected " + reviews.size() + " reviews.");
+                        // serialization is CPU work: keep it off the I/O threads
+                        return orchestrator.cpu(() -> output.finish(reviews));
+                    }
+                });
+            }
+            List<Orchestrator.Result<File>> results = orchestrator.runAll(products, tasks, timeout);
+            int ok = 0;
+            for (Orchestrator.Result<File> r : results) {
+                if (r.isOk()) {
+                    ok++;
+                    System.out.println("Wrote " + r.getValue().getAbsolutePath());
+                } else {
+                    System.err.println(r.getName() + ": " + r.getError());
+                }
+            }
+            System.out.println("Batch finished: " + ok + "/" + results.size() + " products succeeded.");
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        } catch (Exception ex) {
+            System.err.println("Error: " + ex.getMessage());
+            ex.printStackTrace();
+        }
+    }
+
+    /**
+     * Batch under a deadline and/or review budget: products run best expected yield first (see
+     * {@link YieldScheduler}); those that do not fit are deferred and listed.
+     */
+    private static void scheduledBatch(List<String> products, LocalDate start, LocalDate end, String source,
+                                       OutputFormat format, Map<String, String> opts, Instant deadline,
+                                       int drivers, boolean headless, int maxPages, long delayMs) {
+        Path historyFile = opts.containsKey("history") ? Path.of(opts.get("history")) : CrawlHistory.defaultFile();
+        CrawlHistory history = CrawlHistory.load(historyFile);
+
+        try (DriverPool pool = new DriverPool(drivers, headless);
+             Orchestrator orchestrator = new Orchestrator(pool)) {
+            YieldScheduler scheduler = new YieldScheduler(pool, history, source, maxPages);
+            scheduler.setDeadline(deadline);
+            scheduler.setMaxReviews(Long.parseLong(opts.getOrDefault("maxreviews", "0")));
+            scheduler.setRangeEnd(end);
+            for (YieldScheduler.Plan p : scheduler.plan(products)) {
+                System.out.printf("  %-30s %6.2f reviews/s  ~%ds%s%n", p.getProduct(), p.getScore(),
+                        p.getEstimatedMs() / 1000, p.isKnown() ? "" : "  (no history)");
+            }
+
+            YieldScheduler.Report<File> report = scheduler.run(products, (driver, crawl) -> {
+                String product = crawl.getProduct();
+                Scraper scraper = Scrapers.create(source, driver, maxPages, delayMs);
+                applyScraperOptions(scraper, opts);
+                BaseScraper base = scraper instanceof BaseScraper ? (BaseScraper) scraper : null;
+                if (base != null) base.addListener(r -> crawl.onReview());
+                try (ProductOutput output = new ProductOutput(ProductOutput.baseName(source, product, start, end), format)
+                            .setPartition(source, product)) {
+                    output.attach(scraper);
+                    List<Review> reviews;
+                    try {
+                        reviews = scraper.scrape(product, start, end);
+                    } finally {
+                        if (base != null) crawl.setPages(base.getPagesLoaded());
+                    }
+                    System.out.println(product + ": collected " + reviews.size() + " reviews.");
+                    // a crawl cut off by the budget still writes what it collected
+                    boolean cut = Thread.interrupted() || crawl.isCut();
+                    try {
+                        return orchestrator.cpu(() -> output.finish(reviews));
+                    } finally {
+                        if (cut) Thread.currentThread().interrupt();
+                    }
+                }
+            });
+
+            int ok = 0;
+            for (Orchestrator.Result<File> r : report.getResults()) {
+                if (r.isOk()) {
+                    ok++;
+                    System.out.println("Wrote " + r.getValue().getAbsolutePath()
+                            + (report.getCut().contains(r.getName()) ? " (cut short)" : ""));
+                } else if (report.getCut().contains(r.getName())) {
+                    System.err.println(r.getName() + ": cut short before its output was written");
+                } else {
+                    System.err.println(r.getName() + ": " + r.getError());
+                }
+            }
+            for (Map.Entry<String, String> d : report.getDeferred().entrySet()) {
+                System.out.println("Deferred " + d.getKey() + ": " + d.getValue());
+            }
+            System.out.println("Batch finished: " + ok + "/" + products.size() + " products written, "
+                    + report.getCut().size() + " cut short, " + report.getDeferred().size() + " deferred, "
+                    + report.getReviews() + " reviews.");
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        } catch (Exception ex) {
+            System.err.println("Error: " + ex.getMessage());
+            ex.printStackTrace();
+        } finally {
+            try {
+                history.save();
+            } catch (IOException e) {
+                System.err.println("Could not save crawl history " + historyFile + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * A point in time: a duration from now ("45m", "2h"), a time of day ("05:30", the next one
+     * to come) or an ISO date-time ("2024-06-01T05:30", local, or with an offset).
+     */
+    static Instant parseDeadline(String s) {
+        String v = s.trim();
+        if (v.matches("\\d{1,2}:\\d{2}")) {
+            LocalDateTime at = LocalDate.now().atTime(LocalTime.parse(v.length() == 4 ? "0" + v : v));
+            if (!at.isAfter(LocalDateTime.now())) at = at.plusDays(1);
+            return at.atZone(ZoneId.systemDefault()).toInstant();
+        }
+        if (v.contains("T")) {
+            try {
+                return OffsetDateTime.parse(v).toInstant();
+            } catch (DateTimeParseException e) {
+                return LocalDateTime.parse(v).atZone(ZoneId.systemDefault()).toInstant();
+            }
+        }
+        return Instant.now().plus(parseDuration(v));
+    }
+
+    /**
+     * "90s", "30m", "2h" or a plain number of minutes.
+     */
+    static Duration parseDuration(String s) {
+        String v = s.trim().toLowerCase(Locale.ROOT);
+        if (v.startsWith("pt")) return Duration.parse(v.toUpperCase(Locale.ROOT));
+        char unit = v.charAt(v.length() - 1);
+        if (Character.isDigit(unit)) return Duration.ofMinutes(Long.parseLong(v));
+        long n = Long.parseLong(v.substring(0, v.length() - 1));
+        switch (unit) {
+            case 's': return Duration.ofSeconds(n);
+            case 'm': return Duration.ofMinutes(n);
+            case 'h': return Duration.ofHours(n);
+            default: throw new IllegalArgumentException("Invalid duration: " + s);
+        }
+    }
+
+    /**
+     * Daemon mode: local HTTP job API backed by a warm driver pool.
+     */
+    private static void serve(String[] args) {
+        Map<String, String> opts = new HashMap<>();
+        parseTrailing(args, 1, new ArrayList<>(), opts);
+        applyCommonOptions(opts);
+        try {
+            Daemon.run(opts);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        } catch (Exception ex) {
+            System.err.println("Error: " + ex.getMessage());
+            ex.printStackTrace();
+        }
+    }
+
+    /**
+     * Training run for the AppCDS archive (see the "cds" profile in pom.xml): loads the class
+     * graph of a normal run - Selenium, CDP domains, Gson, Arrow, selector plans - without
+     * launching Chrome, so the archive covers what a cron run loads before the first page.
+     */
+    private static void trainCds() {
+        try {
+            ChromeOptions options = new ChromeOptions();
+            options.addArguments("--headless=new");
+            options.setExperimentalOption("excludeSwitches", new String[]{"enable-automation"});
+            for (String cls : new String[] {
+                    "org.openqa.selenium.chrome.ChromeDriver",
+                    "org.openqa.selenium.chrome.ChromeDriverService",
+                    "org.openqa.selenium.remote.RemoteWebDriver",
+                    "org.openqa.selenium.remote.http.HttpClient",
+                    "org.openqa.selenium.support.ui.WebDriverWait",
+                    "org.openqa.selenium.devtools.v137.v137Domains",
+                    "org.openqa.selenium.devtools.v137.page.Page",
+                    "org.openqa.selenium.devtools.v137.network.Network",
+                    "io.github.bonigarcia.wdm.WebDriverManager"}) {
+                Class.forName(cls);
+            }
+            for (String cfg : new String[] {"g2_selectors.json", "capterra_selectors.json"}) {
+                SelectorRegistry.get(cfg);
+            }
+            Review r = new Review();
+            r.setTitle("warm-up");
+            r.setDate(LocalDate.now().toString());
+            new ReviewStats().onReview(r);
+            new com.google.gson.Gson().toJson(List.of(r));
+            System.out.println("CDS training run complete");
+        } catch (Exception e) {
+            System.err.println("CDS training run failed: " + e);
+        }
+    }
 }
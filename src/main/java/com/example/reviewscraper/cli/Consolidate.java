@@ -0,0 +1,105 @@
+package com.example.reviewscraper.cli;
+
+import com.example.reviewscraper.io.ExternalMerge;
+import com.example.reviewscraper.io.JsonArrayWriter;
+import com.example.reviewscraper.io.OutputFormat;
+import com.example.reviewscraper.io.ReviewSink;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Combine historical output files into one, sorted by source, product and date and de-duplicated,
+ * without loading them into memory (see {@link ExternalMerge}).
+ *
+ * <pre>
+ *   java -jar review-scraper.jar consolidate <output> <file|dir>... [format=json|ndjson|ndjson.gz|ndjson.zst|arrow]
+ *        [memoryMb=256] [tmpDir=dir]
+ * </pre>
+ * A directory stands for the {@code reviews_*} files in it (json, ndjson, .gz, .zst; stats files
+ * are skipped). The format defaults to the output's extension, else json.
+ */
+class Consolidate {
+
+    private Consolidate() {}
+
+    static void run(String[] args) {
+        List<String> positional = new ArrayList<>();
+        Map<String, String> opts = new HashMap<>();
+        App.parseTrailing(args, 1, positional, opts);
+        if (positional.size() < 2) {
+            System.err.println("Usage: consolidate <output> <file|dir>... [format=json] [memoryMb=256] [tmpDir=dir]");
+            return;
+        }
+        Path output = Path.of(positional.get(0)).toAbsolutePath();
+        Path tmp = null;
+        try {
+            OutputFormat format = opts.containsKey("format") ? OutputFormat.parse(opts.get("format")) : formatOf(output);
+            List<Path> inputs = new ArrayList<>();
+            for (String in : positional.subList(1, positional.size())) {
+                expand(Path.of(in), output, inputs);
+            }
+            if (inputs.isEmpty()) {
+                System.err.println("No review files found.");
+                return;
+            }
+            tmp = opts.containsKey("tmpdir") ? Files.createTempDirectory(Path.of(opts.get("tmpdir")), "consolidate-")
+                    : Files.createTempDirectory("consolidate-");
+            long memory = Long.parseLong(opts.getOrDefault("memorymb", "256")) << 20;
+
+            long t0 = System.nanoTime();
+            ExternalMerge.Result r;
+            try (ReviewSink out = format == OutputFormat.JSON ? new JsonArrayWriter(output.toFile()) : format.open(output.toFile())) {
+                r = new ExternalMerge(tmp, memory).run(inputs, out);
+            }
+            System.out.printf("Merged %d files (%d unreadable): %d reviews read, %d duplicates dropped, %d written in %.1fs (%d runs, %d merge passes)%n",
+                    r.getFiles(), r.getFailedFiles(), r.getRead(), r.getDuplicates(), r.getWritten(),
+                    (System.nanoTime() - t0) / 1e9, r.getRuns(), r.getPasses());
+            System.out.println("Wrote " + output);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            System.err.println("Error: " + e.getMessage());
+        } finally {
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException ignored) {
+                    // leftover runs of a failed merge stay for inspection
+                }
+            }
+        }
+    }
+
+    private static void expand(Path in, Path output, List<Path> inputs) throws IOException {
+        if (!Files.isDirectory(in)) {
+            if (!in.toAbsolutePath().equals(output)) inputs.add(in);
+            return;
+        }
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(in, "reviews_*")) {
+            for (Path p : ds) {
+                String name = p.getFileName().toString();
+                if (name.endsWith(".stats.json") || p.toAbsolutePath().equals(output)) continue;
+                if (name.endsWith(".json") || name.endsWith(".ndjson") || name.endsWith(".ndjson.gz") || name.endsWith(".ndjson.zst")) {
+                    inputs.add(p);
+                }
+            }
+        }
+        inputs.sort(null);
+    }
+
+    private static OutputFormat formatOf(Path output) {
+        String name = output.getFileName().toString();
+        OutputFormat best = OutputFormat.JSON;
+        for (OutputFormat f : OutputFormat.values()) {
+            if (name.endsWith(f.extension()) && f.extension().length() > best.extension().length()) best = f;
+        }
+        return best;
+    }
+}
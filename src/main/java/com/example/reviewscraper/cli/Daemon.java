@@ -0,0 +1,333 @@
+package com.example.reviewscraper.cli;
+
+import com.example.reviewscraper.browser.DriverPool;
+import com.example.reviewscraper.dedupe.SeenReviews;
+import com.example.reviewscraper.model.Review;
+import com.example.reviewscraper.scraper.BaseScraper;
+import com.example.reviewscraper.scraper.Scraper;
+import com.example.reviewscraper.scraper.Scrapers;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Long-running server mode: a local HTTP job API in front of a warm {@link DriverPool}.
+ *
+ * <pre>
+ *   POST /jobs                {"company":"HubSpot","source":"g2","start":"2024-01-01","end":"2024-12-31"}
+ *                             optional: "maxPages", "delayMs"; "company" may also be a product URL
+ *   GET  /jobs                all jobs
+ *   GET  /jobs/{id}           status
+ *   GET  /jobs/{id}/results   reviews as NDJSON, streamed while the job is still running
+ * </pre>
+ *
+ * Started with {@code java -jar review-scraper.jar serve [port=8080] [drivers=2] [headless=true]}.
+ */
+public class Daemon {
+
+    private static final Gson G = new Gson();
+    private static final int MAX_FINISHED_JOBS = 200;
+
+    enum State { QUEUED, RUNNING, DONE, FAILED }
+
+    private final DriverPool pool;
+    private final ExecutorService workers;
+    private final Map<String, Job> jobs = new LinkedHashMap<>();
+    private HttpServer server;
+
+    public Daemon(DriverPool pool) {
+        this.pool = pool;
+        this.workers = Executors.newFixedThreadPool(pool.size(), r -> {
+            Thread t = new Thread(r, "scrape-worker");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public static void run(Map<String, String> opts) throws Exception {
+        int port = Integer.parseInt(opts.getOrDefault("port", "8080"));
+        int drivers = Integer.parseInt(opts.getOrDefault("drivers", "2"));
+        boolean headless = !"false".equalsIgnoreCase(opts.getOrDefault("headless", "true"));
+
+        DriverPool pool = new DriverPool(drivers, headless);
+        long t0 = System.nanoTime();
+        pool.warmUp();
+        System.out.printf("Warmed %d driver(s) in %d ms%n", drivers, (System.nanoTime() - t0) / 1_000_000);
+
+        Daemon d = new Daemon(pool);
+        d.start(port);
+        Runtime.getRuntime().addShutdownHook(new Thread(d::stop, "daemon-shutdown"));
+        System.out.println("Listening on http://127.0.0.1:" + port + "/jobs");
+        Thread.currentThread().join();
+    }
+
+    public void start(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        server.createContext("/jobs", this::handle);
+        // result streams block while a job runs, so each exchange gets its own thread
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    public void stop() {
+        if (server != null) server.stop(1);
+        workers.shutdownNow();
+        pool.close();
+    }
+
+    private void handle(HttpExchange ex) throws IOException {
+        try {
+            String path = ex.getRequestURI().getPath();
+            String[] parts = path.replaceAll("/+$", "").split("/");
+            // parts: ["", "jobs", id?, "results"?]
+            String method = ex.getRequestMethod();
+            if (parts.length == 2 && "POST".equals(method)) {
+                submit(ex);
+            } else if (parts.length == 2 && "GET".equals(method)) {
+                List<JsonObject> all = new ArrayList<>();
+                synchronized (jobs) {
+                    for (Job j : jobs.values()) all.add(j.status());
+                }
+                sendJson(ex, 200, G.toJsonTree(all).toString());
+            } else if (parts.length >= 3 && "GET".equals(method)) {
+                Job job;
+                synchronized (jobs) {
+                    job = jobs.get(parts[2]);
+                }
+                if (job == null) {
+                    sendJson(ex, 404, error("unknown job " + parts[2]));
+                } else if (parts.length == 3) {
+                    sendJson(ex, 200, job.status().toString());
+                } else if (parts.length == 4 && "results".equals(parts[3])) {
+                    streamResults(ex, job);
+                } else {
+                    sendJson(ex, 404, error("not found"));
+                }
+            } else {
+                sendJson(ex, 405, error("unsupported " + method + " " + path));
+            }
+        } catch (Exception e) {
+            try {
+                sendJson(ex, 500, error(e.getMessage()));
+            } catch (Exception ignored) {}
+        } finally {
+            ex.close();
+        }
+    }
+
+    private void submit(HttpExchange ex) throws IOException {
+        JsonObject body;
+        try (InputStreamReader r = new InputStreamReader(ex.getRequestBody(), StandardCharsets.UTF_8)) {
+            body = JsonParser.parseReader(r).getAsJsonObject();
+        } catch (Exception e) {
+            sendJson(ex, 400, error("body must be a JSON object"));
+            return;
+        }
+        Job job;
+        try {
+            job = Job.from(body);
+        } catch (Exception e) {
+            sendJson(ex, 400, error(e.getMessage() != null ? e.getMessage() : e.toString()));
+            return;
+        }
+        synchronized (jobs) {
+            evictFinished();
+            jobs.put(job.id, job);
+        }
+        workers.submit(() -> execute(job));
+        JsonObject resp = job.status();
+        resp.addProperty("results", "/jobs/" + job.id + "/results");
+        sendJson(ex, 202, resp.toString());
+    }
+
+    private void execute(Job job) {
+        WebDriver driver = null;
+        boolean broken = false;
+        try {
+            driver = pool.borrow();
+            job.started();
+            Scraper scraper = Scrapers.create(job.source, driver, job.maxPages, job.delayMs);
+            if (scraper instanceof BaseScraper) {
+                ((BaseScraper) scraper).addListener(job::add);
+            }
+            List<Review> reviews = scraper.scrape(job.company, job.start, job.end);
+            if (!(scraper instanceof BaseScraper)) reviews.forEach(job::add);
+            job.finish(null);
+            SeenReviews.commit(reviews);
+        } catch (Exception e) {
+            broken = true;
+            job.finish(e.getMessage() != null ? e.getMessage() : e.toString());
+        } finally {
+            pool.release(driver, broken);
+        }
+    }
+
+    private void streamResults(HttpExchange ex, Job job) throws IOException, InterruptedException {
+        ex.getResponseHeaders().set("Content-Type", "application/x-ndjson");
+        ex.sendResponseHeaders(200, 0);
+        try (OutputStream os = ex.getResponseBody();
+             Writer w = new OutputStreamWriter(os, StandardCharsets.UTF_8)) {
+            int next = 0;
+            while (true) {
+                List<Review> batch = job.awaitFrom(next);
+                if (batch == null) break;
+                for (Review r : batch) {
+                    w.write(G.toJson(r));
+                    w.write('\n');
+                }
+                next += batch.size();
+                w.flush();
+            }
+        }
+    }
+
+    private void evictFinished() {
+        int finished = 0;
+        for (Job j : jobs.values()) if (j.isFinished()) finished++;
+        Iterator<Job> it = jobs.values().iterator();
+        while (finished >= MAX_FINISHED_JOBS && it.hasNext()) {
+            if (it.next().isFinished()) {
+                it.remove();
+                finished--;
+            }
+        }
+    }
+
+    private static void sendJson(HttpExchange ex, int code, String json) throws IOException {
+        byte[] b = json.getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", "application/json");
+        ex.sendResponseHeaders(code, b.length);
+        try (OutputStream os = ex.getResponseBody()) {
+            os.write(b);
+        }
+    }
+
+    private static String error(String msg) {
+        JsonObject o = new JsonObject();
+        o.addProperty("error", msg);
+        return o.toString();
+    }
+
+    /**
+     * One submitted scrape; reviews are appended while it runs so results can be streamed.
+     */
+    static class Job {
+        final String id = UUID.randomUUID().toString();
+        final String company;
+        final String source;
+        final LocalDate start;
+        final LocalDate end;
+        final int maxPages;
+        final long delayMs;
+        final Instant submitted = Instant.now();
+
+        private final List<Review> reviews = new ArrayList<>();
+        private State state = State.QUEUED;
+        private String error;
+        private Instant startedAt;
+        private Instant finishedAt;
+
+        Job(String company, String source, LocalDate start, LocalDate end, int maxPages, long delayMs) {
+            this.company = company;
+            this.source = source;
+            this.start = start;
+            this.end = end;
+            this.maxPages = maxPages;
+            this.delayMs = delayMs;
+        }
+
+        static Job from(JsonObject o) {
+            String company = o.has("company") ? o.get("company").getAsString()
+                    : o.has("url") ? o.get("url").getAsString() : null;
+            if (company == null || company.isBlank()) throw new IllegalArgumentException("company or url is required");
+            if (!o.has("source")) throw new IllegalArgumentException("source is required");
+            String source = o.get("source").getAsString().toLowerCase(Locale.ROOT);
+            if (!Scrapers.isSupported(source)) {
+                throw new IllegalArgumentException("Unsupported source: " + source);
+            }
+            if (!o.has("start") || !o.has("end")) throw new IllegalArgumentException("start and end are required");
+            LocalDate start;
+            LocalDate end;
+            try {
+                start = LocalDate.parse(o.get("start").getAsString());
+                end = LocalDate.parse(o.get("end").getAsString());
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("start/end must be yyyy-MM-dd");
+            }
+            if (end.isBefore(start)) throw new IllegalArgumentException("end must be same or after start");
+            int maxPages = o.has("maxPages") ? o.get("maxPages").getAsInt() : 10;
+            long delayMs = o.has("delayMs") ? o.get("delayMs").getAsLong() : 800L;
+            return new Job(company, source, start, end, maxPages, delayMs);
+        }
+
+        synchronized void started() {
+            state = State.RUNNING;
+            startedAt = Instant.now();
+        }
+
+        synchronized void add(Review r) {
+            reviews.add(r);
+            notifyAll();
+        }
+
+        synchronized void finish(String err) {
+            state = err == null ? State.DONE : State.FAILED;
+            error = err;
+            finishedAt = Instant.now();
+            notifyAll();
+        }
+
+        synchronized boolean isFinished() {
+            return state == State.DONE || state == State.FAILED;
+        }
+
+        /**
+         * Reviews from index {@code from} on, blocking until there are some;
+         * null once the job has finished and everything was delivered.
+         */
+        synchronized List<Review> awaitFrom(int from) throws InterruptedException {
+            while (reviews.size() <= from && !isFinished()) wait();
+            if (reviews.size() <= from) return null;
+            return new ArrayList<>(reviews.subList(from, reviews.size()));
+        }
+
+        synchronized JsonObject status() {
+            JsonObject o = new JsonObject();
+            o.addProperty("id", id);
+            o.addProperty("state", state.name().toLowerCase(Locale.ROOT));
+            o.addProperty("company", company);
+            o.addProperty("source", source);
+            o.addProperty("start", start.toString());
+            o.addProperty("end", end.toString());
+            o.addProperty("reviews", reviews.size());
+            o.addProperty("submitted", submitted.toString());
+            if (startedAt != null) o.addProperty("started", startedAt.toString());
+            if (finishedAt != null) o.addProperty("finished", finishedAt.toString());
+            if (error != null) o.addProperty("error", error);
+            return o;
+        }
+    }
+}
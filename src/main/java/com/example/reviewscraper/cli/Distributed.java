@@ -0,0 +1,275 @@
+package com.example.reviewscraper.cli;
+
+import com.example.reviewscraper.browser.DriverPool;
+import com.example.reviewscraper.dedupe.Hash128;
+import com.example.reviewscraper.dedupe.LongPairSet;
+import com.example.reviewscraper.dedupe.SeenReviews;
+import com.example.reviewscraper.dist.Lease;
+import com.example.reviewscraper.dist.WorkItem;
+import com.example.reviewscraper.dist.WorkQueue;
+import com.example.reviewscraper.exec.VirtualThreads;
+import com.example.reviewscraper.io.NdjsonWriter;
+import com.example.reviewscraper.io.OutputFormat;
+import com.example.reviewscraper.model.Review;
+import com.example.reviewscraper.scraper.BaseScraper;
+import com.example.reviewscraper.scraper.ConfigDrivenScraper;
+import com.example.reviewscraper.scraper.Pagination;
+import com.example.reviewscraper.scraper.Scraper;
+import com.example.reviewscraper.scraper.Scrapers;
+import com.example.reviewscraper.util.SelectorRegistry;
+import com.google.gson.Gson;
+import org.openqa.selenium.WebDriver;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Distributed crawling over a shared {@link WorkQueue} directory:
+ *
+ * <ul>
+ *   <li>{@code enqueue}: split each product into page-range shards and write them as work items</li>
+ *   <li>{@code worker}: claim items, scrape their page range, publish one NDJSON shard per item;
+ *       run any number of these on any number of nodes, no coordinator needed</li>
+ *   <li>{@code merge}: combine the shards of each finished product into the usual output files</li>
+ * </ul>
+ */
+class Distributed {
+
+    private static final Gson G = new Gson();
+
+    private Distributed() {}
+
+    static void enqueue(String[] args) {
+        if (args.length < 6) {
+            System.err.println("Usage: enqueue <queueDir> <products.txt> <start> <end> <source> [maxPages=10] [shardPages=5]");
+            return;
+        }
+        Map<String, String> opts = new HashMap<>();
+        App.parseTrailing(args, 6, new ArrayList<>(), opts);
+        App.applyCommonOptions(opts);
+        try {
+            String source = args[5].toLowerCase(Locale.ROOT);
+            if (!Scrapers.isSupported(source)) {
+                System.err.println("Unsupported source: " + source);
+                return;
+            }
+            String start = LocalDate.parse(args[3]).toString();
+            String end = LocalDate.parse(args[4]).toString();
+            int maxPages = Integer.parseInt(opts.getOrDefault("maxpages", "10"));
+            int shardPages = Math.max(1, Integer.parseInt(opts.getOrDefault("shardpages", "5")));
+            // only query pagination can start in the middle of the list
+            Pagination pagination = Pagination.from(SelectorRegistry.get(ConfigDrivenScraper.configName(Scrapers.canonical(source))));
+            if (pagination.getType() != Pagination.Type.QUERY) shardPages = maxPages;
+
+            WorkQueue queue = new WorkQueue(Path.of(args[1]), "enqueue", Duration.ZERO);
+            int added = 0;
+            for (String line : Files.readAllLines(Path.of(args[2]), StandardCharsets.UTF_8)) {
+                String product = line.trim();
+                if (product.isEmpty() || product.startsWith("#")) continue;
+                for (int first = 1; first <= maxPages; first += shardPages) {
+                    int last = Math.min(maxPages, first + shardPages - 1);
+                    if (queue.enqueue(new WorkItem(source, product, start, end, first, last))) added++;
+                }
+            }
+            System.out.println("Enqueued " + added + " work items in " + args[1]);
+        } catch (Exception e) {
+            System.err.println("Error: " + e.getMessage());
+        }
+    }
+
+    static void work(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: worker <queueDir> [drivers=2] [leaseTtl=2m] [delayMs=800] [headless=true|false]");
+            return;
+        }
+        List<String> positional = new ArrayList<>();
+        Map<String, String> opts = new HashMap<>();
+        App.parseTrailing(args, 2, positional, opts);
+        App.applyCommonOptions(opts);
+        boolean headless = positional.stream().noneMatch(a -> a.equalsIgnoreCase("headless=false"));
+        int drivers = Integer.parseInt(opts.getOrDefault("drivers", "2"));
+        long delayMs = Long.parseLong(opts.getOrDefault("delayms", "800"));
+        Duration ttl = App.parseDuration(opts.getOrDefault("leasettl", "2m"));
+        String node = opts.getOrDefault("worker", nodeName());
+        Path dir = Path.of(args[1]);
+
+        ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "lease-heartbeat");
+            t.setDaemon(true);
+            return t;
+        });
+        AtomicInteger finished = new AtomicInteger();
+        try (DriverPool pool = new DriverPool(drivers, headless)) {
+            ExecutorService loops = VirtualThreads.newPerTaskExecutor("shard-worker");
+            List<Future<?>> running = new ArrayList<>();
+            for (int i = 0; i < drivers; i++) {
+                WorkQueue queue = new WorkQueue(dir, node + "-" + i, ttl);
+                running.add(loops.submit(() -> {
+                    workLoop(queue, pool, heartbeats, delayMs, opts, finished);
+                    return null;
+                }));
+            }
+            for (Future<?> f : running) f.get();
+            loops.shutdown();
+            System.out.println("Worker " + node + ": queue drained, " + finished.get() + " items completed here");
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            System.err.println("Error: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            heartbeats.shutdownNow();
+        }
+    }
+
+    private static void workLoop(WorkQueue queue, DriverPool pool, ScheduledExecutorService heartbeats,
+                                 long delayMs, Map<String, String> opts, AtomicInteger finished) throws Exception {
+        long idleWait = Math.min(10_000, Math.max(1000, queue.getLeaseTtl().toMillis() / 4));
+        while (!Thread.currentThread().isInterrupted()) {
+            Lease lease = queue.claim();
+            if (lease == null) {
+                if (queue.pending() == 0) return;
+                // the rest is leased by other workers; wait in case one of them dies
+                Thread.sleep(idleWait);
+                continue;
+            }
+            WorkItem item = lease.getItem();
+            System.out.println("Claimed " + item);
+            Thread self = Thread.currentThread();
+            long period = Math.max(1000, queue.getLeaseTtl().toMillis() / 3);
+            ScheduledFuture<?> beat = heartbeats.scheduleAtFixedRate(() -> {
+                if (!lease.heartbeat()) {
+                    System.err.println("Lost lease on " + item + ", abandoning it");
+                    self.interrupt(); // scrapers stop cooperatively
+                }
+            }, period, period, TimeUnit.MILLISECONDS);
+
+            WebDriver driver = null;
+            boolean broken = false;
+            Path shard = queue.tempShard(lease);
+            try {
+                driver = pool.borrow();
+                Scraper scraper = Scrapers.create(item.getSource(), driver, item.getLastPage(), delayMs);
+                if (!(scraper instanceof BaseScraper)) throw new IllegalStateException("cannot shard source " + item.getSource());
+                App.applyScraperOptions(scraper, opts);
+                ((BaseScraper) scraper).setPageRange(item.getFirstPage(), item.getLastPage());
+                List<Review> reviews;
+                try (NdjsonWriter sink = new NdjsonWriter(shard.toFile(), NdjsonWriter.Compression.NONE)) {
+                    ((BaseScraper) scraper).addListener(r -> {
+                        try {
+                            sink.write(r);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                    reviews = scraper.scrape(item.getProduct(), LocalDate.parse(item.getStart()), LocalDate.parse(item.getEnd()));
+                }
+                beat.cancel(false);
+                if (queue.complete(lease, shard, reviews.size())) {
+                    SeenReviews.commit(reviews);
+                    finished.incrementAndGet();
+                    System.out.println("Finished " + item + ": " + reviews.size() + " reviews");
+                }
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                broken = true;
+                System.err.println("Failed " + item + ": " + e);
+                queue.fail(lease, e);
+                Files.deleteIfExists(shard);
+            } finally {
+                beat.cancel(false);
+                pool.release(driver, broken);
+            }
+            // a lost lease interrupts the scrape, not the worker
+            if (!lease.isHeld()) Thread.interrupted();
+        }
+    }
+
+    static void merge(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: merge <queueDir> [format=json] [partial=true] [dataset=dir]");
+            return;
+        }
+        Map<String, String> opts = new HashMap<>();
+        App.parseTrailing(args, 2, new ArrayList<>(), opts);
+        App.applyCommonOptions(opts);
+        boolean partial = "true".equalsIgnoreCase(opts.get("partial"));
+        try {
+            OutputFormat format = OutputFormat.parse(opts.getOrDefault("format", "json"));
+            WorkQueue queue = new WorkQueue(Path.of(args[1]), "merge", Duration.ZERO);
+
+            // group shards by product, in page order
+            Map<String, List<WorkItem>> products = new TreeMap<>();
+            for (WorkItem item : queue.allItems()) {
+                String base = ProductOutput.baseName(item.getSource(), item.getProduct(), item.getStart(), item.getEnd());
+                products.computeIfAbsent(base, k -> new ArrayList<>()).add(item);
+            }
+            for (Map.Entry<String, List<WorkItem>> e : products.entrySet()) {
+                List<WorkItem> shards = e.getValue();
+                shards.sort(Comparator.comparingInt(WorkItem::getFirstPage));
+                long missing = shards.stream().filter(i -> !queue.isDone(i.id())).count();
+                if (missing > 0 && !partial) {
+                    System.out.println(e.getKey() + ": " + missing + "/" + shards.size() + " shards not finished, skipping");
+                    continue;
+                }
+                File out = mergeProduct(queue, e.getKey(), shards, format);
+                System.out.println("Wrote " + out.getAbsolutePath());
+            }
+        } catch (Exception e) {
+            System.err.println("Error: " + e.getMessage());
+        }
+    }
+
+    private static File mergeProduct(WorkQueue queue, String baseName, List<WorkItem> shards, OutputFormat format) throws Exception {
+        List<Review> reviews = new ArrayList<>();
+        LongPairSet seen = LongPairSet.inMemory(1024);
+        Hash128 hasher = new Hash128();
+        WorkItem first = shards.get(0);
+        try (ProductOutput output = new ProductOutput(baseName, format).setPartition(first.getSource(), first.getProduct())) {
+            output.open();
+            for (WorkItem item : shards) {
+                Path shard = queue.shard(item);
+                if (!Files.exists(shard)) continue;
+                try (BufferedReader in = Files.newBufferedReader(shard, StandardCharsets.UTF_8)) {
+                    String line;
+                    while ((line = in.readLine()) != null) {
+                        if (line.isBlank()) continue;
+                        Review r = G.fromJson(line, Review.class);
+                        // shard boundaries can overlap when a listing shifts during the crawl
+                        if (!SeenReviews.add(seen, hasher, baseName, r)) continue;
+                        reviews.add(r);
+                        output.add(r);
+                    }
+                }
+            }
+            return output.finish(reviews);
+        }
+    }
+
+    private static String nodeName() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "node";
+        }
+        return host + "-" + ProcessHandle.current().pid();
+    }
+}
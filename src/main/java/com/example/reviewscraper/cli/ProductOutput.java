@@ -0,0 +1,155 @@
+package com.example.reviewscraper.cli;
+
+import com.example.reviewscraper.dedupe.SeenReviews;
+import com.example.reviewscraper.enrich.Enricher;
+import com.example.reviewscraper.io.JsonWriter;
+import com.example.reviewscraper.io.OutputFormat;
+import com.example.reviewscraper.io.PartitionedDataset;
+import com.example.reviewscraper.io.ReviewSink;
+import com.example.reviewscraper.model.Review;
+import com.example.reviewscraper.scraper.BaseScraper;
+import com.example.reviewscraper.scraper.Scraper;
+import com.example.reviewscraper.stats.ReviewStats;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Output files of one product scrape: the reviews in the chosen format plus the stats file.
+ * Streaming formats are written while the scrape runs; JSON is written at the end. Either way
+ * the scraper also returns the product's reviews as a list (used for enrichment, the dataset
+ * commit and the dedupe store), so peak memory is one product's reviews per driver. With a
+ * {@link PartitionedDataset} set (dataset=dir) the reviews are committed into the dataset's
+ * month partitions at the end instead of going to a file of their own. With an {@link Enricher}
+ * set (enrich=...) nothing is streamed: the reviews are tagged at the end and written after that.
+ */
+class ProductOutput implements Closeable {
+
+    private static volatile PartitionedDataset dataset;
+    private static volatile Enricher enricher;
+
+    private final String baseName;
+    private final OutputFormat format;
+    private final ReviewStats stats = new ReviewStats();
+    private ReviewSink sink;
+    private String source;
+    private String product;
+
+    ProductOutput(String baseName, OutputFormat format) {
+        this.baseName = baseName;
+        this.format = format;
+    }
+
+    static void setDataset(PartitionedDataset d) {
+        dataset = d;
+    }
+
+    static PartitionedDataset getDataset() {
+        return dataset;
+    }
+
+    static void setEnricher(Enricher e) {
+        enricher = e;
+    }
+
+    /**
+     * Source and product of this output, naming its dataset partition. Outputs without one
+     * always write their own file.
+     */
+    ProductOutput setPartition(String source, String product) {
+        this.source = source;
+        this.product = product;
+        return this;
+    }
+
+    private boolean toDataset() {
+        return dataset != null && source != null;
+    }
+
+    static String baseName(String source, String company, Object start, Object end) {
+        return String.format("reviews_%s_%s_%s_%s", source, company.replaceAll("\\s+","_"), start, end);
+    }
+
+    String filename() {
+        return baseName + format.extension();
+    }
+
+    /**
+     * Hook stats and, for streaming formats, the sink into the scraper's review stream.
+     */
+    void attach(Scraper scraper) throws IOException {
+        if (!(scraper instanceof BaseScraper)) return;
+        BaseScraper bs = (BaseScraper) scraper;
+        open();
+        bs.addListener(this::add);
+    }
+
+    /**
+     * Open the streaming sink, if the format has one. Called by {@link #attach(Scraper)}; call it
+     * directly when feeding reviews through {@link #add(Review)} without a scraper.
+     */
+    void open() throws IOException {
+        if (format != OutputFormat.JSON && sink == null && !toDataset() && enricher == null) {
+            sink = format.open(new File(filename()));
+        }
+    }
+
+    /**
+     * Count one review in the stats and stream it to the sink (JSON is written by {@link #finish}).
+     */
+    void add(Review r) {
+        stats.onReview(r);
+        if (sink == null) return;
+        try {
+            sink.write(r);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Complete the output after the scrape and write the stats file.
+     * @return the reviews file, or the product's directory in the dataset
+     */
+    File finish(List<Review> reviews) throws Exception {
+        if (enricher != null) enricher.enrich(reviews);
+        File out;
+        if (toDataset()) {
+            PartitionedDataset.Commit c = dataset.commit(source, product, reviews);
+            System.out.println(product + ": " + c.getNewRows() + " new rows in " + c.getChanged().size()
+                    + " partition(s), manifest version " + c.getVersion());
+            out = dataset.productDir(source, product).toFile();
+        } else if (sink != null) {
+            sink.close();
+            sink = null;
+            out = new File(filename());
+        } else if (format != OutputFormat.JSON) {
+            // held back for enrichment
+            out = new File(filename());
+            try (ReviewSink s = format.open(out)) {
+                for (Review r : reviews) s.write(r);
+            }
+        } else {
+            out = JsonWriter.write(reviews, filename());
+        }
+        stats.write(baseName + ".stats.json");
+        // only now are these reviews safe to skip in later runs
+        SeenReviews.commit(reviews);
+        return out;
+    }
+
+    File statsFile() {
+        return new File(baseName + ".stats.json");
+    }
+
+    @Override
+    public void close() {
+        if (sink != null) {
+            try { sink.close(); } catch (Exception ignored) {}
+            sink = null;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.reviewscraper.cli;
+
+import com.example.reviewscraper.browser.DriverManager;
+import com.example.reviewscraper.browser.DriverPool;
+import com.example.reviewscraper.exec.Orchestrator;
+import com.example.reviewscraper.io.OutputFormat;
+import com.example.reviewscraper.model.Review;
+import com.example.reviewscraper.scraper.Scraper;
+import com.example.reviewscraper.scraper.Scrapers;
+import com.example.reviewscraper.sim.SyntheticSite;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * End-to-end soak run against a {@link SyntheticSite}: N products x M pages through the real
+ * scrapers, driver pool, orchestrator and output writers, then a throughput report.
+ *
+ * <pre>
+ *   java -jar review-scraper.jar soak [products=20] [pages=5] [reviews=25] [source=g2|capterra|both]
+ *        [drivers=4] [latencyMs=50] [renderMs=0] [errorRate=0] [dates=uniform|recent]
+ *        [format=ndjson] [outDir=tmp] [delayMs=0] [maxRps=1000] [headless=true|false]
+ *        [assetKb=0] [assetCache=dir|memory]
+ * </pre>
+ *
+ * Per-page latency is the time between consecutive listing requests of a product as seen by the
+ * server (load, wait for blocks, extraction), and for a product's last page the time until its
+ * scrape returned. Peak RSS samples this JVM plus its child processes (chromedriver, Chrome)
+ * from /proc, so it is only reported on Linux.
+ */
+class Soak {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+    private static final LocalDate END = LocalDate.of(2024, 12, 31);
+
+    private Soak() {}
+
+    static void run(String[] args) {
+        List<String> positional = new ArrayList<>();
+        Map<String, String> opts = new HashMap<>();
+        App.parseTrailing(args, 1, positional, opts);
+        // local server: the politeness ceiling would only measure itself
+        opts.putIfAbsent("maxrps", "1000");
+        App.applyCommonOptions(opts);
+
+        boolean headless = positional.stream().noneMatch(a -> a.equalsIgnoreCase("headless=false"));
+        int products = Integer.parseInt(opts.getOrDefault("products", "20"));
+        int pages = Integer.parseInt(opts.getOrDefault("pages", "5"));
+        int drivers = Integer.parseInt(opts.getOrDefault("drivers", "4"));
+        long delayMs = Long.parseLong(opts.getOrDefault("delayms", "0"));
+        String sourceOpt = opts.getOrDefault("source", "g2").toLowerCase(Locale.ROOT);
+        List<String> sources = sourceOpt.equals("both") ? List.of("g2", "capterra") : List.of(sourceOpt);
+
+        try (SyntheticSite site = new SyntheticSite(Integer.parseInt(opts.getOrDefault("port", "0")))) {
+            site.setPages(pages);
+            site.setReviewsPerPage(Integer.parseInt(opts.getOrDefault("reviews", "25")));
+            site.setDateRange(START, END);
+            site.setDateSpread(SyntheticSite.DateSpread.valueOf(opts.getOrDefault("dates", "uniform").toUpperCase(Locale.ROOT)));
+            site.setLatencyMs(Long.parseLong(opts.getOrDefault("latencyms", "50")));
+            site.setRenderMs(Long.parseLong(opts.getOrDefault("renderms", "0")));
+            site.setErrorRate(Double.parseDouble(opts.getOrDefault("errorrate", "0")));
+            site.setAssetKb(Integer.parseInt(opts.getOrDefault("assetkb", "0")));
+            OutputFormat format = OutputFormat.parse(opts.getOrDefault("format", "ndjson"));
+            Path outDir = opts.containsKey("outdir")
+                    ? Files.createDirectories(Path.of(opts.get("outdir")))
+                    : Files.createTempDirectory("review-soak-");
+            site.start();
+            System.out.printf("Soak: %d products x %d pages x %d reviews on %s, %d drivers, output in %s%n",
+                    products, pages, site.getReviewsPerPage(), site.baseUrl(), drivers, outDir);
+
+            RssSampler rss = new RssSampler();
+            long[] doneAt = new long[products];
+            AtomicLong reviews = new AtomicLong();
+            long t0;
+            double secs;
+            List<Orchestrator.Result<File>> results;
+            try (DriverPool pool = new DriverPool(drivers, headless);
+                 Orchestrator orchestrator = new Orchestrator(pool)) {
+                // browsers launch before the clock starts: this measures steady-state scraping
+                pool.warmUp();
+                rss.start();
+                List<String> names = new ArrayList<>();
+                List<Orchestrator.ProductTask<File>> tasks = new ArrayList<>();
+                for (int i = 0; i < products; i++) {
+                    int idx = i;
+                    String source = sources.get(i % sources.size());
+                    String product = "product-" + i;
+                    names.add(source + "/" + product);
+                    tasks.add(driver -> {
+                        Scraper scraper = Scrapers.create(source, driver, pages, delayMs);
+                        App.applyScraperOptions(scraper, opts);
+                        String base = outDir.resolve(ProductOutput.baseName(source, product, START, END)).toString();
+                        try (ProductOutput output = new ProductOutput(base, format).setPartition(source, product)) {
+                            output.attach(scraper);
+                            List<Review> got = scraper.scrape(site.productUrl(source, product), START, END);
+                            doneAt[idx] = System.nanoTime();
+                            reviews.addAndGet(got.size());
+                            return orchestrator.cpu(() -> output.finish(got));
+                        }
+                    });
+                }
+                t0 = System.nanoTime();
+                results = orchestrator.runAll(names, tasks, null);
+                // before the browsers are shut down, which is not scraping time
+                secs = (System.nanoTime() - t0) / 1e9;
+            }
+            rss.stop();
+
+            List<Long> latencies = new ArrayList<>();
+            for (int i = 0; i < products; i++) {
+                List<Long> times = site.requestTimes(sources.get(i % sources.size()), "product-" + i);
+                for (int k = 0; k < times.size(); k++) {
+                    long next = k + 1 < times.size() ? times.get(k + 1) : doneAt[i];
+                    if (next > times.get(k)) latencies.add((next - times.get(k)) / 1_000_000);
+                }
+            }
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+            long failed = results.stream().filter(r -> !r.isOk()).count();
+            long expected = (long) products * pages * site.getReviewsPerPage();
+
+            System.out.printf("Elapsed          %.2f s%n", secs);
+            System.out.printf("Pages            %d served (%d injected errors), %.1f pages/s%n",
+                    site.getServed(), site.getErrors(), site.getServed() / secs);
+            System.out.printf("Reviews          %d of %d expected, %.1f reviews/s%n", reviews.get(), expected, reviews.get() / secs);
+            System.out.printf("Page latency     p50 %d ms, p99 %d ms (%d samples)%n",
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), sorted.length);
+            if (site.getAssetRequests() > 0) {
+                System.out.printf("Static assets    %d requests reached the site, %d KB sent%n",
+                        site.getAssetRequests(), site.getAssetBytes() / 1024);
+            }
+            if (DriverManager.getAssetProxy() != null) {
+                System.out.println("Asset proxy      " + DriverManager.getAssetProxy().summary());
+            }
+            System.out.println("Peak RSS         " + (rss.peakKb() > 0 ? rss.peakKb() / 1024 + " MB (JVM + browsers)" : "n/a"));
+            System.out.println("Products failed  " + failed);
+            for (Orchestrator.Result<File> r : results) {
+                if (!r.isOk()) System.err.println(r.getName() + ": " + r.getError());
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        } catch (Exception ex) {
+            System.err.println("Error: " + ex.getMessage());
+            ex.printStackTrace();
+        }
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+
+    /**
+     * Samples the resident set of this process and its descendants every 250 ms.
+     */
+    private static class RssSampler {
+        private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "rss-sampler");
+            t.setDaemon(true);
+            return t;
+        });
+        private final AtomicLong peakKb = new AtomicLong();
+
+        void start() {
+            timer.scheduleAtFixedRate(this::sample, 0, 250, TimeUnit.MILLISECONDS);
+        }
+
+        void stop() {
+            sample();
+            timer.shutdownNow();
+        }
+
+        long peakKb() {
+            return peakKb.get();
+        }
+
+        private void sample() {
+            long kb = rssKb(ProcessHandle.current().pid());
+            if (kb <= 0) return;
+            for (ProcessHandle child : ProcessHandle.current().descendants().toArray(ProcessHandle[]::new)) {
+                kb += Math.max(0, rssKb(child.pid()));
+            }
+            peakKb.accumulateAndGet(kb, Math::max);
+        }
+
+        private static long rssKb(long pid) {
+            try {
+                for (String line : Files.readAllLines(Path.of("/proc", Long.toString(pid), "status"))) {
+                    if (line.startsWith("VmRSS:")) {
+                        String[] f = line.trim().split("\\s+");
+                        return Long.parseLong(f[1]);
+                    }
+                }
+            } catch (Exception ignored) {
+                // not Linux, or the process just exited
+            }
+            return -1;
+        }
+    }
+}
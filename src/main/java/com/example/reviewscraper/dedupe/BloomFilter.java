@@ -0,0 +1,49 @@
+package com.example.reviewscraper.dedupe;
+
+/**
+ * Bloom filter over 128-bit hashes (Kirsch-Mitzenmacher double hashing on the two halves).
+ * Used in front of {@link LongPairSet} so that the common case, a review not seen before, is
+ * answered from a small in-heap bit array without touching the mapped table.
+ */
+public final class BloomFilter {
+
+    private final long[] bits;
+    private final long bitCount;
+    private final int hashes;
+
+    /**
+     * @param expected number of entries the filter is sized for
+     * @param fpp false-positive probability at that size
+     */
+    public BloomFilter(long expected, double fpp) {
+        long n = Math.max(1, expected);
+        long m = (long) Math.ceil(-n * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        m = Math.max(64, Math.min(m, (long) Integer.MAX_VALUE * 64));
+        this.bits = new long[(int) ((m + 63) >>> 6)];
+        this.bitCount = (long) bits.length * 64;
+        this.hashes = Math.max(1, (int) Math.round((double) m / n * Math.log(2)));
+    }
+
+    public void put(long hi, long lo) {
+        long h = hi;
+        for (int i = 0; i < hashes; i++) {
+            long bit = (h & Long.MAX_VALUE) % bitCount;
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+            h += lo;
+        }
+    }
+
+    public boolean mightContain(long hi, long lo) {
+        long h = hi;
+        for (int i = 0; i < hashes; i++) {
+            long bit = (h & Long.MAX_VALUE) % bitCount;
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) return false;
+            h += lo;
+        }
+        return true;
+    }
+
+    public long sizeInBytes() {
+        return (long) bits.length * 8;
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.reviewscraper.dedupe;
+
+/**
+ * Streaming MurmurHash3 (x64, 128-bit) over chars, so a key made of several fields can be hashed
+ * without concatenating them first. Each char is fed as two little-endian bytes. Not thread-safe;
+ * reuse one instance per thread via {@link #reset()}.
+ */
+public final class Hash128 {
+
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+
+    private final long seed;
+    private long h1;
+    private long h2;
+    private long k1;
+    private long k2;
+    private int pos;
+    private long length;
+
+    public Hash128() {
+        this(0);
+    }
+
+    public Hash128(long seed) {
+        this.seed = seed;
+        reset();
+    }
+
+    public Hash128 reset() {
+        h1 = seed;
+        h2 = seed;
+        k1 = 0;
+        k2 = 0;
+        pos = 0;
+        length = 0;
+        return this;
+    }
+
+    public Hash128 putChar(char c) {
+        putByte(c & 0xff);
+        putByte(c >>> 8);
+        return this;
+    }
+
+    /**
+     * Feed {@code s[from, to)}; null feeds nothing.
+     */
+    public Hash128 putString(String s, int from, int to) {
+        if (s == null) return this;
+        for (int i = from; i < to; i++) putChar(s.charAt(i));
+        return this;
+    }
+
+    public Hash128 putString(String s) {
+        return s == null ? this : putString(s, 0, s.length());
+    }
+
+    private void putByte(int b) {
+        long v = b & 0xffL;
+        if (pos < 8) k1 |= v << (pos << 3);
+        else k2 |= v << ((pos - 8) << 3);
+        length++;
+        if (++pos == 16) {
+            mixBlock();
+            k1 = 0;
+            k2 = 0;
+            pos = 0;
+        }
+    }
+
+    private void mixBlock() {
+        h1 ^= mixK1(k1);
+        h1 = Long.rotateLeft(h1, 27);
+        h1 += h2;
+        h1 = h1 * 5 + 0x52dce729;
+        h2 ^= mixK2(k2);
+        h2 = Long.rotateLeft(h2, 31);
+        h2 += h1;
+        h2 = h2 * 5 + 0x38495ab5;
+    }
+
+    /**
+     * Complete the hash; read it with {@link #high()} and {@link #low()}. Call {@link #reset()}
+     * before feeding the next key.
+     */
+    public Hash128 finish() {
+        if (pos > 8) h2 ^= mixK2(k2);
+        if (pos > 0) h1 ^= mixK1(k1);
+        h1 ^= length;
+        h2 ^= length;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix(h1);
+        h2 = fmix(h2);
+        h1 += h2;
+        h2 += h1;
+        return this;
+    }
+
+    public long high() {
+        return h1;
+    }
+
+    public long low() {
+        return h2;
+    }
+
+    private static long mixK1(long k) {
+        k *= C1;
+        k = Long.rotateLeft(k, 31);
+        return k * C2;
+    }
+
+    private static long mixK2(long k) {
+        k *= C2;
+        k = Long.rotateLeft(k, 33);
+        return k * C1;
+    }
+
+    private static long fmix(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
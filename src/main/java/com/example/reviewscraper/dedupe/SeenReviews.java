@@ -0,0 +1,125 @@
+package com.example.reviewscraper.dedupe;
+
+import com.example.reviewscraper.model.Review;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+
+/**
+ * Review identity for de-duplication and the optional process-wide store of reviews already seen.
+ *
+ * A review is identified by its date, title, the first 120 chars of its text and its reviewer,
+ * within a scope (source and product page), hashed to 128 bits with {@link Hash128}. Each scrape
+ * records its reviews in its own in-memory {@link LongPairSet}. With {@code dedupeStore=path} it
+ * also skips reviews the persistent store already holds, and its reviews are added to the store
+ * by {@link #commit} only once its output has been written, so a crawl that fails or is killed
+ * before that is collected again by the next run.
+ */
+public final class SeenReviews {
+
+    private static final int SNIPPET = 120;
+
+    private static volatile LongPairSet shared;
+    private static boolean hookInstalled;
+
+    private SeenReviews() {}
+
+    /**
+     * Use the persistent store at {@code file} for all following scrapes.
+     */
+    public static synchronized void openShared(Path file, boolean bloom) throws IOException {
+        LongPairSet previous = shared;
+        if (previous != null && previous.getFile().toAbsolutePath().normalize().equals(file.toAbsolutePath().normalize())) {
+            return;
+        }
+        // the store is locked while open, so the previous one goes first
+        shared = null;
+        if (previous != null) previous.close();
+        shared = LongPairSet.open(file, bloom);
+        if (!hookInstalled) {
+            hookInstalled = true;
+            Runtime.getRuntime().addShutdownHook(new Thread(SeenReviews::closeShared, "dedupe-store-close"));
+        }
+    }
+
+    public static synchronized void closeShared() {
+        if (shared != null) {
+            shared.close();
+            shared = null;
+        }
+    }
+
+    /**
+     * The staging set of one scrape, see {@link #addNew}.
+     */
+    public static LongPairSet forScrape() {
+        return LongPairSet.inMemory(256);
+    }
+
+    /** Scope of a scraped review: its source and product page. */
+    public static String scope(String source, String productPage) {
+        return source + "|" + productPage;
+    }
+
+    /**
+     * Record the review in {@code seen}.
+     * @param hasher reused between calls; not thread-safe, so callers serialize access
+     * @return true if it was not seen before
+     */
+    public static boolean add(LongPairSet seen, Hash128 hasher, String scope, Review r) {
+        hash(hasher, scope, r);
+        return seen.add(hasher.high(), hasher.low());
+    }
+
+    /**
+     * Record the review in a scrape's {@code staging} set unless the shared store (if any) already
+     * holds it; the store itself is not changed.
+     * @return true if it was seen neither in this scrape nor by an earlier one
+     */
+    public static boolean addNew(LongPairSet staging, Hash128 hasher, String scope, Review r) {
+        hash(hasher, scope, r);
+        LongPairSet store = shared;
+        if (store != null && store.contains(hasher.high(), hasher.low())) return false;
+        return staging.add(hasher.high(), hasher.low());
+    }
+
+    /**
+     * Add the reviews of a scrape whose output has been written to the shared store (no-op without
+     * one). The scope comes from the reviews' extra.source and extra.productPage.
+     */
+    public static void commit(Collection<Review> reviews) {
+        LongPairSet store = shared;
+        if (store == null || reviews == null) return;
+        Hash128 hasher = new Hash128();
+        for (Review r : reviews) {
+            Object source = r.getExtra().get("source");
+            Object productPage = r.getExtra().get("productPage");
+            if (source == null || productPage == null) continue;
+            hash(hasher, scope(source.toString(), productPage.toString()), r);
+            store.add(hasher.high(), hasher.low());
+        }
+    }
+
+    /**
+     * Hash the identity of {@code r} (leading/trailing whitespace ignored) into {@code hasher}.
+     */
+    public static Hash128 hash(Hash128 hasher, String scope, Review r) {
+        hasher.reset();
+        hasher.putString(scope).putChar('\u0000');
+        putTrimmed(hasher, r.getDate(), Integer.MAX_VALUE).putChar('|');
+        putTrimmed(hasher, r.getTitle(), Integer.MAX_VALUE).putChar('|');
+        putTrimmed(hasher, r.getReview(), SNIPPET).putChar('|');
+        putTrimmed(hasher, r.getReviewer(), Integer.MAX_VALUE);
+        return hasher.finish();
+    }
+
+    private static Hash128 putTrimmed(Hash128 hasher, String s, int max) {
+        if (s == null) return hasher;
+        int from = 0;
+        int to = s.length();
+        while (from < to && s.charAt(from) <= ' ') from++;
+        while (to > from && s.charAt(to - 1) <= ' ') to--;
+        return hasher.putString(s, from, Math.min(to, from + max));
+    }
+}
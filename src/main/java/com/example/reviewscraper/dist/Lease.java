@@ -0,0 +1,58 @@
+package com.example.reviewscraper.dist;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+/**
+ * A claim on one {@link WorkItem}: the lease file holds the owner's token and its modification
+ * time is the heartbeat. A lease whose file has not been touched for the queue's TTL is expired
+ * and may be taken over by another worker.
+ */
+public class Lease {
+
+    private final WorkItem item;
+    private final Path file;
+    private final String token;
+
+    Lease(WorkItem item, Path file, String token) {
+        this.item = item;
+        this.file = file;
+        this.token = token;
+    }
+
+    public WorkItem getItem() {
+        return item;
+    }
+
+    /**
+     * Renew the lease.
+     * @return false if the lease was lost (expired and taken over by another worker)
+     */
+    public boolean heartbeat() {
+        if (!isHeld()) return false;
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Whether the lease file still carries this worker's token.
+     */
+    public boolean isHeld() {
+        try {
+            return token.equals(new String(Files.readAllBytes(file), StandardCharsets.UTF_8).trim());
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    Path getFile() {
+        return file;
+    }
+}
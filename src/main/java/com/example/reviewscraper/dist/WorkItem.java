@@ -0,0 +1,45 @@
+package com.example.reviewscraper.dist;
+
+/**
+ * One unit of distributed work: a page range of one product on one source.
+ * Serialized with Gson into the queue directory.
+ */
+public class WorkItem {
+    private String source;
+    private String product;
+    private String start;   // yyyy-MM-dd
+    private String end;     // yyyy-MM-dd
+    private int firstPage;
+    private int lastPage;
+
+    public WorkItem() {}
+
+    public WorkItem(String source, String product, String start, String end, int firstPage, int lastPage) {
+        this.source = source;
+        this.product = product;
+        this.start = start;
+        this.end = end;
+        this.firstPage = firstPage;
+        this.lastPage = lastPage;
+    }
+
+    /**
+     * Stable id, used as the file name of the item, its lease, its output shard and its done marker.
+     */
+    public String id() {
+        return source + "_" + product.replaceAll("[^A-Za-z0-9]+", "_") + "_" + start + "_" + end
+                + "_p" + firstPage + "-" + lastPage;
+    }
+
+    public String getSource() { return source; }
+    public String getProduct() { return product; }
+    public String getStart() { return start; }
+    public String getEnd() { return end; }
+    public int getFirstPage() { return firstPage; }
+    public int getLastPage() { return lastPage; }
+
+    @Override
+    public String toString() {
+        return source + " \"" + product + "\" pages " + firstPage + "-" + lastPage;
+    }
+}
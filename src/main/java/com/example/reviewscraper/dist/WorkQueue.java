@@ -0,0 +1,240 @@
+package com.example.reviewscraper.dist;
+
+import com.google.gson.Gson;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Coordinator-free work queue in a directory shared by all nodes (an NFS mount, or a local
+ * directory when several processes run on one box).
+ *
+ * <pre>
+ * items/&lt;id&gt;.json    work items, written once by "enqueue"
+ * leases/&lt;id&gt;.lease  claim of a running item: owner token, mtime = last heartbeat
+ * out/&lt;id&gt;.ndjson    finished output shard
+ * done/&lt;id&gt;.json     completion marker (written after the shard is in place)
+ * failed/&lt;id&gt;.*      one file per failed attempt; items stop being retried after MAX_ATTEMPTS
+ * </pre>
+ *
+ * Every state change is a single atomic file operation: a claim is an exclusive create of the
+ * lease file, taking over an expired lease is an atomic rename of it (only one worker can win),
+ * and results appear by rename. Lease expiry compares file mtimes with the local clock, so node
+ * clocks must agree to well within the TTL.
+ */
+public class WorkQueue {
+
+    public static final int MAX_ATTEMPTS = 3;
+    private static final Gson G = new Gson();
+
+    private final Path items;
+    private final Path leases;
+    private final Path out;
+    private final Path done;
+    private final Path failed;
+    private final String workerId;
+    private final Duration leaseTtl;
+
+    public WorkQueue(Path dir, String workerId, Duration leaseTtl) throws IOException {
+        this.items = Files.createDirectories(dir.resolve("items"));
+        this.leases = Files.createDirectories(dir.resolve("leases"));
+        this.out = Files.createDirectories(dir.resolve("out"));
+        this.done = Files.createDirectories(dir.resolve("done"));
+        this.failed = Files.createDirectories(dir.resolve("failed"));
+        this.workerId = workerId;
+        this.leaseTtl = leaseTtl;
+    }
+
+    public Duration getLeaseTtl() {
+        return leaseTtl;
+    }
+
+    /**
+     * Add an item unless it is already queued.
+     * @return true if the item was new
+     */
+    public boolean enqueue(WorkItem item) throws IOException {
+        Path target = items.resolve(item.id() + ".json");
+        if (Files.exists(target)) return false;
+        writeAtomically(target, G.toJson(item));
+        return true;
+    }
+
+    /**
+     * Claim the next item that is neither done, given up on, nor validly leased by another worker.
+     * @return the lease, or null if nothing is claimable right now
+     */
+    public Lease claim() throws IOException {
+        for (Path p : list(items, ".json")) {
+            String id = idOf(p, ".json");
+            if (isDone(id) || attempts(id) >= MAX_ATTEMPTS) continue;
+            Lease lease = tryLease(id);
+            if (lease != null) return lease;
+        }
+        return null;
+    }
+
+    private Lease tryLease(String id) throws IOException {
+        Path file = leases.resolve(id + ".lease");
+        if (Files.exists(file) && !expired(file)) return null;
+        if (Files.exists(file)) {
+            // take over an expired lease: of all workers renaming it away, exactly one succeeds
+            Path stale = leases.resolve(id + ".expired-" + UUID.randomUUID());
+            try {
+                Files.move(file, stale, StandardCopyOption.ATOMIC_MOVE);
+            } catch (NoSuchFileException e) {
+                return null;
+            }
+            if (!expired(stale)) {
+                // another worker took it over (or renewed it) between our check and the rename: give it
+                // back. A hard link never replaces a lease a third worker created meanwhile, unlike a
+                // rename; if it cannot be restored the holder sees its lease lost and the item is redone.
+                try {
+                    Files.createLink(file, stale);
+                } catch (IOException | UnsupportedOperationException e) {
+                    // a newer lease exists (leave it alone), or the file system has no hard links
+                } finally {
+                    Files.deleteIfExists(stale);
+                }
+                return null;
+            }
+            System.out.println("Lease on " + id + " expired, taking over");
+            Files.deleteIfExists(stale);
+        }
+        String token = workerId + "/" + UUID.randomUUID();
+        try {
+            Files.write(Files.createFile(file), token.getBytes(StandardCharsets.UTF_8));
+        } catch (FileAlreadyExistsException e) {
+            return null;
+        }
+        if (isDone(id)) {
+            // finished by the previous holder between our checks
+            Files.deleteIfExists(file);
+            return null;
+        }
+        try (Reader r = Files.newBufferedReader(items.resolve(id + ".json"), StandardCharsets.UTF_8)) {
+            return new Lease(G.fromJson(r, WorkItem.class), file, token);
+        }
+    }
+
+    private boolean expired(Path leaseFile) {
+        try {
+            long age = System.currentTimeMillis() - Files.getLastModifiedTime(leaseFile).toMillis();
+            return age > leaseTtl.toMillis();
+        } catch (IOException e) {
+            return false; // vanished: the next claim attempt sees it gone
+        }
+    }
+
+    /**
+     * Where a worker writes the shard of {@code lease} while it runs (moved into place on completion).
+     */
+    public Path tempShard(Lease lease) {
+        return out.resolve(lease.getItem().id() + ".ndjson.tmp-" + workerId.replaceAll("[^A-Za-z0-9_.-]", "_"));
+    }
+
+    /**
+     * Publish the shard and mark the item done. If the lease was lost meanwhile the shard is
+     * discarded: the new holder redoes the item.
+     * @return false if the lease had been lost
+     */
+    public boolean complete(Lease lease, Path shard, int reviews) throws IOException {
+        String id = lease.getItem().id();
+        if (!lease.isHeld()) {
+            Files.deleteIfExists(shard);
+            return false;
+        }
+        Files.move(shard, out.resolve(id + ".ndjson"), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        writeAtomically(done.resolve(id + ".json"),
+                "{\"worker\":" + G.toJson(workerId) + ",\"reviews\":" + reviews + "}");
+        Files.deleteIfExists(lease.getFile());
+        return true;
+    }
+
+    /**
+     * Record a failed attempt and free the item for another try (by any worker).
+     */
+    public void fail(Lease lease, Throwable error) throws IOException {
+        String id = lease.getItem().id();
+        Path marker = failed.resolve(id + "." + UUID.randomUUID());
+        writeAtomically(marker, workerId + ": " + error);
+        if (lease.isHeld()) Files.deleteIfExists(lease.getFile());
+        int n = attempts(id);
+        if (n >= MAX_ATTEMPTS) {
+            System.err.println("Giving up on " + lease.getItem() + " after " + n + " attempts");
+        }
+    }
+
+    /**
+     * Items that are neither done nor given up on (running ones included).
+     */
+    public int pending() throws IOException {
+        int n = 0;
+        for (Path p : list(items, ".json")) {
+            String id = idOf(p, ".json");
+            if (!isDone(id) && attempts(id) < MAX_ATTEMPTS) n++;
+        }
+        return n;
+    }
+
+    public List<WorkItem> allItems() throws IOException {
+        List<WorkItem> result = new ArrayList<>();
+        for (Path p : list(items, ".json")) {
+            try (Reader r = Files.newBufferedReader(p, StandardCharsets.UTF_8)) {
+                result.add(G.fromJson(r, WorkItem.class));
+            }
+        }
+        return result;
+    }
+
+    public boolean isDone(String id) {
+        return Files.exists(done.resolve(id + ".json"));
+    }
+
+    /**
+     * Published output shard of a finished item.
+     */
+    public Path shard(WorkItem item) {
+        return out.resolve(item.id() + ".ndjson");
+    }
+
+    private int attempts(String id) throws IOException {
+        int n = 0;
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(failed, id + ".*")) {
+            for (Path ignored : ds) n++;
+        }
+        return n;
+    }
+
+    private static List<Path> list(Path dir, String suffix) throws IOException {
+        List<Path> result = new ArrayList<>();
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, "*" + suffix)) {
+            for (Path p : ds) result.add(p);
+        }
+        Collections.sort(result);
+        return result;
+    }
+
+    private static String idOf(Path p, String suffix) {
+        String name = p.getFileName().toString();
+        return name.substring(0, name.length() - suffix.length());
+    }
+
+    private static void writeAtomically(Path target, String content) throws IOException {
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp-" + UUID.randomUUID());
+        Files.write(tmp, content.getBytes(StandardCharsets.UTF_8));
+        Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.reviewscraper.enrich;
+
+import com.example.reviewscraper.model.Review;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Throughput of {@link Enricher} by pool size, on synthetic reviews assembled from the bundled
+ * language samples (mostly English, as scraped data is) plus lexicon-heavy sentences.
+ *
+ * <pre>
+ *   java -cp target/review12-0.0.1-SNAPSHOT.jar com.example.reviewscraper.enrich.EnrichBenchmark [reviews=50000] [rounds=3]
+ * </pre>
+ * Runs every stage with 1, 2, 4, ... threads up to the number of cores and prints reviews/s and
+ * the speed-up over one thread (best of {@code rounds}, after a warm-up round).
+ */
+public class EnrichBenchmark {
+
+    private static final String[] EXTRA = {
+            "Not very good, the export keeps failing and support was unhelpful.",
+            "Absolutely love the dashboards but onboarding was painful.",
+            "Reliable, fast and the pricing is fair.",
+            "Terrible experience with billing, would not recommend.",
+    };
+
+    public static void main(String[] args) {
+        int count = 50_000;
+        int rounds = 3;
+        for (String a : args) {
+            if (a.startsWith("reviews=")) count = Integer.parseInt(a.substring(8));
+            if (a.startsWith("rounds=")) rounds = Integer.parseInt(a.substring(7));
+        }
+        List<Review> reviews = generate(count, new Random(42));
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        double base = 0;
+        for (int threads = 1; ; threads = Math.min(threads * 2, cores)) {
+            try (Enricher enricher = new Enricher(threads, EnumSet.allOf(Enricher.Stage.class))) {
+                enricher.enrich(reviews); // warm-up
+                long best = Long.MAX_VALUE;
+                for (int r = 0; r < rounds; r++) {
+                    long t0 = System.nanoTime();
+                    enricher.enrich(reviews);
+                    best = Math.min(best, System.nanoTime() - t0);
+                }
+                double perSec = count / (best / 1e9);
+                if (threads == 1) base = perSec;
+                System.out.printf("%3d threads  %10.0f reviews/s  x%.2f%n", threads, perSec, perSec / base);
+            }
+            if (threads == cores) break;
+        }
+
+        System.out.println();
+        for (int i = 0; i < 4; i++) {
+            Review r = reviews.get(i);
+            System.out.printf("%-60.60s %s%n", r.getReview(), r.getExtra());
+        }
+    }
+
+    private static List<Review> generate(int count, Random rnd) {
+        List<List<String>> samples = new ArrayList<>();
+        for (String lang : LanguageDetector.LANGUAGES) {
+            List<String> sentences = new ArrayList<>();
+            for (String line : Tokens.lines("/enrich/lang/" + lang + ".txt")) {
+                for (String s : line.split("(?<=\\.) ")) sentences.add(s);
+            }
+            samples.add(sentences);
+        }
+        List<String> en = samples.get(0); // LANGUAGES starts with "en"
+        for (String s : EXTRA) en.add(s);
+
+        List<Review> out = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            boolean foreign = rnd.nextInt(10) == 0;
+            List<String> pool = foreign ? samples.get(1 + rnd.nextInt(samples.size() - 1)) : en;
+            StringBuilder body = new StringBuilder();
+            int sentences = 2 + rnd.nextInt(5);
+            for (int s = 0; s < sentences; s++) {
+                if (s > 0) body.append(' ');
+                body.append(pool.get(rnd.nextInt(pool.size())));
+            }
+            Review r = new Review();
+            r.setTitle(foreign ? null : en.get(rnd.nextInt(en.size())));
+            r.setReview(body.toString());
+            out.add(r);
+        }
+        return out;
+    }
+}
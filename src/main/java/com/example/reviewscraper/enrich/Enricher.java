@@ -0,0 +1,202 @@
+package com.example.reviewscraper.enrich;
+
+import com.example.reviewscraper.model.Review;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * In-process enrichment of scraped reviews, run once per product after extraction. Tags go into
+ * {@link Review#getExtra()}:
+ * <pre>
+ *   language   ISO 639-1 code ({@link LanguageDetector}), absent when undetermined
+ *   sentiment  compound score in [-1, 1] ({@link SentimentLexicon})
+ *   keywords   up to five TF-IDF terms, best first ({@link Keywords})
+ * </pre>
+ * Everything is offline and bundled. The lexicon and stop words are English, so sentiment and
+ * keywords are skipped for reviews detected as another language; reviews too short or unclear to
+ * detect (and all reviews when the language stage is off) are scored as English.
+ *
+ * Work is split into batches of {@link #BATCH} reviews on a fork-join pool: a first pass tokenizes,
+ * detects language, scores sentiment and counts document frequencies per batch (merged pairwise as
+ * the tasks join); a second pass, once the frequencies are complete, picks each review's keywords.
+ * Neither pass shares mutable state between batches, so throughput grows with the pool's
+ * parallelism; {@link EnrichBenchmark} measures it.
+ */
+public class Enricher implements AutoCloseable {
+
+    public enum Stage {
+        LANGUAGE, SENTIMENT, KEYWORDS;
+
+        /**
+         * "true" or "all" for every stage, otherwise a comma-separated list of stage names.
+         */
+        public static Set<Stage> parse(String spec) {
+            String s = spec.trim().toLowerCase(Locale.ROOT);
+            if (s.equals("true") || s.equals("all")) return EnumSet.allOf(Stage.class);
+            Set<Stage> stages = EnumSet.noneOf(Stage.class);
+            for (String part : s.split(",")) {
+                switch (part.trim()) {
+                    case "language": case "lang": stages.add(LANGUAGE); break;
+                    case "sentiment": stages.add(SENTIMENT); break;
+                    case "keywords": case "tfidf": stages.add(KEYWORDS); break;
+                    case "": break;
+                    default: throw new IllegalArgumentException("Unknown enrichment stage: " + part);
+                }
+            }
+            return stages;
+        }
+    }
+
+    static final int BATCH = 64;
+    static final int KEYWORDS = 5;
+
+    private final ForkJoinPool pool;
+    private final Set<Stage> stages;
+
+    /**
+     * @param parallelism worker threads of the enrichment pool
+     */
+    public Enricher(int parallelism, Set<Stage> stages) {
+        this.pool = new ForkJoinPool(Math.max(1, parallelism));
+        this.stages = stages.isEmpty() ? EnumSet.noneOf(Stage.class) : EnumSet.copyOf(stages);
+    }
+
+    public Set<Stage> getStages() {
+        return stages;
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Tag {@code reviews} in place. Safe to call from several threads; calls share the pool.
+     */
+    public void enrich(List<Review> reviews) {
+        if (reviews.isEmpty() || stages.isEmpty()) return;
+        Doc[] docs = new Doc[reviews.size()];
+        Map<String, int[]> df = pool.invoke(new Analyze(reviews, docs, 0, docs.length));
+        if (stages.contains(Stage.KEYWORDS)) {
+            int documents = 0;
+            for (Doc d : docs) {
+                if (d != null) documents++;
+            }
+            pool.invoke(new Rank(reviews, docs, df, documents, 0, docs.length));
+        }
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    /** Per-review state carried from the first pass to the second. */
+    private static final class Doc {
+        Map<String, int[]> terms;
+    }
+
+    private final class Analyze extends RecursiveTask<Map<String, int[]>> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Review> reviews;
+        private final Doc[] docs;
+        private final int from, to;
+
+        Analyze(List<Review> reviews, Doc[] docs, int from, int to) {
+            this.reviews = reviews;
+            this.docs = docs;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Map<String, int[]> compute() {
+            if (to - from > BATCH) {
+                int mid = (from + to) >>> 1;
+                Analyze left = new Analyze(reviews, docs, from, mid);
+                left.fork();
+                Map<String, int[]> right = new Analyze(reviews, docs, mid, to).compute();
+                return Keywords.merge(left.join(), right);
+            }
+            Map<String, int[]> df = new HashMap<>();
+            List<String> words = new ArrayList<>(256);
+            for (int i = from; i < to; i++) {
+                Review r = reviews.get(i);
+                Map<String, Object> extra = extra(r);
+                String text = text(r);
+                if (stages.contains(Stage.LANGUAGE)) {
+                    String lang = LanguageDetector.bundled().detect(text);
+                    if (lang != null) extra.put("language", lang);
+                    else extra.remove("language");
+                    if (lang != null && !"en".equals(lang)) continue;
+                }
+                words.clear();
+                Tokens.words(text, words);
+                if (stages.contains(Stage.SENTIMENT)) {
+                    extra.put("sentiment", Math.round(SentimentLexicon.bundled().score(words) * 1000) / 1000.0);
+                }
+                if (stages.contains(Stage.KEYWORDS)) {
+                    Doc d = new Doc();
+                    d.terms = Keywords.terms(words);
+                    Keywords.addDocument(df, d.terms);
+                    docs[i] = d;
+                }
+            }
+            return df;
+        }
+    }
+
+    private static final class Rank extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Review> reviews;
+        private final Doc[] docs;
+        private final Map<String, int[]> df;
+        private final int documents;
+        private final int from, to;
+
+        Rank(List<Review> reviews, Doc[] docs, Map<String, int[]> df, int documents, int from, int to) {
+            this.reviews = reviews;
+            this.docs = docs;
+            this.df = df;
+            this.documents = documents;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > BATCH) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new Rank(reviews, docs, df, documents, from, mid), new Rank(reviews, docs, df, documents, mid, to));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                if (docs[i] == null) continue;
+                extra(reviews.get(i)).put("keywords", Keywords.top(docs[i].terms, df, documents, KEYWORDS));
+                docs[i] = null;
+            }
+        }
+    }
+
+    private static String text(Review r) {
+        String title = r.getTitle(), body = r.getReview();
+        if (title == null || title.isEmpty()) return body != null ? body : "";
+        if (body == null || body.isEmpty()) return title;
+        return title + ". " + body;
+    }
+
+    private static Map<String, Object> extra(Review r) {
+        if (r.getExtra() == null) r.setExtra(new HashMap<>());
+        return r.getExtra();
+    }
+}
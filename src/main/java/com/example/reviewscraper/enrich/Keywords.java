@@ -0,0 +1,86 @@
+package com.example.reviewscraper.enrich;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * TF-IDF keywords. Document frequencies are taken over the reviews enriched together (one
+ * product's scrape), so a term every review of the product mentions ranks below one that sets a
+ * review apart. Stop words ({@code /enrich/stopwords_en.txt}), numbers and words shorter than
+ * three letters are never keywords.
+ */
+final class Keywords {
+
+    private static final Set<String> STOP_WORDS = new HashSet<>(Tokens.lines("/enrich/stopwords_en.txt"));
+    private static final int MIN_LENGTH = 3;
+
+    private Keywords() {}
+
+    /**
+     * Term counts of one review's candidate words.
+     */
+    static Map<String, int[]> terms(List<String> words) {
+        Map<String, int[]> tf = new HashMap<>();
+        for (String w : words) {
+            if (w.length() < MIN_LENGTH || STOP_WORDS.contains(w) || !Character.isLetter(w.charAt(0))) continue;
+            tf.computeIfAbsent(w, k -> new int[1])[0]++;
+        }
+        return tf;
+    }
+
+    /**
+     * Count each term of {@code tf} once into the document frequencies {@code df}.
+     */
+    static void addDocument(Map<String, int[]> df, Map<String, int[]> tf) {
+        for (String term : tf.keySet()) df.computeIfAbsent(term, k -> new int[1])[0]++;
+    }
+
+    /**
+     * Merge {@code from} into {@code into}.
+     */
+    static Map<String, int[]> merge(Map<String, int[]> into, Map<String, int[]> from) {
+        if (into.size() < from.size()) {
+            Map<String, int[]> t = into;
+            into = from;
+            from = t;
+        }
+        for (Map.Entry<String, int[]> e : from.entrySet()) {
+            int[] c = into.get(e.getKey());
+            if (c == null) into.put(e.getKey(), e.getValue());
+            else c[0] += e.getValue()[0];
+        }
+        return into;
+    }
+
+    /**
+     * The {@code k} terms of a review with the highest tf-idf, best first (ties alphabetical).
+     * @param documents number of reviews {@code df} was counted over
+     */
+    static List<String> top(Map<String, int[]> tf, Map<String, int[]> df, int documents, int k) {
+        String[] best = new String[k];
+        double[] bestScore = new double[k];
+        int size = 0;
+        for (Map.Entry<String, int[]> e : tf.entrySet()) {
+            int[] d = df.get(e.getKey());
+            double idf = Math.log((documents + 1.0) / ((d != null ? d[0] : 0) + 1.0)) + 1.0;
+            double score = e.getValue()[0] * idf;
+            String term = e.getKey();
+            int i = size;
+            while (i > 0 && (bestScore[i - 1] < score || bestScore[i - 1] == score && best[i - 1].compareTo(term) > 0)) i--;
+            if (i >= k) continue;
+            int last = Math.min(size, k - 1);
+            System.arraycopy(best, i, best, i + 1, last - i);
+            System.arraycopy(bestScore, i, bestScore, i + 1, last - i);
+            best[i] = term;
+            bestScore[i] = score;
+            if (size < k) size++;
+        }
+        List<String> out = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) out.add(best[i]);
+        return out;
+    }
+}
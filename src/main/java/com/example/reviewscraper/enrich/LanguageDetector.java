@@ -0,0 +1,131 @@
+package com.example.reviewscraper.enrich;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Character trigram language identification (naive Bayes over letter trigrams, words padded with
+ * spaces), trained at class load from the sample texts in {@code /enrich/lang/<code>.txt}. Covers
+ * the languages review sites serve most: en, de, fr, es, it, pt, nl; anything else, and text too
+ * short to tell, comes back as null. The trained table is a flat open-addressing map that is only
+ * read after construction, so one instance serves every enrichment thread.
+ */
+public final class LanguageDetector {
+
+    static final String[] LANGUAGES = {"en", "de", "fr", "es", "it", "pt", "nl"};
+
+    /** Reviews are classified on their first characters; more does not change the answer. */
+    private static final int MAX_CHARS = 1000;
+    private static final int MIN_TRIGRAMS = 8;
+    /** Below this share of trigrams seen in training the text is in none of the languages. */
+    private static final double MIN_KNOWN = 0.3;
+
+    private static final LanguageDetector BUNDLED = new LanguageDetector();
+
+    private final long[] keys;
+    private final int[] rows;
+    /** logProb[lang][row] of a known trigram; unseen ones get unseen[lang]. */
+    private final float[][] logProb;
+    private final float[] unseen;
+    private final int mask;
+
+    public static LanguageDetector bundled() {
+        return BUNDLED;
+    }
+
+    private LanguageDetector() {
+        Map<Long, int[]> counts = new HashMap<>();
+        int[] totals = new int[LANGUAGES.length];
+        for (int l = 0; l < LANGUAGES.length; l++) {
+            int lang = l;
+            for (String line : Tokens.lines("/enrich/lang/" + LANGUAGES[l] + ".txt")) {
+                totals[l] += trigrams(line, Integer.MAX_VALUE, k -> counts.computeIfAbsent(k, x -> new int[LANGUAGES.length])[lang]++);
+            }
+        }
+        int cap = Integer.highestOneBit(Math.max(16, counts.size() * 2)) << 1;
+        keys = new long[cap];
+        Arrays.fill(keys, -1L);
+        rows = new int[cap];
+        mask = cap - 1;
+        logProb = new float[LANGUAGES.length][counts.size()];
+        unseen = new float[LANGUAGES.length];
+        int vocabulary = counts.size();
+        for (int l = 0; l < LANGUAGES.length; l++) {
+            unseen[l] = (float) Math.log(1.0 / (totals[l] + vocabulary));
+        }
+        int row = 0;
+        for (Map.Entry<Long, int[]> e : counts.entrySet()) {
+            int slot = slot(e.getKey());
+            keys[slot] = e.getKey();
+            rows[slot] = row;
+            for (int l = 0; l < LANGUAGES.length; l++) {
+                logProb[l][row] = (float) Math.log((e.getValue()[l] + 1.0) / (totals[l] + vocabulary));
+            }
+            row++;
+        }
+    }
+
+    /**
+     * @return ISO 639-1 code of the most likely language, or null when undetermined
+     */
+    public String detect(String text) {
+        if (text == null) return null;
+        double[] score = new double[LANGUAGES.length];
+        int[] known = new int[1];
+        int n = trigrams(text, MAX_CHARS, k -> {
+            int slot = slot(k);
+            if (keys[slot] == k) {
+                known[0]++;
+                int row = rows[slot];
+                for (int l = 0; l < score.length; l++) score[l] += logProb[l][row];
+            } else {
+                for (int l = 0; l < score.length; l++) score[l] += unseen[l];
+            }
+        });
+        if (n < MIN_TRIGRAMS || known[0] < n * MIN_KNOWN) return null;
+        int best = 0;
+        for (int l = 1; l < score.length; l++) {
+            if (score[l] > score[best]) best = l;
+        }
+        return LANGUAGES[best];
+    }
+
+    private int slot(long key) {
+        int h = (int) (key ^ (key >>> 29) ^ (key >>> 43)) * 0x9E3779B1;
+        int slot = (h ^ (h >>> 16)) & mask;
+        while (keys[slot] != -1L && keys[slot] != key) slot = (slot + 1) & mask;
+        return slot;
+    }
+
+    private interface TrigramConsumer {
+        void accept(long trigram);
+    }
+
+    /**
+     * Feed the letter trigrams of {@code text} (lower-cased, words padded with one space, anything
+     * that is not a letter a word break) to {@code out}.
+     * @return number of trigrams
+     */
+    private static int trigrams(String text, int maxChars, TrigramConsumer out) {
+        int n = Math.min(text.length(), maxChars);
+        char a = ' ', b = ' ';
+        int count = 0;
+        for (int i = 0; i <= n; i++) {
+            char c = i < n ? text.charAt(i) : ' ';
+            c = Character.isLetter(c) ? Character.toLowerCase(c) : ' ';
+            if (c == ' ' && b == ' ') continue; // collapse breaks
+            if (!(a == ' ' && b == ' ')) {
+                out.accept(((long) a << 32) | ((long) b << 16) | c);
+                count++;
+            }
+            if (c == ' ') {
+                a = ' '; // trigrams do not span words
+            } else {
+                a = b;
+            }
+            b = c;
+        }
+        return count;
+    }
+}
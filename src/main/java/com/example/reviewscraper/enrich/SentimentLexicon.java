@@ -0,0 +1,94 @@
+package com.example.reviewscraper.enrich;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Lexicon sentiment for English review text. Word scores (-4..4) come from the bundled
+ * {@code /enrich/sentiment_lexicon.tsv}; a negation flips and damps the next three words
+ * ("not very good"), intensifiers and diminishers scale the word after them, and after "but" the
+ * clause counts more than the one before ("good UI but awful support" leans negative). The sum is
+ * squashed to a compound score in [-1, 1] the way VADER does it, so long and short reviews
+ * compare.
+ */
+public final class SentimentLexicon {
+
+    private static final Set<String> NEGATIONS = Set.of("not", "no", "never", "nothing", "nobody", "none", "neither",
+            "nor", "without", "hardly", "don't", "doesn't", "didn't", "isn't", "wasn't", "aren't", "weren't",
+            "can't", "cannot", "couldn't", "won't", "wouldn't", "shouldn't", "haven't", "hasn't");
+    private static final Map<String, Double> MODIFIERS = Map.ofEntries(
+            Map.entry("very", 1.3), Map.entry("really", 1.3), Map.entry("extremely", 1.5),
+            Map.entry("super", 1.3), Map.entry("so", 1.2), Map.entry("incredibly", 1.5),
+            Map.entry("highly", 1.3), Map.entry("absolutely", 1.4), Map.entry("totally", 1.3),
+            Map.entry("slightly", 0.6), Map.entry("somewhat", 0.7), Map.entry("fairly", 0.8),
+            Map.entry("kinda", 0.7), Map.entry("barely", 0.5));
+    private static final int NEGATION_SCOPE = 3;
+    private static final double NEGATION_FACTOR = -0.75;
+    private static final double BEFORE_BUT = 0.5;
+    private static final double AFTER_BUT = 1.5;
+    /** VADER's normalization constant. */
+    private static final double ALPHA = 15.0;
+
+    private static final SentimentLexicon BUNDLED = new SentimentLexicon(load());
+
+    private final Map<String, Integer> scores;
+
+    public static SentimentLexicon bundled() {
+        return BUNDLED;
+    }
+
+    SentimentLexicon(Map<String, Integer> scores) {
+        this.scores = scores;
+    }
+
+    /**
+     * @param words lower-cased words as split by {@link Tokens#words}
+     * @return compound score in [-1, 1], 0 when no word of the text is in the lexicon
+     */
+    public double score(List<String> words) {
+        double before = 0, sum = 0;
+        boolean contrast = false;
+        int negated = 0;
+        double modifier = 1.0;
+        for (String w : words) {
+            if (w.equals("but")) {
+                before += sum;
+                sum = 0;
+                contrast = true;
+                negated = 0;
+                modifier = 1.0;
+                continue;
+            }
+            if (NEGATIONS.contains(w)) {
+                negated = NEGATION_SCOPE;
+                continue;
+            }
+            Double m = MODIFIERS.get(w);
+            if (m != null) {
+                modifier = m;
+                continue;
+            }
+            Integer s = scores.get(w);
+            if (s != null) {
+                double v = s * modifier;
+                if (negated > 0) v *= NEGATION_FACTOR;
+                sum += v;
+            }
+            modifier = 1.0;
+            if (negated > 0) negated--;
+        }
+        double total = contrast ? before * BEFORE_BUT + sum * AFTER_BUT : sum;
+        return total / Math.sqrt(total * total + ALPHA);
+    }
+
+    private static Map<String, Integer> load() {
+        Map<String, Integer> m = new HashMap<>();
+        for (String line : Tokens.lines("/enrich/sentiment_lexicon.tsv")) {
+            int tab = line.indexOf('\t');
+            if (tab > 0) m.put(line.substring(0, tab), Integer.parseInt(line.substring(tab + 1).trim()));
+        }
+        return m;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.reviewscraper.enrich;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Word splitting shared by the enrichment stages, and loading of their bundled resources.
+ */
+final class Tokens {
+
+    private Tokens() {}
+
+    /**
+     * Lower-cased words of {@code text}: runs of letters and digits, keeping an apostrophe between
+     * letters ("don't", typographic ’ included).
+     */
+    static List<String> words(String text, List<String> out) {
+        if (text == null) return out;
+        StringBuilder w = new StringBuilder(16);
+        int n = text.length();
+        for (int i = 0; i < n; i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                w.append(Character.toLowerCase(c));
+            } else if ((c == '\'' || c == '’') && w.length() > 0 && i + 1 < n && Character.isLetter(text.charAt(i + 1))) {
+                w.append('\'');
+            } else if (w.length() > 0) {
+                out.add(w.toString());
+                w.setLength(0);
+            }
+        }
+        if (w.length() > 0) out.add(w.toString());
+        return out;
+    }
+
+    /**
+     * Non-empty lines of a classpath resource, without '#' comment lines.
+     */
+    static List<String> lines(String resource) {
+        InputStream in = Tokens.class.getResourceAsStream(resource);
+        if (in == null) throw new IllegalStateException("Missing enrichment resource " + resource);
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader r = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = r.readLine()) != null) {
+                line = line.strip();
+                if (!line.isEmpty() && line.charAt(0) != '#') lines.add(line);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return lines;
+    }
+}
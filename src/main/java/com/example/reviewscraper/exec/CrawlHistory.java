@@ -0,0 +1,124 @@
+package com.example.reviewscraper.exec;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * What past batch runs learned about each (source, product): how many new in-range reviews a
+ * page yields, how long a page takes, how many pages a crawl ends up walking and when the
+ * product last had anything new. Kept as JSON in ~/.review-scraper/history.json (or history=path)
+ * and updated after every product; averages are exponentially weighted so recent runs count most.
+ */
+public class CrawlHistory {
+
+    private static final Gson G = new GsonBuilder().setPrettyPrinting().create();
+    private static final double ALPHA = 0.5;
+
+    public static class Entry {
+        int runs;
+        double newPerPage;
+        double pageMs;
+        double pagesPerRun;
+        long totalNew;
+        String lastChange;
+        String lastRun;
+        String lastComplete;
+
+        public int getRuns() { return runs; }
+        public double getNewPerPage() { return newPerPage; }
+        public double getPageMs() { return pageMs; }
+        public double getPagesPerRun() { return pagesPerRun; }
+        public String getLastChange() { return lastChange; }
+        public String getLastRun() { return lastRun; }
+        public String getLastComplete() { return lastComplete; }
+    }
+
+    private final Path file;
+    private final Map<String, Entry> entries;
+
+    private CrawlHistory(Path file, Map<String, Entry> entries) {
+        this.file = file;
+        this.entries = entries;
+    }
+
+    public static Path defaultFile() {
+        return Paths.get(System.getProperty("user.home"), ".review-scraper", "history.json");
+    }
+
+    /**
+     * Load the history file; a missing or unreadable file starts an empty history.
+     */
+    public static CrawlHistory load(Path file) {
+        Map<String, Entry> entries = new TreeMap<>();
+        if (Files.isRegularFile(file)) {
+            try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                Map<String, Entry> read = G.fromJson(in, new TypeToken<TreeMap<String, Entry>>() {}.getType());
+                if (read != null) entries.putAll(read);
+            } catch (Exception e) {
+                System.err.println("Ignoring unreadable crawl history " + file + ": " + e.getMessage());
+            }
+        }
+        return new CrawlHistory(file, entries);
+    }
+
+    public static String key(String source, String product) {
+        return source + "|" + product;
+    }
+
+    /** @return the entry, or null for a product never crawled */
+    public synchronized Entry get(String key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Fold one finished (or cut short) crawl into the product's entry.
+     * @param pages listing pages loaded
+     * @param newReviews in-range reviews collected that were not duplicates
+     * @param complete the crawl ran to its natural end rather than being cut off
+     */
+    public synchronized void record(String key, int pages, int newReviews, long elapsedMs, boolean complete, LocalDate today) {
+        if (pages <= 0) return;
+        Entry e = entries.computeIfAbsent(key, k -> new Entry());
+        double perPage = (double) newReviews / pages;
+        double msPerPage = (double) elapsedMs / pages;
+        if (e.runs == 0) {
+            e.newPerPage = perPage;
+            e.pageMs = msPerPage;
+            e.pagesPerRun = pages;
+        } else {
+            e.newPerPage = ALPHA * perPage + (1 - ALPHA) * e.newPerPage;
+            e.pageMs = ALPHA * msPerPage + (1 - ALPHA) * e.pageMs;
+            e.pagesPerRun = ALPHA * pages + (1 - ALPHA) * e.pagesPerRun;
+        }
+        e.runs++;
+        e.totalNew += newReviews;
+        e.lastRun = today.toString();
+        if (newReviews > 0) e.lastChange = today.toString();
+        if (complete) e.lastComplete = today.toString();
+    }
+
+    /**
+     * Write the history (via a temp file, so a crash never leaves it half-written).
+     */
+    public synchronized void save() throws IOException {
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (Writer out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            G.toJson(entries, out);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
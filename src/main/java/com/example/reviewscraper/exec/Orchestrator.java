@@ -0,0 +1,131 @@
+package com.example.reviewscraper.exec;
+
+import com.example.reviewscraper.browser.DriverPool;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs many product scrapes concurrently.
+ *
+ * Each product task runs on its own virtual thread (see {@link VirtualThreads}): it blocks on
+ * borrowing a browser from the {@link DriverPool}, on WebDriver HTTP calls, waits and pacing,
+ * none of which pins a platform thread. CPU-bound work (parsing, serialization) is handed to
+ * a small fixed pool of platform threads via {@link #cpu(Callable)}. The whole batch is one
+ * {@link TaskScope}, so a deadline cancels every unfinished product.
+ */
+public class Orchestrator implements AutoCloseable {
+
+    /**
+     * Work for one product; gets a borrowed driver that is returned to the pool afterwards.
+     */
+    public interface ProductTask<T> {
+        T run(WebDriver driver) throws Exception;
+    }
+
+    /**
+     * Outcome of one product task.
+     */
+    public static class Result<T> {
+        private final String name;
+        private final T value;
+        private final Throwable error;
+
+        Result(String name, T value, Throwable error) {
+            this.name = name;
+            this.value = value;
+            this.error = error;
+        }
+
+        public String getName() { return name; }
+        public T getValue() { return value; }
+        public Throwable getError() { return error; }
+        public boolean isOk() { return error == null; }
+    }
+
+    private final DriverPool pool;
+    private final ExecutorService io;
+    private final ExecutorService cpu;
+
+    public Orchestrator(DriverPool pool) {
+        this.pool = pool;
+        this.io = VirtualThreads.newPerTaskExecutor("product-");
+        this.cpu = VirtualThreads.newCpuPool("parse-");
+    }
+
+    /**
+     * Run all tasks and wait for them, at most {@code timeout} (null = no deadline).
+     * Results are in input order; tasks cut off by the deadline report a CancellationException.
+     */
+    public <T> List<Result<T>> runAll(List<String> names, List<ProductTask<T>> tasks, Duration timeout)
+            throws InterruptedException {
+        try (TaskScope<T> scope = new TaskScope<>(io, timeout, false)) {
+            for (ProductTask<T> task : tasks) {
+                scope.fork(() -> withDriver(task));
+            }
+            try {
+                scope.join();
+            } catch (TimeoutException e) {
+                System.err.println("Batch deadline reached: " + e.getMessage());
+            } catch (ExecutionException e) {
+                // not fail-fast: failures are reported per task below
+            }
+
+            List<Result<T>> out = new ArrayList<>();
+            List<Future<T>> futures = scope.subtasks();
+            for (int i = 0; i < futures.size(); i++) {
+                Future<T> f = futures.get(i);
+                String name = names.get(i);
+                if (f.isCancelled()) {
+                    out.add(new Result<>(name, null, new CancellationException("deadline exceeded")));
+                    continue;
+                }
+                try {
+                    out.add(new Result<>(name, f.get(), null));
+                } catch (ExecutionException e) {
+                    out.add(new Result<>(name, null, e.getCause()));
+                }
+            }
+            return out;
+        }
+    }
+
+    private <T> T withDriver(ProductTask<T> task) throws Exception {
+        WebDriver driver = pool.borrow();
+        boolean broken = true;
+        try {
+            T value = task.run(driver);
+            broken = Thread.currentThread().isInterrupted();
+            return value;
+        } finally {
+            pool.release(driver, broken);
+        }
+    }
+
+    /**
+     * Run CPU-bound work on the platform pool and wait for it (the calling virtual thread parks).
+     */
+    public <T> T cpu(Callable<T> work) throws Exception {
+        try {
+            return cpu.submit(work).get();
+        } catch (ExecutionException e) {
+            Throwable c = e.getCause();
+            if (c instanceof Exception) throw (Exception) c;
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() {
+        io.shutdownNow();
+        cpu.shutdownNow();
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.reviewscraper.exec;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares virtual-thread-per-task against a fixed platform pool on a simulated scraping
+ * workload: each product task makes {@code pages} page visits, each a series of blocking
+ * "WebDriver round trips" (sleeps) plus a little CPU work for parsing.
+ *
+ * <pre>
+ *   java -cp target/review12-0.0.1-SNAPSHOT.jar com.example.reviewscraper.exec.OrchestratorBenchmark \
+ *        [products=500] [pages=5] [roundTrips=20] [rttMs=5] [platformThreads=32]
+ * </pre>
+ * Run it on JDK 21 to measure virtual threads; on JDK 17 both sides use platform threads.
+ */
+public class OrchestratorBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int products = intArg(args, "products", 500);
+        int pages = intArg(args, "pages", 5);
+        int roundTrips = intArg(args, "roundTrips", 20);
+        int rttMs = intArg(args, "rttMs", 5);
+        int platformThreads = intArg(args, "platformThreads", 32);
+
+        System.out.printf("products=%d pages=%d roundTrips=%d rttMs=%d virtualThreads=%s%n",
+                products, pages, roundTrips, rttMs, VirtualThreads.available());
+
+        // warm-up both paths once
+        run(Executors.newFixedThreadPool(platformThreads), 50, 1, roundTrips, rttMs);
+        run(VirtualThreads.newPerTaskExecutor("bench-"), 50, 1, roundTrips, rttMs);
+
+        report("fixed platform pool(" + platformThreads + ")",
+                run(Executors.newFixedThreadPool(platformThreads), products, pages, roundTrips, rttMs), products, pages);
+        report("virtual thread per task",
+                run(VirtualThreads.newPerTaskExecutor("bench-"), products, pages, roundTrips, rttMs), products, pages);
+    }
+
+    private static long run(ExecutorService ex, int products, int pages, int roundTrips, int rttMs) throws Exception {
+        long t0 = System.nanoTime();
+        try {
+            List<Future<Long>> fs = new ArrayList<>(products);
+            for (int p = 0; p < products; p++) {
+                fs.add(ex.submit(() -> product(pages, roundTrips, rttMs)));
+            }
+            long sink = 0;
+            for (Future<Long> f : fs) sink += f.get();
+            if (sink == 42) System.out.print("");
+        } finally {
+            ex.shutdown();
+            ex.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        return System.nanoTime() - t0;
+    }
+
+    private static long product(int pages, int roundTrips, int rttMs) throws InterruptedException {
+        long acc = 0;
+        for (int page = 0; page < pages; page++) {
+            for (int i = 0; i < roundTrips; i++) {
+                Thread.sleep(rttMs);
+                // parsing-sized CPU work per round trip
+                for (int k = 0; k < 2_000; k++) acc += ThreadLocalRandom.current().nextInt(7);
+            }
+        }
+        return acc;
+    }
+
+    private static void report(String label, long nanos, int products, int pages) {
+        double secs = nanos / 1e9;
+        System.out.printf("%-28s %8.2f s  %8.1f pages/s%n", label, secs, products * pages / secs);
+    }
+
+    private static int intArg(String[] args, String key, int def) {
+        for (String a : args) {
+            if (a.startsWith(key + "=")) return Integer.parseInt(a.substring(key.length() + 1));
+        }
+        return def;
+    }
+}
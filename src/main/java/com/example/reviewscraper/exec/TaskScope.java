@@ -0,0 +1,115 @@
+package com.example.reviewscraper.exec;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Structured group of subtasks: everything forked in a scope is finished or cancelled by the
+ * time the scope closes. {@link #join()} waits for all subtasks up to the scope deadline; when the
+ * deadline passes (or, with {@code failFast}, when a subtask fails) the remaining subtasks are
+ * cancelled by interruption.
+ *
+ * Modelled on JDK 21's StructuredTaskScope, which is still a preview API there and so cannot
+ * be used by a build that runs without --enable-preview.
+ *
+ * Usage:
+ * <pre>
+ *   try (TaskScope&lt;R&gt; scope = new TaskScope&lt;&gt;(executor, Duration.ofMinutes(30), false)) {
+ *       for (Job j : jobs) scope.fork(() -> run(j));
+ *       scope.join();
+ *       for (Future&lt;R&gt; f : scope.subtasks()) ...
+ *   }
+ * </pre>
+ */
+public class TaskScope<T> implements AutoCloseable {
+
+    private final ExecutorCompletionService<T> completion;
+    private final List<Future<T>> subtasks = new ArrayList<>();
+    private final long deadlineNanos;
+    private final boolean failFast;
+    private int completed;
+    private Throwable firstFailure;
+
+    /**
+     * @param timeout  overall deadline for the scope, or null for none
+     * @param failFast cancel the remaining subtasks as soon as one fails
+     */
+    public TaskScope(ExecutorService executor, Duration timeout, boolean failFast) {
+        this.completion = new ExecutorCompletionService<>(executor);
+        this.deadlineNanos = timeout == null ? Long.MAX_VALUE : System.nanoTime() + timeout.toNanos();
+        this.failFast = failFast;
+    }
+
+    public synchronized Future<T> fork(Callable<T> task) {
+        Future<T> f = completion.submit(task);
+        subtasks.add(f);
+        return f;
+    }
+
+    /**
+     * Wait for all forked subtasks.
+     *
+     * @throws TimeoutException when the deadline passed; unfinished subtasks have been cancelled
+     * @throws ExecutionException in fail-fast mode, the first failure (the rest are cancelled)
+     */
+    public void join() throws InterruptedException, TimeoutException, ExecutionException {
+        try {
+            while (true) {
+                int total;
+                synchronized (this) {
+                    total = subtasks.size();
+                }
+                if (completed >= total) break;
+                long wait = deadlineNanos == Long.MAX_VALUE ? TimeUnit.DAYS.toNanos(1) : deadlineNanos - System.nanoTime();
+                if (wait <= 0) {
+                    cancelAll();
+                    throw new TimeoutException("deadline exceeded with " + (total - completed) + " subtask(s) unfinished");
+                }
+                Future<T> done = completion.poll(wait, TimeUnit.NANOSECONDS);
+                if (done == null) continue;
+                completed++;
+                if (done.isCancelled()) continue;
+                try {
+                    done.get();
+                } catch (ExecutionException e) {
+                    if (firstFailure == null) firstFailure = e.getCause();
+                    if (failFast) {
+                        cancelAll();
+                        throw e;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            cancelAll();
+            throw e;
+        }
+    }
+
+    /**
+     * All forked subtasks in fork order; inspect after {@link #join()}.
+     */
+    public synchronized List<Future<T>> subtasks() {
+        return new ArrayList<>(subtasks);
+    }
+
+    public Throwable firstFailure() {
+        return firstFailure;
+    }
+
+    private synchronized void cancelAll() {
+        for (Future<T> f : subtasks) f.cancel(true);
+    }
+
+    @Override
+    public void close() {
+        cancelAll();
+    }
+}
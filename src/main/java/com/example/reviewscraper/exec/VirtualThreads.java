@@ -0,0 +1,66 @@
+package com.example.reviewscraper.exec;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread-per-task executors backed by virtual threads when the runtime has them (JDK 21+).
+ *
+ * The code base still compiles with --release 17, so the JDK 21 API is looked up reflectively;
+ * on older runtimes the executor falls back to unbounded platform threads with the same
+ * thread-per-task semantics.
+ */
+public final class VirtualThreads {
+
+    private static final MethodHandle NEW_VIRTUAL_EXECUTOR = lookup();
+
+    private VirtualThreads() {}
+
+    private static MethodHandle lookup() {
+        try {
+            return MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor",
+                    MethodType.methodType(ExecutorService.class));
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    public static boolean available() {
+        return NEW_VIRTUAL_EXECUTOR != null;
+    }
+
+    /**
+     * One new (virtual if possible) thread per submitted task.
+     */
+    public static ExecutorService newPerTaskExecutor(String namePrefix) {
+        if (NEW_VIRTUAL_EXECUTOR != null) {
+            try {
+                return (ExecutorService) NEW_VIRTUAL_EXECUTOR.invokeExact();
+            } catch (Throwable t) {
+                System.err.println("virtual threads unavailable, using platform threads: " + t);
+            }
+        }
+        return Executors.newCachedThreadPool(named(namePrefix, true));
+    }
+
+    /**
+     * Fixed pool of platform threads for CPU-bound work.
+     */
+    public static ExecutorService newCpuPool(String namePrefix) {
+        return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), named(namePrefix, true));
+    }
+
+    static ThreadFactory named(String prefix, boolean daemon) {
+        AtomicInteger n = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + n.incrementAndGet());
+            t.setDaemon(daemon);
+            return t;
+        };
+    }
+}
@@ -0,0 +1,322 @@
+package com.example.reviewscraper.exec;
+
+import com.example.reviewscraper.browser.DriverPool;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs a batch under a time and/or review budget, best expected yield first.
+ *
+ * Each product is scored from its {@link CrawlHistory}: expected new in-range reviews per page
+ * divided by the time a page takes. Products never crawled get the mean score of the known ones
+ * (so they are tried, and learned about, ahead of known poor performers). A product whose last
+ * complete crawl already covered the end of the requested range can only have late arrivals
+ * and is scored down accordingly.
+ *
+ * One worker per browser repeatedly takes the best-scoring product left. Since a crawl cut off
+ * at the deadline keeps what it collected (and the next run picks up the rest), running the
+ * best rate until the end beats holding back for products that fit completely; a product is
+ * deferred only when not even one of its pages fits in the time left, or once the deadline or
+ * the review budget is reached. Crawls still running at that point are interrupted. Every crawl,
+ * complete or cut, is folded back into the history for the next run.
+ */
+public class YieldScheduler {
+
+    /** Score of every product when there is no history at all (reviews per second). */
+    private static final double DEFAULT_SCORE = 1.0;
+    private static final double DEFAULT_PAGE_MS = 4000;
+    /** Share of the usual yield left in a range a complete crawl has already covered. */
+    private static final double COVERED_FACTOR = 0.1;
+    private static final long TICK_MS = 250;
+
+    /**
+     * Work for one product; reports progress through {@code crawl} so the scheduler can enforce
+     * the review budget and update the history.
+     */
+    public interface ProductTask<T> {
+        T run(WebDriver driver, Crawl crawl) throws Exception;
+    }
+
+    /**
+     * Progress of one running product crawl.
+     */
+    public static class Crawl {
+        private final String product;
+        private final AtomicLong total;
+        private final AtomicInteger reviews = new AtomicInteger();
+        private volatile int pages;
+        private volatile boolean cut;
+
+        Crawl(String product, AtomicLong total) {
+            this.product = product;
+            this.total = total;
+        }
+
+        public String getProduct() { return product; }
+
+        /** Count one accepted review (safe to call from any thread). */
+        public void onReview() {
+            reviews.incrementAndGet();
+            total.incrementAndGet();
+        }
+
+        public void setPages(int pages) { this.pages = pages; }
+
+        public int getReviews() { return reviews.get(); }
+        public int getPages() { return pages; }
+        /** True once the deadline or the review budget interrupted this crawl. */
+        public boolean isCut() { return cut; }
+    }
+
+    /**
+     * Estimate for one product.
+     */
+    public static class Plan {
+        private final String product;
+        private final String key;
+        private final boolean known;
+        private final double score;
+        private final long estimatedMs;
+        private final long pageMs;
+
+        Plan(String product, String key, boolean known, double score, long estimatedMs, long pageMs) {
+            this.product = product;
+            this.key = key;
+            this.known = known;
+            this.score = score;
+            this.estimatedMs = estimatedMs;
+            this.pageMs = pageMs;
+        }
+
+        public String getProduct() { return product; }
+        public boolean isKnown() { return known; }
+        /** Expected new reviews per second of browser time. */
+        public double getScore() { return score; }
+        public long getEstimatedMs() { return estimatedMs; }
+    }
+
+    /**
+     * Outcome of a scheduled batch.
+     */
+    public static class Report<T> {
+        private final List<Orchestrator.Result<T>> results;
+        private final List<String> cut;
+        private final Map<String, String> deferred;
+        private final long reviews;
+
+        Report(List<Orchestrator.Result<T>> results, List<String> cut, Map<String, String> deferred, long reviews) {
+            this.results = results;
+            this.cut = cut;
+            this.deferred = deferred;
+            this.reviews = reviews;
+        }
+
+        /** Products that ran, in the order they were started. */
+        public List<Orchestrator.Result<T>> getResults() { return results; }
+        /** Products interrupted by the deadline or the review budget. */
+        public List<String> getCut() { return cut; }
+        /** Products never started, with the reason. */
+        public Map<String, String> getDeferred() { return deferred; }
+        public long getReviews() { return reviews; }
+    }
+
+    private final DriverPool pool;
+    private final CrawlHistory history;
+    private final String source;
+    private final int maxPages;
+    private Instant deadline;
+    private long maxReviews;
+    private LocalDate rangeEnd;
+
+    public YieldScheduler(DriverPool pool, CrawlHistory history, String source, int maxPages) {
+        this.pool = pool;
+        this.history = history;
+        this.source = source;
+        this.maxPages = Math.max(1, maxPages);
+    }
+
+    /** Stop starting products at this instant and interrupt the running ones (null = none). */
+    public void setDeadline(Instant deadline) {
+        this.deadline = deadline;
+    }
+
+    /** Stop once this many reviews were collected across the batch (0 = no limit). */
+    public void setMaxReviews(long maxReviews) {
+        this.maxReviews = Math.max(0, maxReviews);
+    }
+
+    /** End of the requested date range, used to discount products already crawled past it. */
+    public void setRangeEnd(LocalDate rangeEnd) {
+        this.rangeEnd = rangeEnd;
+    }
+
+    /**
+     * Estimates for the products, best first (ties keep the input order).
+     */
+    public List<Plan> plan(List<String> products) {
+        double scoreSum = 0;
+        double pageMsSum = 0;
+        double pagesSum = 0;
+        int known = 0;
+        Map<String, CrawlHistory.Entry> entries = new LinkedHashMap<>();
+        for (String p : products) {
+            CrawlHistory.Entry e = history.get(CrawlHistory.key(source, p));
+            entries.put(p, e);
+            if (e == null || e.getRuns() == 0) continue;
+            scoreSum += score(e);
+            pageMsSum += e.getPageMs();
+            pagesSum += Math.min(maxPages, e.getPagesPerRun());
+            known++;
+        }
+        double priorScore = known > 0 ? scoreSum / known : DEFAULT_SCORE;
+        double priorPageMs = known > 0 ? pageMsSum / known : DEFAULT_PAGE_MS;
+        double priorPages = known > 0 ? pagesSum / known : maxPages;
+
+        List<Plan> plans = new ArrayList<>();
+        for (Map.Entry<String, CrawlHistory.Entry> me : entries.entrySet()) {
+            String key = CrawlHistory.key(source, me.getKey());
+            CrawlHistory.Entry e = me.getValue();
+            if (e == null || e.getRuns() == 0) {
+                plans.add(new Plan(me.getKey(), key, false, priorScore,
+                        (long) (priorPages * priorPageMs), (long) priorPageMs));
+            } else {
+                double pages = Math.max(1, Math.min(maxPages, e.getPagesPerRun()));
+                plans.add(new Plan(me.getKey(), key, true, score(e),
+                        (long) (pages * e.getPageMs()), (long) e.getPageMs()));
+            }
+        }
+        plans.sort(Comparator.comparingDouble(Plan::getScore).reversed());
+        return plans;
+    }
+
+    private double score(CrawlHistory.Entry e) {
+        double s = e.getNewPerPage() * 1000 / Math.max(1, e.getPageMs());
+        if (rangeEnd != null && e.getLastComplete() != null
+                && !LocalDate.parse(e.getLastComplete()).isBefore(rangeEnd)) {
+            s *= COVERED_FACTOR;
+        }
+        return s;
+    }
+
+    /**
+     * Run the products with one worker per pooled browser and wait for them.
+     */
+    public <T> Report<T> run(List<String> products, ProductTask<T> task) throws InterruptedException {
+        List<Plan> queue = new ArrayList<>(plan(products));
+        Map<String, String> deferred = Collections.synchronizedMap(new LinkedHashMap<>());
+        List<Orchestrator.Result<T>> results = Collections.synchronizedList(new ArrayList<>());
+        List<String> cut = Collections.synchronizedList(new ArrayList<>());
+        AtomicLong total = new AtomicLong();
+        Map<Thread, Crawl> running = new ConcurrentHashMap<>();
+
+        ExecutorService workers = VirtualThreads.newPerTaskExecutor("yield-");
+        try {
+            for (int i = 0; i < pool.size(); i++) {
+                workers.submit(() -> {
+                    work(queue, task, total, running, results, cut, deferred);
+                    return null;
+                });
+            }
+            workers.shutdown();
+            while (!workers.awaitTermination(TICK_MS, TimeUnit.MILLISECONDS)) {
+                if (stopReason(total) != null) {
+                    // once per crawl: a repeated interrupt would also abort the crawl writing its output
+                    running.forEach((t, crawl) -> {
+                        if (crawl.cut) return;
+                        crawl.cut = true;
+                        t.interrupt();
+                    });
+                }
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+        synchronized (queue) {
+            // left behind only if every worker died before taking them
+            for (Plan p : queue) deferred.put(p.product, "not started");
+            queue.clear();
+        }
+        return new Report<>(new ArrayList<>(results), new ArrayList<>(cut), new LinkedHashMap<>(deferred), total.get());
+    }
+
+    private <T> void work(List<Plan> queue, ProductTask<T> task, AtomicLong total, Map<Thread, Crawl> running,
+                          List<Orchestrator.Result<T>> results, List<String> cut, Map<String, String> deferred) {
+        Thread self = Thread.currentThread();
+        while (true) {
+            WebDriver driver;
+            try {
+                driver = pool.borrow();
+            } catch (InterruptedException e) {
+                return;
+            }
+            Plan plan = next(queue, total, deferred);
+            if (plan == null) {
+                pool.release(driver, false);
+                return;
+            }
+            Crawl crawl = new Crawl(plan.product, total);
+            long t0 = System.nanoTime();
+            T value = null;
+            Throwable error = null;
+            running.put(self, crawl);
+            try {
+                value = task.run(driver, crawl);
+            } catch (Throwable t) {
+                error = t;
+            } finally {
+                running.remove(self);
+            }
+            // the interrupt was meant for this crawl only
+            Thread.interrupted();
+            boolean interrupted = crawl.cut;
+            pool.release(driver, interrupted || error != null);
+            long elapsedMs = (System.nanoTime() - t0) / 1_000_000;
+            history.record(plan.key, crawl.getPages(), crawl.getReviews(), elapsedMs,
+                    !interrupted && error == null, LocalDate.now());
+            if (interrupted) cut.add(plan.product);
+            results.add(new Orchestrator.Result<>(plan.product, value, error));
+        }
+    }
+
+    /**
+     * Best queued product with time left for at least one of its pages; defers those without.
+     */
+    private Plan next(List<Plan> queue, AtomicLong total, Map<String, String> deferred) {
+        synchronized (queue) {
+            String stop = stopReason(total);
+            if (stop != null) {
+                for (Plan p : queue) deferred.put(p.product, stop);
+                queue.clear();
+                return null;
+            }
+            long leftMs = deadline == null ? Long.MAX_VALUE : deadline.toEpochMilli() - System.currentTimeMillis();
+            for (Iterator<Plan> it = queue.iterator(); it.hasNext(); ) {
+                Plan p = it.next();
+                it.remove();
+                if (p.pageMs <= leftMs) return p;
+                deferred.put(p.product, String.format("a page takes ~%.1fs, %.1fs left", p.pageMs / 1000.0, leftMs / 1000.0));
+            }
+            return null;
+        }
+    }
+
+    private String stopReason(AtomicLong total) {
+        if (maxReviews > 0 && total.get() >= maxReviews) return "review budget reached";
+        if (deadline != null && !Instant.now().isBefore(deadline)) return "deadline reached";
+        return null;
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.reviewscraper.io;
+
+import com.example.reviewscraper.model.Review;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.dictionary.Dictionary;
+import org.apache.arrow.vector.dictionary.DictionaryProvider;
+import org.apache.arrow.vector.ipc.ArrowStreamWriter;
+import org.apache.arrow.vector.types.DateUnit;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.DictionaryEncoding;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.types.pojo.Schema;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Columnar export in the Arrow IPC streaming format (readable by DuckDB, Spark, pyarrow).
+ *
+ * Rows are buffered into record batches of {@link #BATCH_ROWS}; {@code source} and
+ * {@code productPage} are dictionary encoded and {@code date} is a native date column
+ * (null when the scraped date could not be parsed, the raw text stays in {@code rawDate}).
+ * The enrichment tags are nullable columns: {@code language}, {@code sentiment} and
+ * {@code keywords} (comma-separated).
+ */
+public class ArrowIpcWriter implements ReviewSink {
+
+    static final int BATCH_ROWS = 1024;
+
+    private static final long SOURCE_DICT_ID = 1L;
+    private static final long PAGE_DICT_ID = 2L;
+
+    private final BufferAllocator allocator = new RootAllocator();
+    private final OutputStream os;
+    private final VectorSchemaRoot root;
+    private final ArrowStreamWriter writer;
+
+    private final StringDictionary sources;
+    private final StringDictionary pages;
+
+    private final VarCharVector title;
+    private final VarCharVector body;
+    private final DateDayVector date;
+    private final VarCharVector rawDate;
+    private final VarCharVector reviewer;
+    private final Float8Vector rating;
+    private final IntVector source;
+    private final IntVector productPage;
+    private final VarCharVector sourceUrl;
+    private final VarCharVector language;
+    private final Float8Vector sentiment;
+    private final VarCharVector keywords;
+
+    private int rows;
+
+    public ArrowIpcWriter(File f) throws IOException {
+        DictionaryEncoding srcEnc = new DictionaryEncoding(SOURCE_DICT_ID, false, new ArrowType.Int(32, true));
+        DictionaryEncoding pageEnc = new DictionaryEncoding(PAGE_DICT_ID, false, new ArrowType.Int(32, true));
+        sources = new StringDictionary("source_dict", srcEnc, allocator);
+        pages = new StringDictionary("productPage_dict", pageEnc, allocator);
+
+        Schema schema = new Schema(Arrays.asList(
+                utf8("title"),
+                utf8("review"),
+                new Field("date", FieldType.nullable(new ArrowType.Date(DateUnit.DAY)), null),
+                utf8("rawDate"),
+                utf8("reviewer"),
+                new Field("rating", FieldType.nullable(new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE)), null),
+                new Field("source", new FieldType(true, new ArrowType.Int(32, true), srcEnc), null),
+                new Field("productPage", new FieldType(true, new ArrowType.Int(32, true), pageEnc), null),
+                utf8("sourceUrl"),
+                utf8("language"),
+                new Field("sentiment", FieldType.nullable(new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE)), null),
+                utf8("keywords")));
+
+        root = VectorSchemaRoot.create(schema, allocator);
+        title = (VarCharVector) root.getVector("title");
+        body = (VarCharVector) root.getVector("review");
+        date = (DateDayVector) root.getVector("date");
+        rawDate = (VarCharVector) root.getVector("rawDate");
+        reviewer = (VarCharVector) root.getVector("reviewer");
+        rating = (Float8Vector) root.getVector("rating");
+        source = (IntVector) root.getVector("source");
+        productPage = (IntVector) root.getVector("productPage");
+        sourceUrl = (VarCharVector) root.getVector("sourceUrl");
+        language = (VarCharVector) root.getVector("language");
+        sentiment = (Float8Vector) root.getVector("sentiment");
+        keywords = (VarCharVector) root.getVector("keywords");
+
+        DictionaryProvider.MapDictionaryProvider provider = new DictionaryProvider.MapDictionaryProvider();
+        provider.put(sources.dictionary);
+        provider.put(pages.dictionary);
+
+        os = new BufferedOutputStream(new FileOutputStream(f), 1 << 16);
+        writer = new ArrowStreamWriter(root, provider, os);
+        writer.start();
+        root.allocateNew();
+    }
+
+    @Override
+    public void write(Review r) throws IOException {
+        int i = rows;
+        setString(title, i, r.getTitle());
+        setString(body, i, r.getReview());
+        LocalDate d = parseIsoDate(r.getDate());
+        if (d != null) date.setSafe(i, (int) d.toEpochDay()); else date.setNull(i);
+        setString(rawDate, i, extra(r, "rawDate"));
+        setString(reviewer, i, r.getReviewer());
+        if (r.getRating() != null) rating.setSafe(i, r.getRating()); else rating.setNull(i);
+        setIndex(source, i, sources, extra(r, "source"));
+        setIndex(productPage, i, pages, extra(r, "productPage"));
+        setString(sourceUrl, i, extra(r, "sourceUrl"));
+        setString(language, i, extra(r, "language"));
+        Object score = r.getExtra() != null ? r.getExtra().get("sentiment") : null;
+        if (score instanceof Number) sentiment.setSafe(i, ((Number) score).doubleValue()); else sentiment.setNull(i);
+        setString(keywords, i, extra(r, "keywords"));
+
+        if (++rows == BATCH_ROWS) flushBatch();
+    }
+
+    private void flushBatch() throws IOException {
+        if (rows == 0) return;
+        root.setRowCount(rows);
+        // dictionaries only grow; the stream writer re-sends one only when it changed
+        sources.seal();
+        pages.seal();
+        writer.writeBatch();
+        rows = 0;
+        root.allocateNew();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flushBatch();
+            writer.end();
+        } finally {
+            writer.close();
+            root.close();
+            sources.close();
+            pages.close();
+            allocator.close();
+            os.close();
+        }
+    }
+
+    private static Field utf8(String name) {
+        return new Field(name, FieldType.nullable(ArrowType.Utf8.INSTANCE), null);
+    }
+
+    private static String extra(Review r, String key) {
+        Object v = r.getExtra() != null ? r.getExtra().get(key) : null;
+        if (v instanceof Collection) return String.join(",", ((Collection<?>) v).stream().map(String::valueOf).toArray(String[]::new));
+        return v != null ? v.toString() : null;
+    }
+
+    private static void setString(VarCharVector v, int i, String s) {
+        if (s == null) v.setNull(i);
+        else v.setSafe(i, s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void setIndex(IntVector v, int i, StringDictionary dict, String s) {
+        if (s == null) v.setNull(i);
+        else v.setSafe(i, dict.indexOf(s));
+    }
+
+    private static LocalDate parseIsoDate(String s) {
+        if (s == null || s.length() != 10) return null;
+        try {
+            return LocalDate.parse(s);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Append-only string dictionary backing a dictionary-encoded column.
+     */
+    private static final class StringDictionary {
+        final Dictionary dictionary;
+        private final VarCharVector values;
+        private final Map<String, Integer> ids = new HashMap<>();
+
+        StringDictionary(String name, DictionaryEncoding encoding, BufferAllocator allocator) {
+            values = new VarCharVector(name, allocator);
+            values.allocateNew();
+            dictionary = new Dictionary(values, encoding);
+        }
+
+        int indexOf(String s) {
+            Integer id = ids.get(s);
+            if (id == null) {
+                id = ids.size();
+                values.setSafe(id, s.getBytes(StandardCharsets.UTF_8));
+                values.setValueCount(id + 1);
+                ids.put(s, id);
+            }
+            return id;
+        }
+
+        void seal() {
+            values.setValueCount(ids.size());
+        }
+
+        void close() {
+            values.close();
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package com.example.reviewscraper.io;
+
+import com.example.reviewscraper.dedupe.Hash128;
+import com.example.reviewscraper.dedupe.SeenReviews;
+import com.example.reviewscraper.exec.VirtualThreads;
+import com.example.reviewscraper.model.Review;
+import com.google.gson.Gson;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * External sort of any number of review files into one output ordered by (source, product, date),
+ * with duplicates across files removed, in bounded memory.
+ *
+ * Parse phase: input files are read in parallel on a CPU pool (one file per task, streamed with
+ * {@link ReviewReader}). Each task buffers keyed records up to its share of the memory budget,
+ * sorts them and spills a run file to the temp directory. Merge phase: runs are merged k-way with
+ * a priority queue, at most {@link #FAN_IN} at a time (wider inputs take intermediate passes).
+ * The sort key ends with the review's identity hash ({@link SeenReviews#hash}), so copies of a
+ * review from different files meet next to each other and are dropped by comparing with the
+ * previous record only.
+ *
+ * Source and product come from the review's {@code extra.source}/{@code extra.product} when present,
+ * else from the {@code reviews_<source>_<product>_<start>_<end>} file name, and are written back
+ * into {@code extra} so the merged file keeps them. Dates sort as text: ISO dates chronologically,
+ * raw dates that were never normalized after them.
+ */
+public class ExternalMerge {
+
+    static final int FAN_IN = 64;
+
+    private static final Gson G = new Gson();
+    private static final Pattern FILE_NAME = Pattern.compile(
+            "reviews_([^_]+)_(.+)_(\\d{4}-\\d{2}-\\d{2})_(\\d{4}-\\d{2}-\\d{2})\\..+");
+    /** Per record overhead on top of its JSON text: key strings, object headers, list slot. */
+    private static final int RECORD_OVERHEAD = 160;
+
+    /** Counters of one merge. */
+    public static class Result {
+        int files;
+        int failedFiles;
+        final AtomicLong read = new AtomicLong();
+        long written;
+        final AtomicLong duplicates = new AtomicLong();
+        final AtomicInteger runs = new AtomicInteger();
+        int passes;
+
+        public int getFiles() { return files; }
+        public int getFailedFiles() { return failedFiles; }
+        public long getRead() { return read.get(); }
+        public long getWritten() { return written; }
+        public long getDuplicates() { return duplicates.get(); }
+        public int getRuns() { return runs.get(); }
+        public int getPasses() { return passes; }
+    }
+
+    private final Path tmpDir;
+    private final long memoryBytes;
+
+    /**
+     * @param tmpDir where run files are spilled (removed again as they are merged)
+     * @param memoryBytes budget for the parse buffers, shared by the parse threads
+     */
+    public ExternalMerge(Path tmpDir, long memoryBytes) {
+        this.tmpDir = tmpDir;
+        this.memoryBytes = memoryBytes;
+    }
+
+    /**
+     * Merge {@code inputs} into {@code out}. A file that cannot be read is reported on stderr and
+     * left out entirely; the others are still merged.
+     */
+    public Result run(List<Path> inputs, ReviewSink out) throws IOException, InterruptedException {
+        Files.createDirectories(tmpDir);
+        Result result = new Result();
+        result.files = inputs.size();
+        int threads = Runtime.getRuntime().availableProcessors();
+        long budget = Math.max(1 << 20, memoryBytes / threads);
+
+        List<Path> runs = new ArrayList<>();
+        ExecutorService parse = VirtualThreads.newCpuPool("merge-parse-");
+        try {
+            List<Future<List<Path>>> futures = new ArrayList<>();
+            for (Path in : inputs) {
+                futures.add(parse.submit(() -> parseFile(in, budget, result)));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    runs.addAll(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    result.failedFiles++;
+                    System.err.println("Skipping " + inputs.get(i) + ": " + e.getCause());
+                }
+            }
+        } finally {
+            parse.shutdownNow();
+        }
+
+        while (runs.size() > FAN_IN) {
+            List<Path> next = new ArrayList<>();
+            for (int i = 0; i < runs.size(); i += FAN_IN) {
+                List<Path> group = runs.subList(i, Math.min(runs.size(), i + FAN_IN));
+                if (group.size() == 1) {
+                    next.add(group.get(0));
+                    continue;
+                }
+                Path merged = newRun(result);
+                try (BufferedWriter w = Files.newBufferedWriter(merged, StandardCharsets.UTF_8)) {
+                    merge(group, rec -> {
+                        w.write(rec.line);
+                        w.write('\n');
+                    }, result);
+                }
+                next.add(merged);
+            }
+            runs = next;
+            result.passes++;
+        }
+        merge(runs, rec -> {
+            out.write(G.fromJson(rec.json(), Review.class));
+            result.written++;
+        }, result);
+        result.passes++;
+        return result;
+    }
+
+    private List<Path> parseFile(Path file, long budget, Result result) throws IOException {
+        String fileSource = "";
+        String fileProduct = "";
+        Matcher m = FILE_NAME.matcher(file.getFileName().toString());
+        if (m.matches()) {
+            fileSource = m.group(1);
+            fileProduct = m.group(2).replace('_', ' ');
+        }
+        List<Path> runs = new ArrayList<>();
+        List<Record> buffer = new ArrayList<>();
+        long bytes = 0;
+        long read = 0;
+        Hash128 hasher = new Hash128();
+        try (ReviewReader in = ReviewReader.open(file)) {
+            Review r;
+            while ((r = in.next()) != null) {
+                if (r.getExtra() == null) r.setExtra(new HashMap<>());
+                String source = text(r.getExtra().get("source"), fileSource);
+                String product = text(r.getExtra().get("product"), fileProduct);
+                r.getExtra().putIfAbsent("source", source);
+                r.getExtra().putIfAbsent("product", product);
+                SeenReviews.hash(hasher, source + '\u0000' + product, r);
+                Record rec = Record.of(source, product, r.getDate(), hasher.high(), hasher.low(), G.toJson(r));
+                buffer.add(rec);
+                read++;
+                bytes += 2L * rec.line.length() + RECORD_OVERHEAD;
+                if (bytes >= budget) {
+                    runs.add(spill(buffer, result));
+                    buffer.clear();
+                    bytes = 0;
+                }
+            }
+            if (!buffer.isEmpty()) runs.add(spill(buffer, result));
+            result.read.addAndGet(read);
+            return runs;
+        } catch (IOException | RuntimeException e) {
+            for (Path run : runs) Files.deleteIfExists(run);
+            throw e;
+        }
+    }
+
+    private Path spill(List<Record> buffer, Result result) throws IOException {
+        buffer.sort(Record.ORDER);
+        Path run = newRun(result);
+        try (BufferedWriter w = Files.newBufferedWriter(run, StandardCharsets.UTF_8)) {
+            Record prev = null;
+            for (Record rec : buffer) {
+                if (prev != null && Record.ORDER.compare(prev, rec) == 0) {
+                    result.duplicates.incrementAndGet();
+                    continue;
+                }
+                w.write(rec.line);
+                w.write('\n');
+                prev = rec;
+            }
+        }
+        return run;
+    }
+
+    private Path newRun(Result result) throws IOException {
+        return Files.createTempFile(tmpDir, "run-" + result.runs.incrementAndGet() + "-", ".tsv");
+    }
+
+    private interface RecordConsumer {
+        void accept(Record rec) throws IOException;
+    }
+
+    /**
+     * K-way merge of sorted runs, dropping records equal to the previous one. Consumed runs are
+     * deleted.
+     */
+    private static void merge(List<Path> runs, RecordConsumer out, Result result) throws IOException {
+        PriorityQueue<RunReader> heap = new PriorityQueue<>(Math.max(1, runs.size()),
+                Comparator.comparing((RunReader r) -> r.current, Record.ORDER));
+        List<RunReader> open = new ArrayList<>();
+        try {
+            for (Path run : runs) {
+                RunReader r = new RunReader(run);
+                open.add(r);
+                if (r.advance()) heap.add(r);
+            }
+            Record prev = null;
+            while (!heap.isEmpty()) {
+                RunReader r = heap.poll();
+                Record rec = r.current;
+                if (prev != null && Record.ORDER.compare(prev, rec) == 0) {
+                    result.duplicates.incrementAndGet();
+                } else {
+                    out.accept(rec);
+                    prev = rec;
+                }
+                if (r.advance()) heap.add(r);
+            }
+        } finally {
+            for (RunReader r : open) r.close();
+            for (Path run : runs) Files.deleteIfExists(run);
+        }
+    }
+
+    private static String text(Object v, String fallback) {
+        return v instanceof String && !((String) v).isBlank() ? (String) v : fallback;
+    }
+
+    /**
+     * One review in a run file: {@code source \t product \t date \t hash-hi \t hash-lo \t json}.
+     * Gson escapes control characters, so the JSON never contains a tab or newline.
+     */
+    private static final class Record {
+        static final Comparator<Record> ORDER = Comparator.<Record, String>comparing(r -> r.source)
+                .thenComparing(r -> r.product)
+                .thenComparing(r -> r.date)
+                .thenComparing((a, b) -> Long.compareUnsigned(a.hi, b.hi))
+                .thenComparing((a, b) -> Long.compareUnsigned(a.lo, b.lo));
+
+        final String source, product, date;
+        final long hi, lo;
+        final String line;
+        final int jsonStart;
+
+        private Record(String source, String product, String date, long hi, long lo, String line, int jsonStart) {
+            this.source = source;
+            this.product = product;
+            this.date = date;
+            this.hi = hi;
+            this.lo = lo;
+            this.line = line;
+            this.jsonStart = jsonStart;
+        }
+
+        static Record of(String source, String product, String date, long hi, long lo, String json) {
+            source = clean(source);
+            product = clean(product);
+            date = clean(date);
+            String prefix = source + '\t' + product + '\t' + date + '\t' + Long.toHexString(hi) + '\t' + Long.toHexString(lo) + '\t';
+            return new Record(source, product, date, hi, lo, prefix + json, prefix.length());
+        }
+
+        static Record parse(String line) {
+            int t1 = line.indexOf('\t');
+            int t2 = line.indexOf('\t', t1 + 1);
+            int t3 = line.indexOf('\t', t2 + 1);
+            int t4 = line.indexOf('\t', t3 + 1);
+            int t5 = line.indexOf('\t', t4 + 1);
+            if (t5 < 0) throw new IllegalStateException("Corrupt run record: " + line);
+            return new Record(line.substring(0, t1), line.substring(t1 + 1, t2), line.substring(t2 + 1, t3),
+                    Long.parseUnsignedLong(line.substring(t3 + 1, t4), 16),
+                    Long.parseUnsignedLong(line.substring(t4 + 1, t5), 16), line, t5 + 1);
+        }
+
+        String json() {
+            return line.substring(jsonStart);
+        }
+
+        private static String clean(String s) {
+            if (s == null) return "";
+            return s.indexOf('\t') < 0 && s.indexOf('\n') < 0 && s.indexOf('\r') < 0 ? s : s.replaceAll("[\t\r\n]", " ");
+        }
+    }
+
+    private static final class RunReader implements Closeable {
+        private final BufferedReader in;
+        Record current;
+
+        RunReader(Path run) throws IOException {
+            this.in = Files.newBufferedReader(run, StandardCharsets.UTF_8);
+        }
+
+        boolean advance() throws IOException {
+            String line = in.readLine();
+            current = line != null ? Record.parse(line) : null;
+            return current != null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.reviewscraper.io;
+
+import com.example.reviewscraper.model.Review;
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Streaming counterpart of {@link com.example.reviewscraper.io.JsonWriter}: the same pretty
+ * printed JSON array, written one review at a time for outputs too large to hold as a list.
+ */
+public class JsonArrayWriter implements ReviewSink {
+
+    private static final Gson G = new Gson();
+
+    private final JsonWriter out;
+
+    public JsonArrayWriter(File f) throws IOException {
+        out = new JsonWriter(new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(f.toPath()), StandardCharsets.UTF_8), 1 << 16));
+        out.setIndent("  ");
+        out.beginArray();
+    }
+
+    @Override
+    public void write(Review review) throws IOException {
+        G.toJson(review, Review.class, out);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            out.endArray();
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.reviewscraper.io;
+
+import com.example.reviewscraper.model.Review;
+import com.github.luben.zstd.ZstdOutputStream;
+import com.google.gson.Gson;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Newline-delimited JSON writer (one compact review object per line),
+ * optionally gzip or zstd compressed.
+ */
+public class NdjsonWriter implements ReviewSink {
+
+    public enum Compression { NONE, GZIP, ZSTD }
+
+    private static final Gson G = new Gson();
+
+    private final Writer out;
+
+    public NdjsonWriter(File f, Compression compression) throws IOException {
+        OutputStream os = new BufferedOutputStream(new FileOutputStream(f), 1 << 16);
+        switch (compression) {
+            case GZIP:
+                os = new GZIPOutputStream(os, 1 << 16);
+                break;
+            case ZSTD:
+                os = new ZstdOutputStream(os, 3);
+                break;
+            default:
+                break;
+        }
+        this.out = new OutputStreamWriter(os, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void write(Review review) throws IOException {
+        G.toJson(review, Review.class, out);
+        out.write('\n');
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.reviewscraper.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Export formats selectable from the command line ({@code format=...}).
+ */
+public enum OutputFormat {
+    JSON(".json"),
+    NDJSON(".ndjson"),
+    NDJSON_GZ(".ndjson.gz"),
+    NDJSON_ZSTD(".ndjson.zst"),
+    ARROW(".arrows");
+
+    private final String extension;
+
+    OutputFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    /**
+     * Open a streaming sink for this format. {@link #JSON} keeps using {@link JsonWriter}
+     * and has no streaming sink.
+     */
+    public ReviewSink open(File f) throws IOException {
+        switch (this) {
+            case NDJSON: return new NdjsonWriter(f, NdjsonWriter.Compression.NONE);
+            case NDJSON_GZ: return new NdjsonWriter(f, NdjsonWriter.Compression.GZIP);
+            case NDJSON_ZSTD: return new NdjsonWriter(f, NdjsonWriter.Compression.ZSTD);
+            case ARROW: return new ArrowIpcWriter(f);
+            default: throw new IllegalStateException("no streaming sink for " + this);
+        }
+    }
+
+    public static OutputFormat parse(String s) {
+        switch (s.toLowerCase(Locale.ROOT)) {
+            case "json": return JSON;
+            case "ndjson": case "jsonl": return NDJSON;
+            case "ndjson.gz": case "gzip": case "gz": return NDJSON_GZ;
+            case "ndjson.zst": case "zstd": case "zst": return NDJSON_ZSTD;
+            case "arrow": case "arrows": case "columnar": return ARROW;
+            default: throw new IllegalArgumentException("Unsupported format: " + s);
+        }
+    }
+}
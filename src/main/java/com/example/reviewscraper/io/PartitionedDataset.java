@@ -0,0 +1,320 @@
+package com.example.reviewscraper.io;
+
+import com.example.reviewscraper.dedupe.Hash128;
+import com.example.reviewscraper.dedupe.LongPairSet;
+import com.example.reviewscraper.dedupe.SeenReviews;
+import com.example.reviewscraper.model.Review;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Review dataset laid out as Hive-style partitions, one current file per partition, named after
+ * the manifest version that wrote it:
+ * <pre>
+ *   root/source=g2/product=Acme_CRM/month=2024-06/part-7.ndjson
+ *   root/_manifest.json
+ * </pre>
+ * A commit merges a product's reviews into its month partitions (de-duplicated against what the
+ * partition already holds) and writes each changed partition as a new file next to the old one
+ * (hidden temp file, synced, renamed to its versioned name). The commit is published by renaming
+ * the new manifest into place; only then are the files it superseded deleted. A crash before that
+ * rename leaves the previous manifest and all the files it lists untouched, and the next commit
+ * removes the unlisted files and temp files left behind.
+ *
+ * Readers should take the file list from the manifest: a directory glob can see a partition's old
+ * and new file together for the moment between publishing and deleting. The manifest lists every
+ * partition with its row count, size, SHA-256 and the manifest version in which it last changed,
+ * so a consumer that remembers the version it last read only needs the partitions with a higher
+ * one. Commits hold a lock file, so several processes can share a root. Partitions are NDJSON,
+ * optionally gzip or zstd compressed.
+ */
+public class PartitionedDataset {
+
+    public static final String MANIFEST = "_manifest.json";
+
+    private static final Gson G = new Gson();
+    private static final Gson PRETTY = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+
+    /** The manifest file. */
+    public static class Manifest {
+        int formatVersion = 1;
+        long version;
+        String updated;
+        Map<String, Partition> partitions = new TreeMap<>();
+
+        public long getVersion() { return version; }
+        public Map<String, Partition> getPartitions() { return partitions; }
+    }
+
+    /** One partition in the manifest. */
+    public static class Partition {
+        String file;
+        long rows;
+        long bytes;
+        String sha256;
+        long version;
+        String updated;
+
+        public String getFile() { return file; }
+        public long getRows() { return rows; }
+        public long getBytes() { return bytes; }
+        public String getSha256() { return sha256; }
+        public long getVersion() { return version; }
+    }
+
+    /** What one commit changed. */
+    public static class Commit {
+        final List<String> changed = new ArrayList<>();
+        int newRows;
+        long version;
+
+        public List<String> getChanged() { return changed; }
+        public int getNewRows() { return newRows; }
+        public long getVersion() { return version; }
+    }
+
+    private final Path root;
+    private final OutputFormat format;
+    private final NdjsonWriter.Compression compression;
+
+    /**
+     * @param format NDJSON, NDJSON_GZ or NDJSON_ZSTD (JSON is stored as NDJSON)
+     */
+    public PartitionedDataset(Path root, OutputFormat format) throws IOException {
+        switch (format) {
+            case JSON:
+            case NDJSON:
+                this.format = OutputFormat.NDJSON;
+                this.compression = NdjsonWriter.Compression.NONE;
+                break;
+            case NDJSON_GZ:
+                this.format = format;
+                this.compression = NdjsonWriter.Compression.GZIP;
+                break;
+            case NDJSON_ZSTD:
+                this.format = format;
+                this.compression = NdjsonWriter.Compression.ZSTD;
+                break;
+            default:
+                throw new IllegalArgumentException("dataset partitions are NDJSON; format " + format + " is not supported");
+        }
+        this.root = root.toAbsolutePath();
+        Files.createDirectories(this.root);
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    /** Directory of a product: root/source=.../product=... */
+    public Path productDir(String source, String product) {
+        return root.resolve("source=" + escape(source)).resolve("product=" + escape(product));
+    }
+
+    /**
+     * Merge a product's reviews into its month partitions and publish the changed ones.
+     */
+    public synchronized Commit commit(String source, String product, List<Review> reviews) throws IOException {
+        Map<String, List<Review>> byMonth = new TreeMap<>();
+        for (Review r : reviews) {
+            byMonth.computeIfAbsent(month(r.getDate()), k -> new ArrayList<>()).add(r);
+        }
+        Commit commit = new Commit();
+        try (FileChannel lockChannel = FileChannel.open(root.resolve("_manifest.lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            FileLock lock = lockChannel.lock();
+            try {
+                commitLocked(source, product, byMonth, commit);
+            } finally {
+                lock.release();
+            }
+        }
+        return commit;
+    }
+
+    private void commitLocked(String source, String product, Map<String, List<Review>> byMonth, Commit commit) throws IOException {
+        Manifest manifest = readManifest();
+        long version = manifest.version + 1;
+        Hash128 hasher = new Hash128();
+        List<Path> superseded = new ArrayList<>();
+        for (Map.Entry<String, List<Review>> m : byMonth.entrySet()) {
+            Path dir = productDir(source, product).resolve("month=" + m.getKey());
+            String key = root.relativize(dir).toString().replace('\\', '/');
+            Partition old = manifest.partitions.get(key);
+            Path oldFile = old != null ? root.resolve(old.file) : null;
+            if (Files.isDirectory(dir)) removeLeftovers(dir, oldFile);
+
+            List<Review> rows = new ArrayList<>();
+            LongPairSet seen = LongPairSet.inMemory(1024);
+            if (oldFile != null && Files.exists(oldFile)) {
+                for (Review r : read(oldFile)) {
+                    if (SeenReviews.add(seen, hasher, key, r)) rows.add(r);
+                }
+            }
+            int existing = rows.size();
+            for (Review r : m.getValue()) {
+                if (SeenReviews.add(seen, hasher, key, r)) rows.add(r);
+            }
+            if (rows.size() == existing && old != null) continue; // nothing new in this month
+
+            Partition p = write(dir, rows, version);
+            p.version = version;
+            p.updated = Instant.now().toString();
+            if (oldFile != null) superseded.add(oldFile);
+            manifest.partitions.put(key, p);
+            commit.changed.add(key);
+            commit.newRows += rows.size() - existing;
+        }
+        if (!commit.changed.isEmpty()) {
+            manifest.version = version;
+            manifest.updated = Instant.now().toString();
+            writeManifest(manifest);
+            // published; readers of the new manifest no longer need these
+            for (Path f : superseded) Files.deleteIfExists(f);
+        }
+        commit.version = manifest.version;
+    }
+
+    /**
+     * The current manifest (empty when nothing was committed yet).
+     */
+    public Manifest readManifest() throws IOException {
+        Path f = root.resolve(MANIFEST);
+        if (!Files.exists(f)) return new Manifest();
+        Manifest m = G.fromJson(Files.readString(f, StandardCharsets.UTF_8), Manifest.class);
+        if (m == null) return new Manifest();
+        m.partitions = m.partitions == null ? new TreeMap<>() : new TreeMap<>(m.partitions);
+        return m;
+    }
+
+    /**
+     * Partitions changed after manifest version {@code since}, for incremental consumers.
+     */
+    public Map<String, Partition> changedSince(long since) throws IOException {
+        Map<String, Partition> out = new LinkedHashMap<>();
+        for (Map.Entry<String, Partition> e : readManifest().partitions.entrySet()) {
+            if (e.getValue().version > since) out.put(e.getKey(), e.getValue());
+        }
+        return out;
+    }
+
+    private Partition write(Path dir, List<Review> rows, long version) throws IOException {
+        Files.createDirectories(dir);
+        Path tmp = dir.resolve(".part-" + UUID.randomUUID() + ".tmp");
+        Path target = dir.resolve("part-" + version + format.extension());
+        try {
+            try (NdjsonWriter w = new NdjsonWriter(tmp.toFile(), compression)) {
+                for (Review r : rows) w.write(r);
+            }
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                ch.force(true);
+            }
+            Partition p = new Partition();
+            p.file = root.relativize(target).toString().replace('\\', '/');
+            p.rows = rows.size();
+            p.bytes = Files.size(tmp);
+            p.sha256 = sha256(tmp);
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+            return p;
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private void writeManifest(Manifest m) throws IOException {
+        Path tmp = root.resolve("." + MANIFEST + "." + UUID.randomUUID() + ".tmp");
+        try {
+            Files.writeString(tmp, PRETTY.toJson(m), StandardCharsets.UTF_8);
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                ch.force(true);
+            }
+            Files.move(tmp, root.resolve(MANIFEST), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Temp files and part files of commits that died before publishing their manifest, and
+     * superseded files a commit died before deleting: everything but the listed {@code current}.
+     */
+    private static void removeLeftovers(Path dir, Path current) throws IOException {
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, "{.part-*.tmp,part*}")) {
+            for (Path p : ds) {
+                if (!p.equals(current)) Files.deleteIfExists(p);
+            }
+        }
+    }
+
+    private static List<Review> read(Path file) throws IOException {
+        List<Review> rows = new ArrayList<>();
+        try (ReviewReader in = ReviewReader.open(file)) {
+            Review r;
+            while ((r = in.next()) != null) rows.add(r);
+        }
+        return rows;
+    }
+
+    /** yyyy-MM of an ISO date, "unknown" for dates that were not normalized. */
+    static String month(String date) {
+        if (date != null && date.length() >= 7 && date.charAt(4) == '-'
+                && Character.isDigit(date.charAt(0)) && Character.isDigit(date.charAt(5)) && Character.isDigit(date.charAt(6))) {
+            return date.substring(0, 7);
+        }
+        return "unknown";
+    }
+
+    /**
+     * Partition value escaping as Hive does it: path-unsafe characters become %XX; spaces
+     * become '_' like in the single-file output names.
+     */
+    static String escape(String value) {
+        StringBuilder sb = new StringBuilder(value.length());
+        for (char c : value.trim().toCharArray()) {
+            if (Character.isWhitespace(c)) {
+                sb.append('_');
+            } else if (c < 0x20 || c == 0x7f || "\"#%'*/:=?\\{[]^".indexOf(c) >= 0) {
+                sb.append('%').append(String.format("%02X", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String sha256(Path file) throws IOException {
+        MessageDigest md;
+        try {
+            md = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] buf = new byte[1 << 16];
+        try (InputStream in = Files.newInputStream(file)) {
+            int n;
+            while ((n = in.read(buf)) > 0) md.update(buf, 0, n);
+        }
+        StringBuilder sb = new StringBuilder(64);
+        for (byte b : md.digest()) sb.append(String.format("%02x", b));
+        return sb.toString();
+    }
+}
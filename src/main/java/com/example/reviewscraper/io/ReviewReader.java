@@ -0,0 +1,91 @@
+package com.example.reviewscraper.io;
+
+import com.example.reviewscraper.model.Review;
+import com.github.luben.zstd.ZstdInputStream;
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Streaming reader for the review files this tool writes: a JSON array ({@code .json}, read
+ * element by element with Gson's {@link JsonReader}, never as a whole) or NDJSON, plain, gzip
+ * or zstd compressed. Memory use does not depend on the file size.
+ */
+public abstract class ReviewReader implements Closeable {
+
+    private static final Gson G = new Gson();
+
+    /**
+     * @throws IllegalArgumentException for Arrow streams and unknown extensions
+     */
+    public static ReviewReader open(Path file) throws IOException {
+        String name = file.getFileName().toString().toLowerCase();
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) return new Lines(Files.newInputStream(file));
+        if (name.endsWith(".ndjson.gz")) return new Lines(new GZIPInputStream(Files.newInputStream(file), 1 << 16));
+        if (name.endsWith(".ndjson.zst")) return new Lines(new ZstdInputStream(Files.newInputStream(file)));
+        if (name.endsWith(".json")) return new Array(Files.newInputStream(file));
+        throw new IllegalArgumentException("Cannot read reviews from " + file.getFileName() + " (json or ndjson[.gz|.zst] expected)");
+    }
+
+    /**
+     * @return the next review, or null at the end of the file
+     */
+    public abstract Review next() throws IOException;
+
+    private static final class Lines extends ReviewReader {
+        private final BufferedReader in;
+
+        Lines(InputStream in) {
+            this.in = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16);
+        }
+
+        @Override
+        public Review next() throws IOException {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (!line.isBlank()) return G.fromJson(line, Review.class);
+            }
+            return null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    private static final class Array extends ReviewReader {
+        private final JsonReader in;
+        private boolean started;
+
+        Array(InputStream in) {
+            this.in = new JsonReader(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16));
+        }
+
+        @Override
+        public Review next() throws IOException {
+            if (!started) {
+                started = true;
+                if (in.peek() == JsonToken.END_DOCUMENT) return null;
+                in.beginArray();
+            }
+            if (!in.hasNext()) return null;
+            return G.fromJson(in, Review.class);
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
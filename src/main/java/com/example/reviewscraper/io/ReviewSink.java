@@ -0,0 +1,14 @@
+package com.example.reviewscraper.io;
+
+import com.example.reviewscraper.model.Review;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Incremental review output: reviews are written one at a time as they are
+ * scraped, so an export never needs the whole result list in memory.
+ */
+public interface ReviewSink extends Closeable {
+    void write(Review review) throws IOException;
+}
@@ -0,0 +1,140 @@
+package com.example.reviewscraper.scraper;
+
+import com.example.reviewscraper.browser.NetworkMonitor;
+import com.example.reviewscraper.model.Review;
+import com.example.reviewscraper.util.EventLog;
+import com.example.reviewscraper.util.FieldNormalizer;
+import com.example.reviewscraper.util.JsonPath;
+import com.example.reviewscraper.util.SelectorConfig;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Maps the site's own review API responses (captured via CDP) to {@link Review}s, driven by the
+ * "api" block of a selector config:
+ *
+ * <pre>
+ * "api": {
+ *   "urlPattern": "/api/v\\d+/reviews",   regex matched against XHR/fetch URLs
+ *   "items": "$.data.reviews",            path to the array of reviews (omit if the body is the array)
+ *   "fields": { "title": "title", "review": "body", "date": "submittedAt",
+ *               "reviewer": "author.name", "rating": "score" }
+ * }
+ * </pre>
+ */
+class ApiCapture implements NetworkMonitor.BodyListener {
+
+    private final Pattern urlPattern;
+    private final String itemsPath;
+    private final JsonObject fields;
+    private final String label;
+    private final Consumer<Review> sink;
+    private final AtomicInteger responses = new AtomicInteger();
+
+    private ApiCapture(Pattern urlPattern, String itemsPath, JsonObject fields, String label, Consumer<Review> sink) {
+        this.urlPattern = urlPattern;
+        this.itemsPath = itemsPath;
+        this.fields = fields;
+        this.label = label;
+        this.sink = sink;
+    }
+
+    /**
+     * @return the capture for the config's "api" block, or null if it has none
+     */
+    static ApiCapture from(SelectorConfig cfg, String label, Consumer<Review> sink) {
+        JsonElement el = cfg.getJson().get("api");
+        if (el == null || !el.isJsonObject()) return null;
+        JsonObject api = el.getAsJsonObject();
+        String pattern = JsonPath.getString(api, "urlPattern");
+        JsonElement fields = api.get("fields");
+        if (pattern == null || fields == null || !fields.isJsonObject()) {
+            EventLog.warn("api.config", "{source}: api block needs urlPattern and fields, using DOM extraction", "source", label);
+            return null;
+        }
+        return new ApiCapture(Pattern.compile(pattern), JsonPath.getString(api, "items"), fields.getAsJsonObject(), label, sink);
+    }
+
+    boolean matches(String url) {
+        return url != null && urlPattern.matcher(url).find();
+    }
+
+    @Override
+    public void onBody(String url, String body) {
+        JsonElement items;
+        try {
+            JsonElement root = JsonParser.parseString(body);
+            items = itemsPath != null ? JsonPath.get(root, itemsPath) : root;
+        } catch (Exception e) {
+            EventLog.warn("api.parse", "{source}: unparseable API response from {url}: {error}",
+                    "source", label, "url", url, "error", e.getMessage());
+            return;
+        }
+        if (items == null || !items.isJsonArray() || items.getAsJsonArray().size() == 0) {
+            EventLog.debug("api.empty", "{source}: no review items in {url}", "source", label, "url", url);
+            return;
+        }
+        responses.incrementAndGet();
+        int n = 0;
+        for (JsonElement item : items.getAsJsonArray()) {
+            Review r = toReview(item);
+            if (r == null) continue;
+            r.getExtra().put("sourceUrl", url);
+            r.getExtra().put("extractedFrom", "api");
+            sink.accept(r);
+            n++;
+        }
+        EventLog.debug("api.response", "{source}: {items} reviews from {url}", "source", label, "url", url, "items", n);
+    }
+
+    /**
+     * Number of API responses with review items since the last call.
+     */
+    int takeResponses() {
+        return responses.getAndSet(0);
+    }
+
+    Review toReview(JsonElement item) {
+        Review r = new Review();
+        r.setTitle(FieldNormalizer.text(JsonPath.getString(item, path("title"))));
+        r.setReview(FieldNormalizer.text(JsonPath.getString(item, path("review"))));
+        r.setReviewer(FieldNormalizer.text(JsonPath.getString(item, path("reviewer"))));
+        r.setDate(date(JsonPath.get(item, path("date"))));
+        r.setRating(rating(JsonPath.get(item, path("rating"))));
+        if (r.getTitle() == null && r.getReview() == null) return null;
+        return r;
+    }
+
+    private String path(String field) {
+        JsonElement p = fields.get(field);
+        return p != null && p.isJsonPrimitive() ? p.getAsString() : null;
+    }
+
+    private static Double rating(JsonElement v) {
+        if (v == null || !v.isJsonPrimitive()) return null;
+        return v.getAsJsonPrimitive().isNumber() ? v.getAsDouble() : BaseScraper.parseRating(v.getAsString());
+    }
+
+    /**
+     * API dates come as ISO timestamps, epoch seconds/millis or display strings; ISO dates are
+     * cut to yyyy-MM-dd and epochs converted, anything else is left for DateUtils.
+     */
+    static String date(JsonElement v) {
+        if (v == null || !v.isJsonPrimitive()) return null;
+        if (v.getAsJsonPrimitive().isNumber()) {
+            long n = v.getAsLong();
+            Instant t = n > 100_000_000_000L ? Instant.ofEpochMilli(n) : Instant.ofEpochSecond(n);
+            return t.atZone(ZoneOffset.UTC).toLocalDate().toString();
+        }
+        String s = v.getAsString().trim();
+        if (s.length() > 10 && s.charAt(10) == 'T' && s.matches("\\d{4}-\\d{2}-\\d{2}T.*")) return s.substring(0, 10);
+        return s;
+    }
+}
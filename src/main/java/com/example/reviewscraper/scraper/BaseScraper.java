@@ -1,7 +1,13 @@
 package com.example.reviewscraper.scraper;
 
+import com.example.reviewscraper.browser.NetworkMonitor;
 import com.example.reviewscraper.model.Review;
+import com.example.reviewscraper.util.EventLog;
+import com.example.reviewscraper.util.FieldNormalizer;
+import com.example.reviewscraper.util.SelectorConfig;
+import com.example.reviewscraper.util.StartupTimer;
 import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.TimeoutException;
@@ -11,6 +17,8 @@ import org.openqa.selenium.support.ui.WebDriverWait;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 /**
  * Shared helpers for concrete scrapers.
@@ -19,11 +27,96 @@ public abstract class BaseScraper implements Scraper {
     protected final WebDriver driver;
     protected final int maxPages;
     protected final long pageDelayMs;
+    private final List<ReviewListener> listeners = new ArrayList<>();
+    private NetworkMonitor monitor;
+    private boolean monitorAttached;
+    private boolean prefetch;
+    private Prefetcher prefetcher;
+    private boolean fullText;
+    private int firstPage = 1;
+    private int lastPage;
+    private int stalePageLimit;
+    private int pagesLoaded;
 
     protected BaseScraper(WebDriver driver, int maxPages, long pageDelayMs) {
         this.driver = driver;
         this.maxPages = maxPages;
         this.pageDelayMs = pageDelayMs;
+        this.lastPage = maxPages;
+    }
+
+    /**
+     * Register a listener that sees each accepted review while the crawl is running.
+     */
+    public void addListener(ReviewListener listener) {
+        if (listener != null) listeners.add(listener);
+    }
+
+    /**
+     * Add a review to the result list and notify listeners.
+     */
+    protected void accept(List<Review> out, Review r) {
+        out.add(r);
+        for (ReviewListener l : listeners) {
+            try {
+                l.onReview(r);
+            } catch (Exception e) {
+                EventLog.warn("listener.failed", "listener failed: {error}", "error", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Opt-in: with query pagination, load page N+1 in a second tab while page N is extracted.
+     */
+    public void setPrefetch(boolean prefetch) {
+        this.prefetch = prefetch;
+    }
+
+    protected boolean isPrefetch() {
+        return prefetch;
+    }
+
+    /**
+     * Opt-in: expand truncated review bodies on each page (the config's {@code expandSelector})
+     * and fetch the rest from their detail pages ({@code detailLink}/{@code detailBody}).
+     */
+    public void setFullText(boolean fullText) {
+        this.fullText = fullText;
+    }
+
+    protected boolean isFullText() {
+        return fullText;
+    }
+
+    /**
+     * Stop a product after {@code pages} consecutive pages that added no review because they were
+     * duplicates or older than the start date; pages still newer than the end date do not count.
+     * 0 (the default) walks up to maxPages regardless.
+     */
+    public void setStopAfterStalePages(int pages) {
+        this.stalePageLimit = Math.max(0, pages);
+    }
+
+    protected int getStalePageLimit() {
+        return stalePageLimit;
+    }
+
+    /**
+     * Listing pages this scraper has navigated to (including failed loads and retries).
+     */
+    public int getPagesLoaded() {
+        return pagesLoaded;
+    }
+
+    /**
+     * Restrict query pagination to pages {@code first..last} (one shard of a distributed crawl).
+     * Other pagination strategies cannot start mid-list and always walk from the start.
+     */
+    public void setPageRange(int first, int last) {
+        if (first < 1 || last < first) throw new IllegalArgumentException("bad page range " + first + "-" + last);
+        this.firstPage = first;
+        this.lastPage = last;
     }
 
     protected List<WebElement> safeFindElements(By selector, long timeoutSec) {
@@ -56,13 +149,468 @@ public abstract class BaseScraper implements Scraper {
         }
     }
 
+    /**
+     * Extract one field from a review block by trying the alternatives of its compound selector
+     * one at a time, historically winning alternative first. The first alternative whose value
+     * passes {@code valid} is recorded as a hit for this source. If none validates, the first
+     * value found is returned as-is (without a hit), like a single compound lookup would.
+     */
+    protected String extractField(SelectorConfig cfg, WebElement block, String field, String selector,
+                                  Function<WebElement, String> reader, Predicate<String> valid) {
+        String fallback = null;
+        for (String alt : cfg.orderedAlternatives(field, selector)) {
+            Optional<WebElement> el = safeFindElement(block, cfg.by(alt));
+            if (el.isEmpty()) continue;
+            String v;
+            try {
+                v = reader.apply(el.get());
+            } catch (Exception e) {
+                continue;
+            }
+            if (v == null) continue;
+            if (valid.test(v)) {
+                cfg.getStats().recordHit(field, alt);
+                return v;
+            }
+            if (fallback == null) fallback = v;
+        }
+        return fallback;
+    }
+
+    /**
+     * Reads the preferred attribute if configured and non-blank, otherwise the text; whitespace
+     * is collapsed by {@link FieldNormalizer#text(String)}.
+     */
+    protected static Function<WebElement, String> attrOrText(String attrPrefer) {
+        return e -> {
+            if (attrPrefer != null && !attrPrefer.isBlank()) {
+                String attr = e.getAttribute(attrPrefer);
+                if (attr != null && !attr.isBlank()) return FieldNormalizer.text(attr);
+            }
+            return FieldNormalizer.text(e.getText());
+        };
+    }
+
+    /**
+     * Reads a rating string: preferred attribute, then data-rating, then text.
+     */
+    protected static Function<WebElement, String> ratingReader(String attrPrefer) {
+        return e -> {
+            String txt = null;
+            if (attrPrefer != null && !attrPrefer.isBlank()) {
+                txt = e.getAttribute(attrPrefer);
+            }
+            if (txt == null || txt.isBlank()) {
+                txt = Optional.ofNullable(e.getAttribute("data-rating")).orElse(e.getText());
+            }
+            return txt;
+        };
+    }
+
+    /**
+     * Rating on a 5-point scale, see {@link FieldNormalizer#rating(String)}.
+     */
+    protected static Double parseRating(String txt) {
+        return FieldNormalizer.rating(txt);
+    }
+
+    protected static boolean notBlank(String s) {
+        return s != null && !s.isBlank();
+    }
+
+    /**
+     * Receives the review blocks of one page (or, in load-more mode, of one round).
+     * Return false to stop paginating.
+     */
+    protected interface PageVisitor {
+        boolean visit(List<WebElement> blocks, String pageUrl, int page);
+    }
+
+    /**
+     * Walk the pages of a product according to the configured pagination strategy.
+     *
+     * @return number of pages (or load-more rounds) that yielded review blocks
+     */
+    protected int paginate(SelectorConfig cfg, String startUrl, Pagination pagination, String blockSel,
+                           String logPrefix, PageVisitor visitor) {
+        switch (pagination.getType()) {
+            case NEXT_LINK:
+                return paginateNextLink(cfg, startUrl, pagination, blockSel, logPrefix, visitor);
+            case LOAD_MORE:
+                return paginateLoadMore(cfg, startUrl, pagination, blockSel, logPrefix, visitor);
+            default:
+                return paginateQuery(cfg, startUrl, pagination, blockSel, logPrefix, visitor);
+        }
+    }
+
+    /** Consecutive failed pages tolerated before a query walk assumes it ran past the end. */
+    static final int MAX_CONSECUTIVE_HOLES = 2;
+
+    /**
+     * Query pagination keeps walking past failed pages: failures are queued and retried with
+     * exponential backoff after the forward walk. A run of zero-block pages at the tail is taken
+     * as the end of the list and not retried; timeouts and navigation errors always are.
+     * With prefetch on, the next page starts loading in a background tab as soon as a page is ready
+     * and is cancelled once the walk stops.
+     */
+    private int paginateQuery(SelectorConfig cfg, String startUrl, Pagination pagination, String blockSel,
+                              String logPrefix, PageVisitor visitor) {
+        By blockBy = cfg.by(blockSel);
+        RetryQueue retries = new RetryQueue(retryBaseMs());
+        List<RetryQueue.Item> trailing = new ArrayList<>();
+        int visited = 0;
+        prefetcher = prefetch ? new Prefetcher(driver, logPrefix) : null;
+        try {
+            for (int page = firstPage; page <= lastPage && !cancelled(); page++) {
+                String pageUrl = pagination.pageUrl(startUrl, page);
+                PageLoad load = prefetcher != null && prefetcher.take(pageUrl)
+                        ? awaitPrefetched(pageUrl, blockBy)
+                        : fetchBlocks(pageUrl, blockBy);
+                if (load.isOk()) {
+                    // holes followed by a good page are real gaps: retry them later
+                    trailing.forEach(retries::offer);
+                    trailing.clear();
+                    visited++;
+                    if (prefetcher != null && page < lastPage) {
+                        prefetcher.start(pagination.pageUrl(startUrl, page + 1));
+                    }
+                    if (!visitor.visit(load.getBlocks(), pageUrl, page)) break;
+                } else {
+                    EventLog.info("page.failed", "{source}: page {page} failed at {url}: {load}",
+                            "source", logPrefix, "page", page, "url", pageUrl, "load", load.toString());
+                    trailing.add(new RetryQueue.Item(page, pageUrl, load.getFailure()));
+                    if (page == firstPage && load.getFailure() == PageLoad.Failure.ZERO_BLOCKS) {
+                        EventLog.info("page.empty", "{source}: no review blocks found at {url} with selector {selector}",
+                                "source", logPrefix, "url", pageUrl, "selector", blockSel);
+                        return 0;
+                    }
+                    if (trailing.size() > MAX_CONSECUTIVE_HOLES) break;
+                }
+            }
+        } finally {
+            if (prefetcher != null) prefetcher.close();
+            prefetcher = null;
+        }
+        for (RetryQueue.Item it : trailing) {
+            if (it.lastFailure.isTransient()) retries.offer(it);
+        }
+        return visited + drainRetries(retries, blockBy, logPrefix, visitor);
+    }
+
+    private int drainRetries(RetryQueue retries, By blockBy, String logPrefix, PageVisitor visitor) {
+        int recovered = 0;
+        while (!retries.isEmpty() && !cancelled()) {
+            RetryQueue.Item it = retries.poll();
+            long wait = it.dueAt - System.currentTimeMillis();
+            if (wait > 0) sleepQuietly(wait);
+            it.attempts++;
+            PageLoad load = fetchBlocks(it.url, blockBy);
+            if (load.isOk()) {
+                EventLog.info("page.recovered", "{source}: recovered page {page} on attempt {attempt}",
+                        "source", logPrefix, "page", it.page, "attempt", it.attempts);
+                recovered++;
+                visitor.visit(load.getBlocks(), it.url, it.page);
+            } else {
+                it.lastFailure = load.getFailure();
+                if (!retries.offer(it)) {
+                    EventLog.warn("page.abandoned", "{source}: giving up on page {page} after {attempts} attempts: {load}",
+                            "source", logPrefix, "page", it.page, "attempts", it.attempts, "load", load.toString());
+                }
+            }
+        }
+        return recovered;
+    }
+
+    /**
+     * Load one page, retrying transient failures in place (for strategies that cannot skip ahead).
+     */
+    protected PageLoad fetchWithRetry(String url, By blockBy) {
+        RetryQueue backoff = new RetryQueue(retryBaseMs());
+        PageLoad load = fetchBlocks(url, blockBy);
+        for (int attempt = 1; !load.isOk() && load.getFailure().isTransient()
+                && attempt < RetryQueue.MAX_ATTEMPTS && !cancelled(); attempt++) {
+            sleepQuietly(backoff.backoffMs(attempt));
+            load = fetchBlocks(url, blockBy);
+        }
+        return load;
+    }
+
+    /**
+     * Navigate to a listing page and wait for its review blocks, classifying any failure.
+     * The navigation is paced by the host's {@link RateGovernor}, which is fed the load time and
+     * HTTP status; transient failures count against the host's circuit breaker. The status comes
+     * from the CDP monitor, which only sees the tab it was attached in: after the prefetcher has
+     * swapped tabs (or without DevTools) it is read from the current tab's navigation timing.
+     */
+    protected PageLoad fetchBlocks(String url, By blockBy) {
+        CircuitBreaker breaker = CircuitBreaker.forUrl(url);
+        RateGovernor governor = RateGovernor.forUrl(url);
+        breaker.awaitPermission();
+        governor.acquire();
+        pagesLoaded++;
+        NetworkMonitor net = prefetcher != null && prefetcher.awayFromHome() ? null : networkMonitor();
+        if (net != null) net.reset();
+        PageLoad load;
+        boolean navigated = false;
+        Integer status = null;
+        try {
+            long started = System.nanoTime();
+            driver.get(url);
+            navigated = true;
+            StartupTimer.mark("first review page loaded");
+            long latencyMs = (System.nanoTime() - started) / 1_000_000;
+            status = net != null ? net.getDocumentStatus() : navigationStatus();
+            Integer throttle = net != null ? net.getThrottleStatus()
+                    : status != null && (status == 429 || status == 503) ? status : null;
+            governor.onResponse(latencyMs, throttle, net != null ? net.getRetryAfterMs() : 0);
+            EventLog.debug("page.loaded", "loaded {url} in {latencyMs} ms", "url", url, "latencyMs", latencyMs,
+                    "status", status);
+            scrollForLazyContent();
+            load = awaitBlocks(blockBy);
+        } catch (TimeoutException te) {
+            load = timedOut(te);
+        } catch (Exception e) {
+            load = PageLoad.failed(PageLoad.Failure.NAVIGATION_ERROR, firstLine(e.getMessage()));
+        }
+        if (net != null) status = net.getDocumentStatus();
+        if (!load.isOk() && status != null && (status == 429 || status == 503)) {
+            // a throttling page has no review blocks, but it is not the end of the list
+            load = PageLoad.failed(PageLoad.Failure.NAVIGATION_ERROR, "HTTP " + status);
+        }
+        if (!navigated) governor.onFailure();
+        if (load.isOk()) breaker.recordSuccess();
+        else if (load.getFailure().isTransient()) breaker.recordFailure();
+        return load;
+    }
+
+    /**
+     * Finish a page whose navigation was started by the {@link Prefetcher}: it has had the whole
+     * extraction of the previous page to load, so only the lazy-loading scroll remains. Its
+     * governor token was taken when the prefetch started; the load time and HTTP status come
+     * from the tab's navigation timing (the CDP monitor watches the other tab) and are fed back
+     * like in {@link #fetchBlocks}.
+     */
+    private PageLoad awaitPrefetched(String url, By blockBy) {
+        CircuitBreaker breaker = CircuitBreaker.forUrl(url);
+        RateGovernor governor = RateGovernor.forUrl(url);
+        pagesLoaded++;
+        PageLoad load;
+        try {
+            scrollForLazyContent();
+            load = awaitBlocks(blockBy);
+        } catch (TimeoutException te) {
+            load = timedOut(te);
+        } catch (Exception e) {
+            load = PageLoad.failed(PageLoad.Failure.NAVIGATION_ERROR, firstLine(e.getMessage()));
+        }
+        long[] timing = navigationTiming();
+        Integer status = timing != null && timing[1] > 0 ? (int) timing[1] : null;
+        if (timing != null) {
+            governor.onResponse(timing[0], status, 0);
+            EventLog.debug("page.loaded", "loaded {url} in {latencyMs} ms", "url", url, "latencyMs", timing[0],
+                    "status", status, "prefetched", true);
+        } else {
+            governor.onFailure();
+        }
+        if (!load.isOk() && status != null && (status == 429 || status == 503)) {
+            load = PageLoad.failed(PageLoad.Failure.NAVIGATION_ERROR, "HTTP " + status);
+        }
+        if (load.isOk()) breaker.recordSuccess();
+        else if (load.getFailure().isTransient()) breaker.recordFailure();
+        return load;
+    }
+
+    /** HTTP status of the current tab's last navigation, null if unknown. */
+    private Integer navigationStatus() {
+        long[] timing = navigationTiming();
+        return timing != null && timing[1] > 0 ? (int) timing[1] : null;
+    }
+
+    /**
+     * Load time (ms) and HTTP status (0 if unknown) of the current tab's last navigation, or
+     * null if it has none.
+     */
+    private long[] navigationTiming() {
+        try {
+            Object r = ((JavascriptExecutor) driver).executeScript(
+                    "const n = performance.getEntriesByType('navigation')[0];"
+                    + "return n ? [Math.round(n.duration || (performance.now() - n.startTime)), n.responseStatus || 0] : null;");
+            if (!(r instanceof List) || ((List<?>) r).size() < 2) return null;
+            List<?> v = (List<?>) r;
+            return new long[]{((Number) v.get(0)).longValue(), ((Number) v.get(1)).longValue()};
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private PageLoad awaitBlocks(By blockBy) {
+        WebDriverWait w = new WebDriverWait(driver, Duration.ofSeconds(15));
+        w.until(ExpectedConditions.presenceOfAllElementsLocatedBy(blockBy));
+        return PageLoad.ok(driver.findElements(blockBy));
+    }
+
+    private PageLoad timedOut(TimeoutException te) {
+        return documentComplete()
+                ? PageLoad.failed(PageLoad.Failure.ZERO_BLOCKS, null)
+                : PageLoad.failed(PageLoad.Failure.TIMEOUT, firstLine(te.getMessage()));
+    }
+
+    /**
+     * CDP network monitor for this driver, attached on first use (null without DevTools).
+     */
+    protected NetworkMonitor networkMonitor() {
+        if (!monitorAttached) {
+            monitor = NetworkMonitor.attach(driver);
+            monitorAttached = true;
+        }
+        return monitor;
+    }
+
+    private boolean documentComplete() {
+        try {
+            return "complete".equals(((JavascriptExecutor) driver).executeScript("return document.readyState"));
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private long retryBaseMs() {
+        return Math.max(1000, pageDelayMs);
+    }
+
+    private static String firstLine(String msg) {
+        if (msg == null) return null;
+        int nl = msg.indexOf('\n');
+        return nl > 0 ? msg.substring(0, nl) : msg;
+    }
+
+    private int paginateNextLink(SelectorConfig cfg, String startUrl, Pagination pagination, String blockSel,
+                                 String logPrefix, PageVisitor visitor) {
+        By blockBy = cfg.by(blockSel);
+        By nextBy = cfg.by(pagination.getNextLinkSelector());
+        Set<String> visitedUrls = new HashSet<>();
+        String pageUrl = startUrl;
+        int visited = 0;
+        for (int page = 1; page <= maxPages && pageUrl != null && visitedUrls.add(pageUrl) && !cancelled(); page++) {
+            // the next link lives on this page, so a failed page is retried in place
+            PageLoad load = fetchWithRetry(pageUrl, blockBy);
+            if (!load.isOk()) {
+                EventLog.info("page.empty", "{source}: no review blocks found at {url} with selector {selector}: {load}",
+                        "source", logPrefix, "url", pageUrl, "selector", blockSel, "load", load.toString());
+                break;
+            }
+            visited++;
+            if (!visitor.visit(load.getBlocks(), pageUrl, page)) break;
+
+            pageUrl = safeFindElement(nextBy, 2)
+                    .map(e -> e.getAttribute("href"))
+                    .filter(h -> !h.isBlank())
+                    .orElse(null);
+        }
+        return visited;
+    }
+
+    /**
+     * Load-more / infinite-scroll: one page load, then repeatedly click the load-more control
+     * (or scroll to the bottom when there is none) and extract only the newly appended blocks.
+     * Extracted blocks are tagged with a marker attribute, so later rounds query only untagged ones.
+     */
+    private int paginateLoadMore(SelectorConfig cfg, String startUrl, Pagination pagination, String blockSel,
+                                 String logPrefix, PageVisitor visitor) {
+        By freshBy = cfg.by(Pagination.unseen(blockSel));
+        String moreSel = pagination.getLoadMoreSelector();
+        By moreBy = moreSel != null ? cfg.by(moreSel) : null;
+        JavascriptExecutor js = (JavascriptExecutor) driver;
+
+        PageLoad first = fetchWithRetry(startUrl, freshBy);
+        if (!first.isOk()) {
+            EventLog.info("page.empty", "{source}: no review blocks found at {url} with selector {selector}: {load}",
+                    "source", logPrefix, "url", startUrl, "selector", blockSel, "load", first.toString());
+            return 0;
+        }
+        int rounds = 0;
+        for (int round = 1; round <= maxPages && !cancelled(); round++) {
+            List<WebElement> blocks = round == 1 ? first.getBlocks() : safeFindElements(freshBy, 10);
+            if (blocks.isEmpty()) break;
+            boolean marked = markSeen(js, blocks, logPrefix);
+            rounds++;
+            if (!visitor.visit(blocks, startUrl, round) || !marked) break;
+
+            // each click or scroll fetches the next batch from the host, so it is paced like a page load
+            RateGovernor.forUrl(startUrl).acquire();
+            if (moreBy != null) {
+                Optional<WebElement> more = safeFindElement(moreBy, 2);
+                if (more.isEmpty()) break;
+                try {
+                    js.executeScript("arguments[0].scrollIntoView({block: 'center'}); arguments[0].click();", more.get());
+                } catch (Exception e) {
+                    break;
+                }
+            } else {
+                try {
+                    js.executeScript("window.scrollTo(0, document.body.scrollHeight);");
+                } catch (Exception e) {
+                    break;
+                }
+            }
+        }
+        return rounds;
+    }
+
+    private boolean markSeen(JavascriptExecutor js, List<WebElement> blocks, String logPrefix) {
+        try {
+            js.executeScript("for (const e of arguments[0]) e.setAttribute('" + Pagination.SEEN_ATTR + "', '1');", blocks);
+            return true;
+        } catch (Exception e) {
+            EventLog.warn("loadmore.mark_failed", "{source}: could not mark extracted blocks: {error}",
+                    "source", logPrefix, "error", e.getMessage());
+            return false;
+        }
+    }
+
+    /** Interval at which the page height is checked while lazy content loads. */
+    private static final long SETTLE_POLL_MS = 250;
+
+    /**
+     * Scroll to the bottom to trigger lazy loading and wait until the page stops growing: its
+     * height unchanged over two polls, or pageDelayMs at most. A page that renders at once costs
+     * half a second rather than the whole render wait.
+     */
+    private void scrollForLazyContent() {
+        JavascriptExecutor js = (JavascriptExecutor) driver;
+        String scroll = "window.scrollTo(0, document.body.scrollHeight); return document.body.scrollHeight;";
+        long deadline = System.currentTimeMillis() + pageDelayMs;
+        try {
+            Object height = js.executeScript(scroll);
+            int still = 0;
+            while (still < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(Math.min(SETTLE_POLL_MS, Math.max(1, deadline - System.currentTimeMillis())));
+                Object now = js.executeScript(scroll);
+                still = Objects.equals(now, height) ? still + 1 : 0;
+                height = now;
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        } catch (Exception ignored) {}
+    }
+
+    /**
+     * Cooperative cancellation: orchestrators cancel a product by interrupting its thread.
+     */
+    protected static boolean cancelled() {
+        return Thread.currentThread().isInterrupted();
+    }
+
+    protected static void sleepQuietly(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     protected boolean dateInRange(LocalDate d, LocalDate start, LocalDate end) {
         if (d == null) return false;
         return (!d.isBefore(start)) && (!d.isAfter(end));
     }
-
-    protected String dedupeKey(LocalDate date, String reviewText) {
-        String text = reviewText == null ? "" : reviewText.trim();
-        return (date != null ? date.toString() : "") + "|" + (text.length()>120 ? text.substring(0,120) : text);
-    }
 }
@@ -0,0 +1,78 @@
+package com.example.reviewscraper.scraper;
+
+import com.example.reviewscraper.util.EventLog;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-host circuit breaker shared by every scraper in the process.
+ *
+ * After {@link #FAILURE_THRESHOLD} consecutive transient failures the circuit opens and callers
+ * of {@link #awaitPermission()} wait out a cooldown (doubling on every re-open, capped) instead of
+ * hammering a host that is struggling or blocking us. The first request after the cooldown is
+ * the probe: success closes the circuit, failure re-opens it.
+ */
+public class CircuitBreaker {
+
+    static final int FAILURE_THRESHOLD = 5;
+    private static final long BASE_COOLDOWN_MS = 30_000;
+    private static final long MAX_COOLDOWN_MS = 10 * 60_000;
+
+    private static final Map<String, CircuitBreaker> HOSTS = new ConcurrentHashMap<>();
+
+    private final String host;
+    private int consecutiveFailures;
+    private int opens;
+    private long openUntil;
+
+    private CircuitBreaker(String host) {
+        this.host = host;
+    }
+
+    public static CircuitBreaker forUrl(String url) {
+        String host;
+        try {
+            host = URI.create(url).getHost();
+        } catch (Exception e) {
+            host = null;
+        }
+        return HOSTS.computeIfAbsent(host != null ? host : "", CircuitBreaker::new);
+    }
+
+    /**
+     * Block while the circuit is open. Interruption ends the wait early.
+     */
+    public void awaitPermission() {
+        long wait;
+        synchronized (this) {
+            wait = openUntil - System.currentTimeMillis();
+        }
+        if (wait > 0) {
+            EventLog.info("circuit.wait", "Circuit open for {host}, waiting {waitMs} ms", "host", host, "waitMs", wait);
+            BaseScraper.sleepQuietly(wait);
+        }
+    }
+
+    public synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+        opens = 0;
+        openUntil = 0;
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        if (consecutiveFailures >= FAILURE_THRESHOLD) {
+            long cooldown = Math.min(MAX_COOLDOWN_MS, BASE_COOLDOWN_MS << Math.min(10, opens));
+            opens++;
+            openUntil = System.currentTimeMillis() + cooldown;
+            // half-open: one more failure after the cooldown re-opens immediately
+            consecutiveFailures = FAILURE_THRESHOLD - 1;
+        }
+    }
+
+    public synchronized boolean isOpen() {
+        return System.currentTimeMillis() < openUntil;
+    }
+}
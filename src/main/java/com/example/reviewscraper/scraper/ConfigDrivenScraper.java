@@ -0,0 +1,367 @@
+package com.example.reviewscraper.scraper;
+
+import com.example.reviewscraper.browser.NetworkMonitor;
+import com.example.reviewscraper.dedupe.Hash128;
+import com.example.reviewscraper.dedupe.LongPairSet;
+import com.example.reviewscraper.dedupe.SeenReviews;
+import com.example.reviewscraper.model.Review;
+import com.example.reviewscraper.util.DateUtils;
+import com.example.reviewscraper.util.EventLog;
+import com.example.reviewscraper.util.SelectorConfig;
+import com.example.reviewscraper.util.SelectorRegistry;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Scraper for any source described by a selector config (resources/config/&lt;source&gt;_selectors.json
+ * or the same file in the config dir). The config holds everything source-specific:
+ *
+ * <ul>
+ *   <li>{@code source}, {@code label}: value of extra.source and the log prefix</li>
+ *   <li>{@code searchUrlTemplate}, {@code productLink}: how to find the product from a company name
+ *       (a company given as an http(s) URL is used as the product page directly)</li>
+ *   <li>{@code ensureReviewsPath} and the {@code urls} block: how a product URL becomes its reviews URL
+ *       ({@code reviewsUrlPattern} regex that marks an URL as already being a reviews page,
+ *       {@code redirectMarkers} for searches that land on the product itself, {@code alternates}
+ *       of {"from", "to"} path rewrites tried when the first URL yields no reviews)</li>
+ *   <li>field selectors ({@code reviewBlock}, {@code title}, {@code body}, {@code date},
+ *       {@code rating}, {@code reviewer}, {@code dateAttrPrefer}, {@code ratingAttrPrefer})</li>
+ *   <li>{@code pagination}, see {@link Pagination}</li>
+ *   <li>full text (used with {@link #setFullText}): {@code expandSelector} for the "Read more"
+ *       controls inside a block, clicked all at once per page ({@link FullText}); {@code detailLink}
+ *       and {@code detailBody} for bodies that stay truncated, whose text is then read from the
+ *       review's own page ({@link DetailFetcher})</li>
+ *   <li>{@code api} (optional): the site's own review API, see {@link ApiCapture}; when its JSON
+ *       responses are captured for a page the review blocks are not read, otherwise they are. Not used
+ *       with prefetch on query pagination, where responses of the page loading ahead cannot be told
+ *       apart from the current page's</li>
+ * </ul>
+ */
+public class ConfigDrivenScraper extends BaseScraper {
+
+    /** How long a page waits for captured API bodies still being read before it falls back to the DOM. */
+    private static final long API_WAIT_MS = 2000;
+
+    private final String configName;
+
+    public ConfigDrivenScraper(WebDriver driver, int maxPages, long delayMs, String configName) throws Exception {
+        super(driver, maxPages, delayMs);
+        this.configName = configName;
+        SelectorRegistry.get(configName); // fail fast on a missing or invalid config
+    }
+
+    /**
+     * Config file name for a source as given on the command line, e.g. "g2" -> "g2_selectors.json".
+     */
+    public static String configName(String source) {
+        return source + "_selectors.json";
+    }
+
+    @Override
+    public List<Review> scrape(String companyOrUrl, LocalDate start, LocalDate end) throws Exception {
+        // current plan; a hot-reloaded config applies from the next scrape on
+        SelectorConfig cfg = SelectorRegistry.get(configName);
+        Pagination pagination = Pagination.from(cfg);
+        String source = Optional.ofNullable(cfg.getString("source"))
+                .orElse(configName.replace("_selectors.json", ""));
+        String label = Optional.ofNullable(cfg.getString("label")).orElse(source);
+        JsonObject urls = object(cfg.getJson(), "urls");
+
+        List<Review> out = new ArrayList<>();
+        // set when a page holds reviews newer than the range: not stale, the range starts further on
+        AtomicBoolean beforeRange = new AtomicBoolean();
+        LongPairSet seen = SeenReviews.forScrape();
+        Hash128 hasher = new Hash128();
+
+        String productUrl = companyOrUrl.startsWith("http://") || companyOrUrl.startsWith("https://")
+                ? companyOrUrl
+                : findProduct(cfg, urls, companyOrUrl, label);
+        if (productUrl == null) return out;
+
+        List<String> candidates = reviewsUrls(cfg, urls, productUrl);
+        String productPage = candidates.get(0);
+        EventLog.info("product.resolved", "{source}: reviews URL {url}", "source", label, "url", productPage,
+                "fallbacks", candidates.size() > 1 ? String.join(" ", candidates.subList(1, candidates.size())) : null);
+
+        String reviewBlockSel = cfg.getString("reviewBlock");
+        String titleSel = cfg.getString("title");
+        String bodySel = cfg.getString("body");
+        String dateSel = cfg.getString("date");
+        String ratingSel = cfg.getString("rating");
+        String reviewerSel = cfg.getString("reviewer");
+        String expandSel = isFullText() ? cfg.getString("expandSelector") : null;
+        String detailLinkSel = isFullText() ? cfg.getString("detailLink") : null;
+        String detailBodySel = isFullText() ? cfg.getString("detailBody") : null;
+        Function<WebElement, String> href = e -> e.getAttribute("href");
+
+        Function<WebElement, String> text = attrOrText(null);
+        Function<WebElement, String> dateReader = attrOrText(cfg.getString("dateAttrPrefer"));
+        Function<WebElement, String> ratingText = ratingReader(cfg.getString("ratingAttrPrefer"));
+
+        // final checks shared by DOM and API extraction; API reviews arrive on the CDP thread
+        Consumer<Review> keep = r -> {
+            String rawDate = r.getDate();
+            LocalDate parsed = DateUtils.parse(rawDate);
+            if (parsed != null && parsed.isAfter(end)) beforeRange.set(true);
+            if (parsed != null && !dateInRange(parsed, start, end)) return;
+            r.setDate(parsed != null ? parsed.toString() : rawDate);
+            r.getExtra().put("rawDate", rawDate);
+            synchronized (out) {
+                if (!SeenReviews.addNew(seen, hasher, SeenReviews.scope(source, productPage), r)) return;
+                r.getExtra().put("productPage", productPage);
+                r.getExtra().put("source", source);
+                accept(out, r);
+            }
+        };
+
+        ApiCapture configured = ApiCapture.from(cfg, label, keep);
+        // with prefetch the next page loads while this one is read, so its API responses would count for this page
+        boolean prefetching = isPrefetch() && pagination.getType() == Pagination.Type.QUERY;
+        if (configured != null && prefetching) {
+            EventLog.info("api.prefetch", "{source}: prefetch is on, extracting reviews from the page instead of the API",
+                    "source", label);
+        }
+        ApiCapture api = prefetching ? null : configured;
+        NetworkMonitor monitor = api != null ? networkMonitor() : null;
+        if (api != null && monitor == null) {
+            EventLog.info("api.unavailable", "{source}: no DevTools session, extracting reviews from the page", "source", label);
+        }
+        if (monitor != null) monitor.addBodyCapture(api::matches, api);
+
+        PageVisitor extract = (blocks, pageUrl, page) -> {
+            if (monitor != null) {
+                // the page's review API call has usually landed by now; if it did, the blocks are redundant
+                monitor.awaitBodies(API_WAIT_MS);
+                int responses = api.takeResponses();
+                if (responses > 0) {
+                    EventLog.debug("page.api", "{source}: page {page} read from {responses} API responses",
+                            "source", label, "page", page, "url", pageUrl, "responses", responses);
+                    return true;
+                }
+            }
+            if (expandSel != null) {
+                int expanded = FullText.expand((JavascriptExecutor) driver, blocks, expandSel, label);
+                if (expanded > 0) {
+                    EventLog.debug("page.expanded", "{source}: expanded {expanded} truncated reviews on page {page}",
+                            "source", label, "page", page, "url", pageUrl, "expanded", expanded);
+                }
+            }
+            // a page's reviews are kept together, after any detail texts have been filled in
+            List<Review> pageReviews = new ArrayList<>();
+            List<String> detailUrls = new ArrayList<>();
+            for (WebElement block : blocks) {
+                try {
+                    Review r = new Review();
+
+                    // each field tries its selector alternatives, historically best first
+                    r.setTitle(field(cfg, block, "title", titleSel, text, BaseScraper::notBlank));
+                    r.setReview(field(cfg, block, "body", bodySel, text, BaseScraper::notBlank));
+
+                    // date: prefer attribute if specified, otherwise text; only a parseable date is a hit
+                    String rawDate = field(cfg, block, "date", dateSel, dateReader, v -> DateUtils.parse(v) != null);
+                    LocalDate parsed = DateUtils.parse(rawDate);
+                    if (parsed != null && !dateInRange(parsed, start, end)) {
+                        if (parsed.isAfter(end)) beforeRange.set(true);
+                        continue;
+                    }
+                    r.setDate(rawDate);
+
+                    r.setReviewer(field(cfg, block, "reviewer", reviewerSel, text, BaseScraper::notBlank));
+
+                    // rating: prefer configured attribute (e.g., aria-label), then data-rating, then text
+                    r.setRating(parseRating(field(cfg, block, "rating", ratingSel, ratingText,
+                            v -> parseRating(v) != null)));
+
+                    r.getExtra().put("sourceUrl", pageUrl);
+                    String detail = null;
+                    if (detailLinkSel != null && detailBodySel != null && FullText.looksTruncated(r.getReview())) {
+                        detail = field(cfg, block, "detailLink", detailLinkSel, href, BaseScraper::notBlank);
+                    }
+                    pageReviews.add(r);
+                    detailUrls.add(detail);
+                } catch (Exception ex) {
+                    EventLog.warn("block.error", "{source}: error parsing block: {error}",
+                            "source", label, "url", pageUrl, "error", ex.getMessage());
+                }
+            }
+            List<String> wanted = new ArrayList<>();
+            for (String u : detailUrls) {
+                if (u != null) wanted.add(u);
+            }
+            Map<String, String> details = wanted.isEmpty() ? Map.of()
+                    : DetailFetcher.fetch((JavascriptExecutor) driver, pageUrl, wanted, detailBodySel, label);
+            for (int i = 0; i < pageReviews.size(); i++) {
+                Review r = pageReviews.get(i);
+                String full = detailUrls.get(i) != null ? details.get(detailUrls.get(i)) : null;
+                if (full != null) {
+                    r.setReview(full);
+                    r.getExtra().put("detailUrl", detailUrls.get(i));
+                }
+                try {
+                    keep.accept(r);
+                } catch (Exception ex) {
+                    EventLog.warn("block.error", "{source}: error parsing block: {error}",
+                            "source", label, "url", pageUrl, "error", ex.getMessage());
+                }
+            }
+            return true;
+        };
+
+        // pages that add nothing: duplicates, or past the start of the range on a newest-first listing
+        int staleLimit = getStalePageLimit();
+        int[] stalePages = {0};
+        PageVisitor visitor = (blocks, pageUrl, page) -> {
+            EventLog.debug("page.blocks", "{source}: {blocks} review blocks on page {page}",
+                    "source", label, "page", page, "url", pageUrl, "blocks", blocks.size());
+            int before;
+            synchronized (out) {
+                before = out.size();
+            }
+            beforeRange.set(false);
+            boolean more = extract.visit(blocks, pageUrl, page);
+            synchronized (out) {
+                stalePages[0] = out.size() > before || beforeRange.get() ? 0 : stalePages[0] + 1;
+            }
+            if (staleLimit > 0 && stalePages[0] >= staleLimit) {
+                EventLog.info("product.stale", "{source}: {pages} pages in a row without new reviews, stopping at page {page}",
+                        "source", label, "pages", stalePages[0], "page", page, "url", pageUrl);
+                return false;
+            }
+            return more;
+        };
+
+        try {
+            for (String reviewsUrl : candidates) {
+                if (paginate(cfg, reviewsUrl, pagination, reviewBlockSel, label, visitor) > 0 || cancelled()) break;
+            }
+        } finally {
+            if (monitor != null) {
+                monitor.awaitBodies(API_WAIT_MS);
+                monitor.removeBodyCapture(api);
+            }
+            cfg.saveStats();
+        }
+        return out;
+    }
+
+    /**
+     * Search for the product and return the href of the first product link, or the current URL
+     * if the search redirected straight to a product page.
+     */
+    private String findProduct(SelectorConfig cfg, JsonObject urls, String company, String label) {
+        String template = cfg.getString("searchUrlTemplate");
+        String productLinkSel = cfg.getString("productLink");
+        if (template == null || productLinkSel == null) {
+            EventLog.warn("search.unconfigured", "{source}: config has no searchUrlTemplate/productLink; pass the product URL instead",
+                    "source", label);
+            return null;
+        }
+        String searchUrl = template.replace("{company}",
+                java.net.URLEncoder.encode(company, java.nio.charset.StandardCharsets.UTF_8));
+        RateGovernor.forUrl(searchUrl).acquire();
+        driver.get(searchUrl);
+
+        List<WebElement> links = safeFindElements(cfg.by(productLinkSel), 10);
+        if (EventLog.isEnabled(EventLog.Level.DEBUG)) {
+            // extra WebDriver round trips, only paid for when debugging
+            EventLog.debug("search.results", "{source}: {links} product links at {url}",
+                    "source", label, "url", searchUrl, "current", driver.getCurrentUrl(), "title", driver.getTitle(),
+                    "links", links.size());
+            for (int i = 0; i < Math.min(6, links.size()); i++) {
+                try {
+                    EventLog.debug("search.link", "{source}: link {index} {href}", "source", label, "index", i,
+                            "href", links.get(i).getAttribute("href"), "text", links.get(i).getText());
+                } catch (Exception ignored) {}
+            }
+        }
+        if (links.isEmpty()) {
+            String current = driver.getCurrentUrl();
+            for (String marker : strings(urls, "redirectMarkers")) {
+                if (current != null && current.contains(marker)) {
+                    EventLog.info("search.redirected", "{source}: search redirected to product page {url}",
+                            "source", label, "url", current);
+                    return current;
+                }
+            }
+            EventLog.info("search.no_results", "{source}: no product links found for: {company} using selector: {selector}",
+                    "source", label, "company", company, "selector", productLinkSel);
+            return null;
+        }
+        String href = links.get(0).getAttribute("href");
+        if (href == null || href.isBlank()) {
+            EventLog.info("search.no_href", "{source}: product link had no href", "source", label);
+            return null;
+        }
+        return href;
+    }
+
+    /**
+     * Reviews URL for a product URL, followed by fallbacks from the "alternates" rewrites.
+     */
+    static List<String> reviewsUrls(SelectorConfig cfg, JsonObject urls, String productUrl) {
+        List<String> result = new ArrayList<>();
+        String suffix = cfg.getString("ensureReviewsPath");
+        String pattern = string(urls, "reviewsUrlPattern");
+        boolean isReviews = suffix == null
+                || (pattern != null ? Pattern.compile(pattern).matcher(productUrl).find() : productUrl.endsWith(suffix));
+        if (isReviews) {
+            result.add(productUrl);
+            return result;
+        }
+        for (JsonElement el : array(urls, "alternates")) {
+            if (!el.isJsonObject()) continue;
+            String from = string(el.getAsJsonObject(), "from");
+            String to = string(el.getAsJsonObject(), "to");
+            if (from != null && to != null && productUrl.contains(from)) {
+                // the page as-is first, the rewritten one if it has no reviews
+                result.add(productUrl);
+                result.add(productUrl.replaceFirst(Pattern.quote(from), to));
+                return result;
+            }
+        }
+        String base = productUrl.endsWith("/") ? productUrl.substring(0, productUrl.length() - 1) : productUrl;
+        result.add(base + (suffix.startsWith("/") ? suffix : "/" + suffix));
+        return result;
+    }
+
+    private String field(SelectorConfig cfg, WebElement block, String field, String selector,
+                         Function<WebElement, String> reader, Predicate<String> valid) {
+        return selector == null ? null : extractField(cfg, block, field, selector, reader, valid);
+    }
+
+    private static JsonObject object(JsonObject o, String key) {
+        JsonElement e = o.get(key);
+        return e != null && e.isJsonObject() ? e.getAsJsonObject() : new JsonObject();
+    }
+
+    private static List<JsonElement> array(JsonObject o, String key) {
+        JsonElement e = o.get(key);
+        List<JsonElement> list = new ArrayList<>();
+        if (e != null && e.isJsonArray()) e.getAsJsonArray().forEach(list::add);
+        return list;
+    }
+
+    private static List<String> strings(JsonObject o, String key) {
+        List<String> list = new ArrayList<>();
+        for (JsonElement e : array(o, key)) {
+            if (e.isJsonPrimitive()) list.add(e.getAsString());
+        }
+        return list;
+    }
+
+    private static String string(JsonObject o, String key) {
+        JsonElement e = o.get(key);
+        return e != null && e.isJsonPrimitive() && !e.getAsString().isBlank() ? e.getAsString() : null;
+    }
+}
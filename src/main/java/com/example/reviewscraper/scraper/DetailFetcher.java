@@ -0,0 +1,216 @@
+package com.example.reviewscraper.scraper;
+
+import com.example.reviewscraper.util.EventLog;
+import com.example.reviewscraper.util.FieldNormalizer;
+import org.openqa.selenium.JavascriptExecutor;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Full text of reviews whose listing entry only links to the review's own page.
+ *
+ * The detail pages of one listing page are fetched as one batch from inside that page: a single
+ * asynchronous script runs {@code fetch()} with the browser's cookies, at most
+ * {@link #setConcurrency concurrency} requests at a time, parses each response with DOMParser and
+ * returns the text of the config's {@code detailBody} selector. Only same-origin links are
+ * fetched. The batch goes out in rounds of at most {@code concurrency} URLs, each URL taking one
+ * token from the host's {@link RateGovernor} first; the script reports every response's status,
+ * latency and Retry-After, which are fed back to the governor and the host's
+ * {@link CircuitBreaker} like a page load's, so a 429 slows the rounds that follow.
+ *
+ * Texts are cached on disk ({@code ~/.review-scraper/details}, one file per URL), so a review is
+ * fetched once across runs and re-crawls of a product cost no detail requests at all.
+ */
+public final class DetailFetcher {
+
+    /** The script gives up on what is still in flight after this, well inside the script timeout. */
+    static final long BATCH_TIMEOUT_MS = 20_000;
+    static final long FETCH_TIMEOUT_MS = 10_000;
+
+    private static final String FETCH_SCRIPT =
+            "const urls = arguments[0], sel = arguments[1], limit = arguments[2], fetchMs = arguments[3], batchMs = arguments[4];"
+            + "const done = arguments[arguments.length - 1];"
+            + "const out = new Array(urls.length).fill(null);"
+            + "let next = 0, finished = false, deadline;"
+            + "const finish = () => { if (!finished) { finished = true; clearTimeout(deadline); done(out); } };"
+            + "deadline = setTimeout(finish, batchMs);"
+            + "async function worker() {"
+            + "  while (next < urls.length && !finished) {"
+            + "    const i = next++;"
+            + "    const ctl = new AbortController();"
+            + "    const t = setTimeout(() => ctl.abort(), fetchMs);"
+            + "    const started = Date.now();"
+            + "    const res = {status: 0, text: null, retryAfter: null, ms: 0};"
+            + "    out[i] = res;"
+            + "    try {"
+            + "      const r = await fetch(urls[i], {credentials: 'include', signal: ctl.signal});"
+            + "      res.status = r.status;"
+            + "      res.retryAfter = r.headers.get('Retry-After');"
+            + "      if (r.ok) {"
+            + "        const doc = new DOMParser().parseFromString(await r.text(), 'text/html');"
+            + "        const el = doc.querySelector(sel);"
+            + "        if (el) res.text = el.textContent;"
+            + "      }"
+            + "    } catch (e) {} finally { clearTimeout(t); res.ms = Date.now() - started; }"
+            + "  }"
+            + "}"
+            + "Promise.all(Array.from({length: Math.min(limit, urls.length)}, worker)).then(finish, finish);";
+
+    private static volatile int concurrency = 4;
+    private static volatile Path cacheDir = Path.of(System.getProperty("user.home"), ".review-scraper", "details");
+
+    private DetailFetcher() {}
+
+    /**
+     * Detail requests in flight per page (default 4).
+     */
+    public static void setConcurrency(int n) {
+        concurrency = Math.max(1, n);
+    }
+
+    /**
+     * Where fetched texts are kept; null disables the cache.
+     */
+    public static void setCacheDir(Path dir) {
+        cacheDir = dir;
+    }
+
+    /**
+     * Full texts for {@code urls}, from the cache or fetched from within the page the driver is on.
+     * @param pageUrl the listing page (only links on its origin are fetched)
+     * @return url -> normalized text; URLs that could not be fetched are missing
+     */
+    static Map<String, String> fetch(JavascriptExecutor js, String pageUrl, List<String> urls, String bodySelector,
+                                     String logPrefix) {
+        Map<String, String> texts = new HashMap<>();
+        List<String> misses = new ArrayList<>();
+        for (String url : urls) {
+            if (texts.containsKey(url) || misses.contains(url)) continue;
+            String cached = cached(url);
+            if (cached != null) texts.put(url, cached);
+            else if (sameOrigin(pageUrl, url)) misses.add(url);
+        }
+        if (misses.isEmpty()) return texts;
+
+        RateGovernor governor = RateGovernor.forUrl(pageUrl);
+        CircuitBreaker breaker = CircuitBreaker.forUrl(pageUrl);
+        long started = System.nanoTime();
+        int fetched = 0;
+        int round = concurrency;
+        for (int from = 0; from < misses.size() && !BaseScraper.cancelled(); from += round) {
+            List<String> batch = misses.subList(from, Math.min(misses.size(), from + round));
+            breaker.awaitPermission();
+            for (int i = 0; i < batch.size(); i++) governor.acquire();
+            Object result;
+            try {
+                result = js.executeAsyncScript(FETCH_SCRIPT, batch, bodySelector, batch.size(), FETCH_TIMEOUT_MS, BATCH_TIMEOUT_MS);
+            } catch (Exception e) {
+                EventLog.warn("fulltext.detail_failed", "{source}: detail fetch failed: {error}",
+                        "source", logPrefix, "url", pageUrl, "error", e.getMessage());
+                break;
+            }
+            if (!(result instanceof List)) continue;
+            List<?> responses = (List<?>) result;
+            for (int i = 0; i < batch.size() && i < responses.size(); i++) {
+                if (!(responses.get(i) instanceof Map)) continue; // not started before the batch timed out
+                Map<?, ?> res = (Map<?, ?>) responses.get(i);
+                int status = number(res.get("status")).intValue();
+                long ms = number(res.get("ms")).longValue();
+                if (status == 0) {
+                    // network error or timeout
+                    governor.onFailure();
+                    breaker.recordFailure();
+                    continue;
+                }
+                governor.onResponse(ms, status, retryAfterMs(res.get("retryAfter")));
+                if (status == 429 || status == 503) {
+                    breaker.recordFailure();
+                    continue;
+                }
+                breaker.recordSuccess();
+                if (!(res.get("text") instanceof String)) continue;
+                String text = FieldNormalizer.text((String) res.get("text"));
+                if (text == null || text.isBlank()) continue;
+                texts.put(batch.get(i), text);
+                store(batch.get(i), text);
+                fetched++;
+            }
+        }
+        EventLog.debug("fulltext.details", "{source}: fetched {fetched}/{requested} detail pages in {ms} ms",
+                "source", logPrefix, "url", pageUrl, "fetched", fetched, "requested", misses.size(),
+                "ms", (System.nanoTime() - started) / 1_000_000);
+        return texts;
+    }
+
+    private static Number number(Object o) {
+        return o instanceof Number ? (Number) o : 0;
+    }
+
+    /** Retry-After in seconds; the HTTP-date form is left to the governor's own backoff. */
+    private static long retryAfterMs(Object header) {
+        if (!(header instanceof String)) return 0;
+        try {
+            return Math.max(0, Long.parseLong(((String) header).trim())) * 1000;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    static boolean sameOrigin(String pageUrl, String url) {
+        try {
+            URI a = URI.create(pageUrl);
+            URI b = URI.create(url);
+            return a.getScheme() != null && a.getScheme().equalsIgnoreCase(b.getScheme())
+                    && a.getHost() != null && a.getHost().equalsIgnoreCase(b.getHost())
+                    && a.getPort() == b.getPort();
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static String cached(String url) {
+        Path dir = cacheDir;
+        if (dir == null) return null;
+        try {
+            Path f = dir.resolve(fileName(url));
+            return Files.exists(f) ? Files.readString(f, StandardCharsets.UTF_8) : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static void store(String url, String text) {
+        Path dir = cacheDir;
+        if (dir == null) return;
+        try {
+            Files.createDirectories(dir);
+            Path tmp = Files.createTempFile(dir, "detail-", ".tmp");
+            Files.writeString(tmp, text, StandardCharsets.UTF_8);
+            Files.move(tmp, dir.resolve(fileName(url)), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            EventLog.debug("fulltext.cache_failed", "detail cache write failed: {error}", "error", e.getMessage());
+        }
+    }
+
+    private static String fileName(String url) {
+        try {
+            byte[] d = MessageDigest.getInstance("SHA-256").digest(url.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(40);
+            for (int i = 0; i < 16; i++) sb.append(String.format("%02x", d[i]));
+            return sb.append(".txt").toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.reviewscraper.scraper;
+
+import com.example.reviewscraper.util.EventLog;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebElement;
+
+import java.util.List;
+
+/**
+ * In-page expansion of truncated review bodies: every "Read more" control (the config's
+ * {@code expandSelector}) inside a page's review blocks is clicked by one asynchronous script,
+ * which then waits until the DOM has been quiet for {@link #QUIET_MS} (bodies fetched by the
+ * click have arrived) or {@link #MAX_WAIT_MS} passed. One WebDriver round trip per page,
+ * however many reviews were cut. Controls that are real links to another page are left alone;
+ * those reviews go to the {@link DetailFetcher}.
+ */
+final class FullText {
+
+    static final long QUIET_MS = 150;
+    static final long MAX_WAIT_MS = 3000;
+
+    private static final String EXPAND_SCRIPT =
+            "const blocks = arguments[0], sel = arguments[1], quiet = arguments[2], max = arguments[3];"
+            + "const done = arguments[arguments.length - 1];"
+            + "let last = Date.now(), clicked = 0;"
+            + "const obs = new MutationObserver(() => { last = Date.now(); });"
+            + "obs.observe(document.body, {subtree: true, childList: true, characterData: true, attributes: true});"
+            + "for (const b of blocks) {"
+            + "  for (const e of b.querySelectorAll(sel)) {"
+            + "    const href = e.tagName === 'A' ? (e.getAttribute('href') || '') : '';"
+            + "    if (href && !/^(#|javascript:)/i.test(href)) continue;"
+            + "    try { e.click(); clicked++; } catch (x) {}"
+            + "  }"
+            + "}"
+            + "if (!clicked) { obs.disconnect(); done(0); return; }"
+            + "const start = Date.now();"
+            + "const timer = setInterval(() => {"
+            + "  const now = Date.now();"
+            + "  if (now - last >= quiet || now - start >= max) { clearInterval(timer); obs.disconnect(); done(clicked); }"
+            + "}, 25);";
+
+    private FullText() {}
+
+    /**
+     * Click the expand controls of {@code blocks} and wait for the expanded text.
+     * @return number of controls clicked (0 also when the script failed)
+     */
+    static int expand(JavascriptExecutor js, List<WebElement> blocks, String expandSelector, String logPrefix) {
+        if (blocks.isEmpty()) return 0;
+        try {
+            Object n = js.executeAsyncScript(EXPAND_SCRIPT, blocks, expandSelector, QUIET_MS, MAX_WAIT_MS);
+            return n instanceof Number ? ((Number) n).intValue() : 0;
+        } catch (Exception e) {
+            EventLog.warn("fulltext.expand_failed", "{source}: could not expand truncated reviews: {error}",
+                    "source", logPrefix, "error", e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Whether a body as read from the listing still looks cut off: it ends in an ellipsis or a
+     * leftover "read more" label.
+     */
+    static boolean looksTruncated(String body) {
+        if (body == null) return false;
+        String s = body.strip();
+        if (s.endsWith("…") || s.endsWith("...")) return true;
+        String tail = s.length() > 20 ? s.substring(s.length() - 20) : s;
+        tail = tail.toLowerCase();
+        return tail.endsWith("read more") || tail.endsWith("show more") || tail.endsWith("see more")
+                || tail.endsWith("read full review");
+    }
+}
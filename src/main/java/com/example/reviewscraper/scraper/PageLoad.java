@@ -0,0 +1,56 @@
+package com.example.reviewscraper.scraper;
+
+import org.openqa.selenium.WebElement;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result of loading one listing page: either its review blocks or a classified failure.
+ */
+public class PageLoad {
+
+    public enum Failure {
+        /** page or block wait timed out while the document was still loading */
+        TIMEOUT,
+        /** page loaded completely but the block selector matched nothing */
+        ZERO_BLOCKS,
+        /** driver.get / script execution failed (network error, crashed tab, ...) */
+        NAVIGATION_ERROR;
+
+        /**
+         * Zero blocks on a fully loaded page is usually the end of the list, not a glitch.
+         */
+        public boolean isTransient() {
+            return this != ZERO_BLOCKS;
+        }
+    }
+
+    private final List<WebElement> blocks;
+    private final Failure failure;
+    private final String detail;
+
+    private PageLoad(List<WebElement> blocks, Failure failure, String detail) {
+        this.blocks = blocks;
+        this.failure = failure;
+        this.detail = detail;
+    }
+
+    public static PageLoad ok(List<WebElement> blocks) {
+        return new PageLoad(blocks, null, null);
+    }
+
+    public static PageLoad failed(Failure failure, String detail) {
+        return new PageLoad(Collections.emptyList(), failure, detail);
+    }
+
+    public boolean isOk() { return failure == null; }
+    public List<WebElement> getBlocks() { return blocks; }
+    public Failure getFailure() { return failure; }
+    public String getDetail() { return detail; }
+
+    @Override
+    public String toString() {
+        return isOk() ? blocks.size() + " blocks" : failure + (detail != null ? " (" + detail + ")" : "");
+    }
+}
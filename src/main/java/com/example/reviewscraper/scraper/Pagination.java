@@ -0,0 +1,101 @@
+package com.example.reviewscraper.scraper;
+
+import com.example.reviewscraper.util.SelectorConfig;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.util.Locale;
+
+/**
+ * Pagination settings from the "pagination" block of a selector config.
+ *
+ * <ul>
+ *   <li>{@code query}: reload the page with {@code ?<pageParam>=N} (default)</li>
+ *   <li>{@code nextLink}: follow the href of {@code nextLinkSelector} until it disappears</li>
+ *   <li>{@code loadMore}: stay on one page, click {@code loadMoreSelector} (or scroll, for
+ *       infinite scroll) and extract only the blocks appended since the last round</li>
+ * </ul>
+ */
+public class Pagination {
+
+    public enum Type { QUERY, NEXT_LINK, LOAD_MORE }
+
+    /** Attribute set on blocks that were already extracted in load-more mode. */
+    static final String SEEN_ATTR = "data-rs-seen";
+
+    private final Type type;
+    private final String pageParam;
+    private final String nextLinkSelector;
+    private final String loadMoreSelector;
+
+    public Pagination(Type type, String pageParam, String nextLinkSelector, String loadMoreSelector) {
+        this.type = type;
+        this.pageParam = pageParam != null ? pageParam : "page";
+        this.nextLinkSelector = nextLinkSelector;
+        this.loadMoreSelector = loadMoreSelector;
+    }
+
+    public static Pagination from(SelectorConfig cfg) {
+        JsonElement el = cfg.getJson().get("pagination");
+        if (el == null || !el.isJsonObject()) {
+            return new Pagination(Type.QUERY, "page", null, null);
+        }
+        JsonObject p = el.getAsJsonObject();
+        String nextSel = str(p, "nextLinkSelector");
+        String moreSel = str(p, "loadMoreSelector");
+        Type type = parseType(str(p, "type"));
+        if (type == Type.NEXT_LINK && nextSel == null) {
+            System.err.println("pagination.type=nextLink without nextLinkSelector, falling back to query");
+            type = Type.QUERY;
+        }
+        return new Pagination(type, str(p, "pageParam"), nextSel, moreSel);
+    }
+
+    static Type parseType(String s) {
+        if (s == null) return Type.QUERY;
+        switch (s.toLowerCase(Locale.ROOT).replace("-", "").replace("_", "")) {
+            case "nextlink":
+            case "next":
+                return Type.NEXT_LINK;
+            case "loadmore":
+            case "infinitescroll":
+            case "infinite":
+            case "scroll":
+                return Type.LOAD_MORE;
+            default:
+                return Type.QUERY;
+        }
+    }
+
+    public Type getType() { return type; }
+    public String getNextLinkSelector() { return nextLinkSelector; }
+    public String getLoadMoreSelector() { return loadMoreSelector; }
+
+    /**
+     * URL of page N for query pagination; page 1 is the base URL itself.
+     */
+    public String pageUrl(String baseUrl, int page) {
+        if (page <= 1) return baseUrl;
+        return baseUrl + (baseUrl.contains("?") ? "&" : "?") + pageParam + "=" + page;
+    }
+
+    /**
+     * Restrict every alternative of a compound selector to blocks not yet marked as seen,
+     * e.g. "div.review, article" -> "div.review:not([data-rs-seen]), article:not([data-rs-seen])".
+     */
+    static String unseen(String selector) {
+        StringBuilder sb = new StringBuilder(selector.length() + 48);
+        for (String part : SelectorConfig.split(selector)) {
+            if (sb.length() > 0) sb.append(", ");
+            sb.append(part).append(":not([").append(SEEN_ATTR).append("])");
+        }
+        return sb.toString();
+    }
+
+    private static String str(JsonObject o, String key) {
+        JsonElement e = o.get(key);
+        if (e == null || e.isJsonNull()) return null;
+        String s = e.getAsString();
+        return s.isBlank() ? null : s;
+    }
+}
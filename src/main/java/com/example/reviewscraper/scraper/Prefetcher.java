@@ -0,0 +1,132 @@
+package com.example.reviewscraper.scraper;
+
+import com.example.reviewscraper.util.EventLog;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WindowType;
+
+/**
+ * Loads the next listing page in a second tab of the same browser while the current page is
+ * being extracted, then swaps to it.
+ *
+ * The two tabs take turns: the spare tab is told to navigate via script (which returns at once,
+ * unlike {@code driver.get}), and {@link #take(String)} just switches to it. The tab the crawl
+ * started in is never closed, so the driver ends up where it began after {@link #close()}.
+ */
+class Prefetcher {
+
+    private final WebDriver driver;
+    private final String logPrefix;
+    private String home;
+    private String spare;
+    private String pendingUrl;
+    private boolean disabled;
+
+    Prefetcher(WebDriver driver, String logPrefix) {
+        this.driver = driver;
+        this.logPrefix = logPrefix;
+    }
+
+    /**
+     * Start loading {@code url} in the spare tab. Skipped (returns false) when the host's
+     * circuit is open or the rate governor has no token to spare right now: the page is then
+     * loaded the normal way when its turn comes.
+     */
+    boolean start(String url) {
+        if (disabled || pendingUrl != null) return false;
+        if (CircuitBreaker.forUrl(url).isOpen() || !RateGovernor.forUrl(url).tryAcquire()) return false;
+        String current = null;
+        try {
+            current = driver.getWindowHandle();
+            if (home == null) home = current;
+            if (spare == null) {
+                driver.switchTo().newWindow(WindowType.TAB);
+                spare = driver.getWindowHandle();
+            } else {
+                driver.switchTo().window(spare);
+            }
+            ((JavascriptExecutor) driver).executeScript("window.location.href = arguments[0];", url);
+            driver.switchTo().window(current);
+            pendingUrl = url;
+            return true;
+        } catch (Exception e) {
+            EventLog.warn("prefetch.disabled", "{source}: prefetch disabled: {error}", "source", logPrefix, "error", e.getMessage());
+            disabled = true;
+            switchQuietly(current);
+            return false;
+        }
+    }
+
+    /**
+     * Switch to the prefetched tab if it holds {@code url}.
+     * @return false if nothing (or another URL) was prefetched; the current tab is unchanged
+     */
+    boolean take(String url) {
+        if (pendingUrl == null || !pendingUrl.equals(url)) return false;
+        pendingUrl = null;
+        try {
+            String current = driver.getWindowHandle();
+            driver.switchTo().window(spare);
+            spare = current;
+            return true;
+        } catch (Exception e) {
+            EventLog.warn("prefetch.lost", "{source}: prefetched tab lost: {error}", "source", logPrefix, "error", e.getMessage());
+            disabled = true;
+            return false;
+        }
+    }
+
+    /**
+     * Whether the driver is on another tab than the one the crawl started in, which is the tab a
+     * CDP session attached before the first prefetch listens to.
+     */
+    boolean awayFromHome() {
+        if (home == null) return false;
+        try {
+            return !home.equals(driver.getWindowHandle());
+        } catch (Exception e) {
+            return true;
+        }
+    }
+
+    /**
+     * Stop a pending prefetch, e.g. when pagination ended before reaching that page.
+     */
+    void cancel() {
+        if (pendingUrl == null) return;
+        pendingUrl = null;
+        String current = null;
+        try {
+            current = driver.getWindowHandle();
+            driver.switchTo().window(spare);
+            ((JavascriptExecutor) driver).executeScript("window.stop(); window.location.href = 'about:blank';");
+        } catch (Exception ignored) {
+        } finally {
+            switchQuietly(current);
+        }
+    }
+
+    /**
+     * Cancel any pending load, close the spare tab and return to the tab the crawl started in.
+     */
+    void close() {
+        cancel();
+        if (spare == null) return;
+        try {
+            String current = driver.getWindowHandle();
+            driver.switchTo().window(current.equals(home) ? spare : current).close();
+        } catch (Exception e) {
+            EventLog.warn("prefetch.close_failed", "{source}: could not close prefetch tab: {error}",
+                    "source", logPrefix, "error", e.getMessage());
+        }
+        switchQuietly(home);
+        spare = null;
+    }
+
+    private void switchQuietly(String handle) {
+        if (handle == null) return;
+        try {
+            driver.switchTo().window(handle);
+        } catch (Exception ignored) {}
+    }
+}
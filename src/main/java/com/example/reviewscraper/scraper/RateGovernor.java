@@ -0,0 +1,145 @@
+package com.example.reviewscraper.scraper;
+
+import com.example.reviewscraper.util.EventLog;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-host request pacing shared by every scraper (and worker thread) in the process.
+ *
+ * Each host gets a token bucket whose rate adapts AIMD-style: every healthy response adds a
+ * fixed step, while a 429/503, a timeout or a latency spike well above the host's usual response
+ * time cuts the rate multiplicatively. The rate never exceeds the politeness ceiling
+ * ({@code -Dreviewscraper.maxRps}, default 1 request/s per host) and never drops below
+ * {@link #FLOOR_RPS}. A Retry-After header pauses the host for the requested time.
+ */
+public class RateGovernor {
+
+    static final double FLOOR_RPS = 0.05;
+    private static final double BURST = 2;
+    private static final double SLOW_FACTOR = 2.0;
+    private static final long SLOW_MIN_MS = 1000;
+
+    private static final Map<String, RateGovernor> HOSTS = new ConcurrentHashMap<>();
+    private static volatile double ceilingRps = Double.parseDouble(System.getProperty("reviewscraper.maxRps", "1"));
+
+    private final String host;
+    private double rate;
+    private double tokens = 1;
+    private long lastRefill = System.currentTimeMillis();
+    private long pausedUntil;
+    private long lastDecrease;
+    private double latencyEwma = -1;
+
+    private RateGovernor(String host) {
+        this.host = host;
+        this.rate = ceilingRps / 2;
+    }
+
+    public static RateGovernor forUrl(String url) {
+        String host;
+        try {
+            host = URI.create(url).getHost();
+        } catch (Exception e) {
+            host = null;
+        }
+        return HOSTS.computeIfAbsent(host != null ? host : "", RateGovernor::new);
+    }
+
+    /**
+     * Politeness ceiling in requests per second per host; applies to hosts already seen too.
+     */
+    public static void setCeiling(double rps) {
+        if (!(rps > 0)) throw new IllegalArgumentException("maxRps must be positive: " + rps);
+        ceilingRps = rps;
+        for (RateGovernor g : HOSTS.values()) {
+            synchronized (g) {
+                g.rate = Math.min(g.rate, rps);
+            }
+        }
+    }
+
+    public static double getCeiling() {
+        return ceilingRps;
+    }
+
+    /**
+     * Take one token, waiting for it if the bucket is empty or the host is paused. Waiters reserve
+     * their slot before sleeping, so concurrent callers are spaced out rather than released together.
+     * Interruption ends the wait early.
+     */
+    public void acquire() {
+        long wait;
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            tokens = Math.min(BURST, tokens + (now - lastRefill) * rate / 1000.0);
+            lastRefill = now;
+            tokens -= 1;
+            wait = tokens >= 0 ? 0 : (long) Math.ceil(-tokens * 1000.0 / rate);
+            wait = Math.max(wait, pausedUntil - now);
+        }
+        if (wait > 0) BaseScraper.sleepQuietly(wait);
+    }
+
+    /**
+     * Take a token only if one is available right now (for optional requests such as prefetches).
+     */
+    public synchronized boolean tryAcquire() {
+        long now = System.currentTimeMillis();
+        if (now < pausedUntil) return false;
+        tokens = Math.min(BURST, tokens + (now - lastRefill) * rate / 1000.0);
+        lastRefill = now;
+        if (tokens < 1) return false;
+        tokens -= 1;
+        return true;
+    }
+
+    /**
+     * Feed back one completed request.
+     * @param latencyMs time from navigation start until the page finished loading
+     * @param status HTTP status of the document if known (via CDP), else null
+     * @param retryAfterMs Retry-After sent with a 429/503, 0 if none
+     */
+    public synchronized void onResponse(long latencyMs, Integer status, long retryAfterMs) {
+        long now = System.currentTimeMillis();
+        if (status != null && (status == 429 || status == 503)) {
+            decrease(now, 0.5, "HTTP " + status);
+            if (retryAfterMs > 0) {
+                pausedUntil = Math.max(pausedUntil, now + retryAfterMs);
+                EventLog.info("rate.retry_after", "Rate governor: {host} asked us to wait {waitMs} ms",
+                        "host", host, "waitMs", retryAfterMs);
+            }
+            return;
+        }
+        boolean slow = latencyEwma > 0 && latencyMs > SLOW_FACTOR * latencyEwma && latencyMs > SLOW_MIN_MS;
+        latencyEwma = latencyEwma < 0 ? latencyMs : 0.8 * latencyEwma + 0.2 * latencyMs;
+        if (slow) {
+            decrease(now, 0.8, "latency " + latencyMs + " ms");
+        } else {
+            rate = Math.min(ceilingRps, rate + ceilingRps / 20);
+        }
+    }
+
+    /**
+     * A request that timed out or failed to navigate: treated as a sign of overload.
+     */
+    public synchronized void onFailure() {
+        decrease(System.currentTimeMillis(), 0.5, "failed request");
+    }
+
+    // at most one cut per current request interval, so a burst of bad responses from concurrent
+    // workers (all caused by the same overload) does not collapse the rate
+    private void decrease(long now, double factor, String reason) {
+        if (now - lastDecrease < 1000.0 / rate) return;
+        lastDecrease = now;
+        rate = Math.max(FLOOR_RPS, rate * factor);
+        EventLog.info("rate.decrease", "Rate governor: {host} slowed to {rps} req/s ({reason})",
+                "host", host, "rps", Math.round(rate * 100) / 100.0, "reason", reason);
+    }
+
+    public synchronized double getRate() {
+        return rate;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.reviewscraper.scraper;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Failed pages waiting for another attempt, ordered by when they become due.
+ * Each retry waits {@code baseMs * 2^(attempt-1)} (capped, with +-20% jitter).
+ */
+class RetryQueue {
+
+    static final int MAX_ATTEMPTS = 3;
+    private static final long MAX_BACKOFF_MS = 60_000;
+
+    static class Item {
+        final int page;
+        final String url;
+        int attempts;
+        PageLoad.Failure lastFailure;
+        long dueAt;
+
+        Item(int page, String url, PageLoad.Failure failure) {
+            this.page = page;
+            this.url = url;
+            this.attempts = 1;
+            this.lastFailure = failure;
+        }
+    }
+
+    private final long baseMs;
+    private final PriorityQueue<Item> queue = new PriorityQueue<>((a, b) -> Long.compare(a.dueAt, b.dueAt));
+
+    RetryQueue(long baseMs) {
+        this.baseMs = Math.max(1, baseMs);
+    }
+
+    /**
+     * Schedule another attempt; returns false once the item has used up its attempts.
+     */
+    boolean offer(Item item) {
+        if (item.attempts >= MAX_ATTEMPTS) return false;
+        item.dueAt = System.currentTimeMillis() + backoffMs(item.attempts);
+        queue.add(item);
+        return true;
+    }
+
+    long backoffMs(int attempts) {
+        long exp = Math.min(MAX_BACKOFF_MS, baseMs << Math.min(20, attempts - 1));
+        double jitter = 0.8 + 0.4 * ThreadLocalRandom.current().nextDouble();
+        return (long) (exp * jitter);
+    }
+
+    boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    Item poll() {
+        return queue.poll();
+    }
+}
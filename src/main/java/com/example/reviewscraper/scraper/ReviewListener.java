@@ -0,0 +1,11 @@
+package com.example.reviewscraper.scraper;
+
+import com.example.reviewscraper.model.Review;
+
+/**
+ * Callback invoked by scrapers for every accepted (in-range, de-duplicated) review,
+ * as soon as it is extracted rather than after the whole crawl finishes.
+ */
+public interface ReviewListener {
+    void onReview(Review review);
+}
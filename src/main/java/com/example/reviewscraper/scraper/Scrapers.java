@@ -0,0 +1,59 @@
+package com.example.reviewscraper.scraper;
+
+import com.example.reviewscraper.util.SelectorRegistry;
+import org.openqa.selenium.WebDriver;
+
+import java.net.URI;
+
+/**
+ * Creates the scraper for a source name as accepted on the command line.
+ * Any source with a {@code <source>_selectors.json} config (bundled or in the config dir) is
+ * supported through {@link ConfigDrivenScraper}.
+ */
+public class Scrapers {
+
+    private Scrapers() {}
+
+    public static boolean isSupported(String source) {
+        if (source == null || !source.matches("[a-z0-9_-]+")) return false;
+        return SelectorRegistry.exists(ConfigDrivenScraper.configName(canonical(source)));
+    }
+
+    /**
+     * @return the scraper, or null when the source is not supported
+     */
+    public static Scraper create(String source, WebDriver driver, int maxPages, long delayMs) throws Exception {
+        switch (canonical(source)) {
+            case "g2":
+                return new G2Scraper(driver, maxPages, delayMs);
+            case "capterra":
+                return new CapterraScraper(driver, maxPages, delayMs);
+            case "trustradius":
+                return new TrustRadiusScraper(driver, maxPages, delayMs);
+            default:
+                if (!isSupported(source)) return null;
+                return new ConfigDrivenScraper(driver, maxPages, delayMs, ConfigDrivenScraper.configName(canonical(source)));
+        }
+    }
+
+    /**
+     * The site's home page (origin of its search URL), e.g. for warming a browser cache; null if unknown.
+     */
+    public static String homePage(String source) {
+        try {
+            String search = SelectorRegistry.get(ConfigDrivenScraper.configName(canonical(source))).getString("searchUrlTemplate");
+            if (search == null) return null;
+            URI uri = URI.create(search.replace("{company}", "x"));
+            return uri.getScheme() + "://" + uri.getAuthority() + "/";
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Source name with aliases resolved ("trust" -> "trustradius").
+     */
+    public static String canonical(String source) {
+        return "trust".equals(source) ? "trustradius" : source;
+    }
+}
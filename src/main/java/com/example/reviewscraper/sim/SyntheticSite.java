@@ -0,0 +1,325 @@
+package com.example.reviewscraper.sim;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local HTTP server that serves synthetic review listings shaped like the G2 and Capterra pages
+ * the shipped selector configs expect, for load-testing the scrapers without touching real sites.
+ *
+ * <pre>
+ *   /g2/products/&lt;product&gt;/reviews?page=N
+ *   /capterra/reviews/&lt;product&gt;?page=N
+ * </pre>
+ *
+ * Content is deterministic per (seed, product, page): {@code reviewsPerPage} reviews on each of
+ * {@code pages} pages, then an empty listing. Dates fall in [start, end], uniformly or skewed
+ * towards recent ones. Each response can be delayed on the server ({@code latencyMs}) and its
+ * blocks rendered by script after {@code renderMs}; a fraction {@code errorRate} of requests
+ * fails with a 503 (and Retry-After: 1) or a 500 page without reviews.
+ */
+public class SyntheticSite implements AutoCloseable {
+
+    public enum DateSpread { UNIFORM, RECENT }
+
+    private static final String[] WORDS = ("easy fast reliable support team pricing setup dashboard report "
+            + "integration workflow onboarding mobile export search automation billing update feature "
+            + "interface customer value training data sync performance").split(" ");
+    private static final String[] NAMES = {"Alex", "Priya", "Jordan", "Mei", "Sam", "Lucia", "Omar", "Nina", "Tom", "Ava"};
+    private static final DateTimeFormatter DISPLAY = DateTimeFormatter.ofPattern("MMMM d, yyyy", Locale.ENGLISH);
+
+    private final int port;
+    private HttpServer server;
+    private ExecutorService handlers;
+
+    private int reviewsPerPage = 25;
+    private int pages = 5;
+    private LocalDate start = LocalDate.of(2024, 1, 1);
+    private LocalDate end = LocalDate.of(2024, 12, 31);
+    private DateSpread spread = DateSpread.UNIFORM;
+    private long latencyMs;
+    private long renderMs;
+    private double errorRate;
+    private long seed = 42;
+    private int assetKb;
+    private volatile byte[] script;
+    private volatile byte[] stylesheet;
+
+    private final AtomicLong served = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong assetRequests = new AtomicLong();
+    private final AtomicLong assetBytes = new AtomicLong();
+    private final Map<String, List<Long>> requestTimes = new ConcurrentHashMap<>();
+
+    /**
+     * @param port port to listen on (127.0.0.1 only); 0 picks a free one
+     */
+    public SyntheticSite(int port) {
+        this.port = port;
+    }
+
+    public void setReviewsPerPage(int reviewsPerPage) { this.reviewsPerPage = reviewsPerPage; }
+    public void setPages(int pages) { this.pages = pages; }
+    public void setDateRange(LocalDate start, LocalDate end) { this.start = start; this.end = end; }
+    public void setDateSpread(DateSpread spread) { this.spread = spread; }
+    public void setLatencyMs(long latencyMs) { this.latencyMs = latencyMs; }
+    public void setRenderMs(long renderMs) { this.renderMs = renderMs; }
+    public void setErrorRate(double errorRate) { this.errorRate = errorRate; }
+    public void setSeed(long seed) { this.seed = seed; }
+    /** Size of the script and of the stylesheet every page links (cacheable for an hour); 0 = none. */
+    public void setAssetKb(int assetKb) { this.assetKb = assetKb; }
+
+    public int getReviewsPerPage() { return reviewsPerPage; }
+    public int getPages() { return pages; }
+
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        // Chrome opens several connections per tab; don't let server-side latency serialize them
+        handlers = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "synthetic-site");
+            t.setDaemon(true);
+            return t;
+        });
+        server.setExecutor(handlers);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    @Override
+    public void close() {
+        if (server != null) server.stop(0);
+        if (handlers != null) handlers.shutdownNow();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Reviews URL of a product for a source ("g2" or "capterra").
+     */
+    public String productUrl(String source, String product) {
+        switch (source) {
+            case "g2": return baseUrl() + "/g2/products/" + product + "/reviews";
+            case "capterra": return baseUrl() + "/capterra/reviews/" + product;
+            default: throw new IllegalArgumentException("synthetic site has no " + source + " pages");
+        }
+    }
+
+    /** Listing pages served, including injected errors. */
+    public long getServed() { return served.get(); }
+
+    public long getErrors() { return errors.get(); }
+    /** Requests for /static assets and the bytes sent for them. */
+    public long getAssetRequests() { return assetRequests.get(); }
+    public long getAssetBytes() { return assetBytes.get(); }
+
+    /**
+     * Arrival times ({@link System#nanoTime()}) of the listing requests for one product, in order.
+     */
+    public List<Long> requestTimes(String source, String product) {
+        List<Long> times = requestTimes.get(source + "/" + product);
+        if (times == null) return new ArrayList<>();
+        synchronized (times) {
+            return new ArrayList<>(times);
+        }
+    }
+
+    private void handle(HttpExchange ex) throws IOException {
+        try {
+            String path = ex.getRequestURI().getPath();
+            if (path.startsWith("/static/")) {
+                asset(ex, path);
+                return;
+            }
+            String[] parts = path.split("/");
+            String source;
+            String product;
+            if (parts.length == 5 && parts[1].equals("g2") && parts[2].equals("products") && parts[4].equals("reviews")) {
+                source = "g2";
+                product = parts[3];
+            } else if (parts.length == 4 && parts[1].equals("capterra") && parts[2].equals("reviews")) {
+                source = "capterra";
+                product = parts[3];
+            } else {
+                send(ex, 404, "<html><body>not found</body></html>");
+                return;
+            }
+            List<Long> times = requestTimes.computeIfAbsent(source + "/" + product, k -> new ArrayList<>());
+            synchronized (times) {
+                times.add(System.nanoTime());
+            }
+            served.incrementAndGet();
+            if (latencyMs > 0) Thread.sleep(latencyMs);
+
+            double roll = ThreadLocalRandom.current().nextDouble();
+            if (roll < errorRate) {
+                errors.incrementAndGet();
+                if (roll < errorRate / 2) {
+                    ex.getResponseHeaders().set("Retry-After", "1");
+                    send(ex, 503, "<html><body><h1>Service unavailable</h1></body></html>");
+                } else {
+                    send(ex, 500, "<html><body><h1>Something went wrong</h1></body></html>");
+                }
+                return;
+            }
+            int page = page(ex.getRequestURI().getRawQuery());
+            send(ex, 200, page(source, product, page));
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        } finally {
+            ex.close();
+        }
+    }
+
+    private String page(String source, String product, int page) {
+        StringBuilder blocks = new StringBuilder(reviewsPerPage * 600);
+        if (page >= 1 && page <= pages) {
+            SplittableRandom rnd = new SplittableRandom(seed * 31 + product.hashCode() * 1_000_003L + page);
+            for (int i = 0; i < reviewsPerPage; i++) {
+                LocalDate date = date(rnd);
+                String title = product + " review " + page + "." + (i + 1) + ": " + words(rnd, 3);
+                String body = words(rnd, 20 + rnd.nextInt(60));
+                String reviewer = NAMES[rnd.nextInt(NAMES.length)] + " " + (char) ('A' + rnd.nextInt(26)) + ".";
+                int halfStars = 2 + rnd.nextInt(9);
+                if (source.equals("g2")) {
+                    g2Block(blocks, title, body, date, halfStars / 2.0, reviewer);
+                } else {
+                    capterraBlock(blocks, title, body, date, halfStars / 2.0, reviewer);
+                }
+            }
+        }
+        String listing = source.equals("g2")
+                ? "<div class=\"reviews-list\">" + blocks + "</div>"
+                : "<div id=\"reviews\">" + blocks + "</div>";
+        StringBuilder html = new StringBuilder(listing.length() + 512);
+        html.append("<!DOCTYPE html><html><head><meta charset=\"utf-8\"><title>")
+                .append(product).append(" reviews - page ").append(page).append("</title>");
+        if (assetKb > 0) {
+            html.append("<link rel=\"stylesheet\" href=\"/static/app.css\"><script src=\"/static/app.js\"></script>");
+        }
+        html.append("</head><body>");
+        if (renderMs > 0) {
+            // client-side rendering: the blocks only exist after the script has run
+            html.append("<div id=\"app\"></div><template id=\"listing\">").append(listing).append("</template>")
+                    .append("<script>setTimeout(function(){document.getElementById('app')")
+                    .append(".appendChild(document.getElementById('listing').content.cloneNode(true));},")
+                    .append(renderMs).append(");</script>");
+        } else {
+            html.append(listing);
+        }
+        return html.append("</body></html>").toString();
+    }
+
+    private static void g2Block(StringBuilder sb, String title, String body, LocalDate date, double rating, String reviewer) {
+        sb.append("<div class=\"paper-review\"><h3>").append(title).append("</h3>")
+                .append("<div class=\"rating\" aria-label=\"").append(rating).append(" out of 5 stars\"></div>")
+                .append("<time datetime=\"").append(date).append("\">").append(date.format(DISPLAY)).append("</time>")
+                .append("<div class=\"review__body\">").append(body).append("</div>")
+                .append("<div class=\"consumer-name\">").append(reviewer).append("</div></div>");
+    }
+
+    private static void capterraBlock(StringBuilder sb, String title, String body, LocalDate date, double rating, String reviewer) {
+        sb.append("<div class=\"card\"><h3 class=\"review-title\">").append(title).append("</h3>")
+                .append("<span data-rating=\"").append(rating).append("\" aria-label=\"").append(rating)
+                .append(" stars\"></span>")
+                .append("<time datetime=\"").append(date).append("\">").append(date.format(DISPLAY)).append("</time>")
+                .append("<div class=\"review-body\">").append(body).append("</div>")
+                .append("<div class=\"consumer-name\">").append(reviewer).append("</div></div>");
+    }
+
+    private void asset(HttpExchange ex, String path) throws IOException {
+        byte[] body;
+        String type;
+        if (path.equals("/static/app.js")) {
+            if (script == null) script = padded("window.__reviews = true;\n", "// ", assetKb);
+            body = script;
+            type = "application/javascript";
+        } else if (path.equals("/static/app.css")) {
+            if (stylesheet == null) stylesheet = padded(".paper-review { margin: 1em 0; }\n", "/* */", assetKb);
+            body = stylesheet;
+            type = "text/css";
+        } else {
+            send(ex, 404, "<html><body>not found</body></html>");
+            return;
+        }
+        assetRequests.incrementAndGet();
+        String etag = "\"" + assetKb + "\"";
+        ex.getResponseHeaders().set("Cache-Control", "public, max-age=3600");
+        ex.getResponseHeaders().set("ETag", etag);
+        ex.getResponseHeaders().set("Content-Type", type);
+        if (etag.equals(ex.getRequestHeaders().getFirst("If-None-Match"))) {
+            ex.sendResponseHeaders(304, -1);
+            return;
+        }
+        assetBytes.addAndGet(body.length);
+        ex.sendResponseHeaders(200, body.length);
+        try (OutputStream os = ex.getResponseBody()) {
+            os.write(body);
+        }
+    }
+
+    private static byte[] padded(String content, String filler, int kb) {
+        StringBuilder sb = new StringBuilder(kb * 1024 + content.length());
+        sb.append(content);
+        while (sb.length() < kb * 1024) sb.append(filler).append(sb.length()).append('\n');
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private LocalDate date(SplittableRandom rnd) {
+        long days = end.toEpochDay() - start.toEpochDay();
+        double u = rnd.nextDouble();
+        // RECENT: density rises towards the end of the range, like a product gaining users
+        double f = spread == DateSpread.RECENT ? Math.sqrt(u) : u;
+        return start.plusDays(Math.min(days, (long) (f * (days + 1))));
+    }
+
+    private static String words(SplittableRandom rnd, int n) {
+        StringBuilder sb = new StringBuilder(n * 8);
+        for (int i = 0; i < n; i++) {
+            if (i > 0) sb.append(' ');
+            sb.append(WORDS[rnd.nextInt(WORDS.length)]);
+        }
+        return sb.toString();
+    }
+
+    private static int page(String query) {
+        if (query == null) return 1;
+        for (String kv : query.split("&")) {
+            if (kv.startsWith("page=")) {
+                try {
+                    return Integer.parseInt(kv.substring(5));
+                } catch (NumberFormatException e) {
+                    return 1;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static void send(HttpExchange ex, int status, String html) throws IOException {
+        byte[] bytes = html.getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+        ex.sendResponseHeaders(status, bytes.length);
+        try (OutputStream os = ex.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.reviewscraper.stats;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Fixed-size HyperLogLog sketch for approximate distinct counts.
+ *
+ * With the default precision of 12 (4096 one-byte registers) the standard error
+ * is about 1.6%, regardless of how many values are offered.
+ */
+public class HyperLogLog {
+
+    private final int p;
+    private final int m;
+    private final byte[] registers;
+
+    public HyperLogLog() {
+        this(12);
+    }
+
+    public HyperLogLog(int precision) {
+        if (precision < 4 || precision > 16) {
+            throw new IllegalArgumentException("precision must be between 4 and 16: " + precision);
+        }
+        this.p = precision;
+        this.m = 1 << precision;
+        this.registers = new byte[m];
+    }
+
+    public void offer(String value) {
+        if (value == null || value.isEmpty()) return;
+        offerHash(hash64(value));
+    }
+
+    public void offerHash(long hash) {
+        int idx = (int) (hash >>> (64 - p));
+        long rest = hash << p;
+        // position of the leftmost 1-bit in the remaining bits, capped when they are all zero
+        int rank = rest == 0 ? (64 - p + 1) : Long.numberOfLeadingZeros(rest) + 1;
+        if (rank > registers[idx]) registers[idx] = (byte) rank;
+    }
+
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (byte r : registers) {
+            sum += 1.0 / (1L << r);
+            if (r == 0) zeros++;
+        }
+        double alpha;
+        switch (m) {
+            case 16: alpha = 0.673; break;
+            case 32: alpha = 0.697; break;
+            case 64: alpha = 0.709; break;
+            default: alpha = 0.7213 / (1 + 1.079 / m);
+        }
+        double raw = alpha * m * m / sum;
+        if (raw <= 2.5 * m && zeros > 0) {
+            // small-range correction: linear counting
+            return Math.round(m * Math.log((double) m / zeros));
+        }
+        return Math.round(raw);
+    }
+
+    /**
+     * FNV-1a over UTF-8 bytes followed by a 64-bit finalizer so that short,
+     * similar strings (reviewer names) spread over all register bits.
+     */
+    static long hash64(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= (b & 0xff);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
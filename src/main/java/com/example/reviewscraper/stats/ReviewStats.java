@@ -0,0 +1,126 @@
+package com.example.reviewscraper.stats;
+
+import com.example.reviewscraper.model.Review;
+import com.example.reviewscraper.scraper.ReviewListener;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Running aggregate statistics over the reviews of a crawl.
+ *
+ * Registered as a {@link ReviewListener} so it is updated while the scrape loop runs.
+ * Memory stays constant in the number of reviews: a fixed rating histogram,
+ * Welford mean/variance, one counter per month and per source, and HyperLogLog
+ * sketches for distinct reviewers.
+ */
+public class ReviewStats implements ReviewListener {
+    private static final Gson G = new GsonBuilder().setPrettyPrinting().create();
+
+    // half-star buckets 0.0, 0.5, ... 5.0
+    private static final int BUCKETS = 11;
+
+    private long total;
+    private long rated;
+    private double mean;
+    private double m2;
+    private final long[] histogram = new long[BUCKETS];
+    private long ratingOutOfScale;
+    private long undated;
+    private final Map<String, Long> perMonth = new TreeMap<>();
+    private final Map<String, Long> perSource = new TreeMap<>();
+    private final HyperLogLog reviewers = new HyperLogLog();
+    private final Map<String, HyperLogLog> reviewersPerSource = new TreeMap<>();
+
+    @Override
+    public synchronized void onReview(Review r) {
+        total++;
+
+        Double rating = r.getRating();
+        if (rating != null && !rating.isNaN()) {
+            rated++;
+            double delta = rating - mean;
+            mean += delta / rated;
+            m2 += delta * (rating - mean);
+            if (rating >= 0 && rating <= 5.0) {
+                histogram[(int) Math.round(rating * 2)]++;
+            } else {
+                ratingOutOfScale++;
+            }
+        }
+
+        String date = r.getDate();
+        if (date != null && date.length() >= 7 && date.charAt(4) == '-') {
+            perMonth.merge(date.substring(0, 7), 1L, Long::sum);
+        } else {
+            undated++;
+        }
+
+        Object src = r.getExtra() != null ? r.getExtra().get("source") : null;
+        String source = src != null ? src.toString() : "unknown";
+        perSource.merge(source, 1L, Long::sum);
+
+        String reviewer = r.getReviewer();
+        if (reviewer != null && !reviewer.isBlank()) {
+            String norm = reviewer.trim().toLowerCase(Locale.ROOT);
+            reviewers.offer(norm);
+            reviewersPerSource.computeIfAbsent(source, k -> new HyperLogLog()).offer(norm);
+        }
+    }
+
+    public synchronized long getTotal() { return total; }
+
+    public synchronized double getMeanRating() { return rated == 0 ? Double.NaN : mean; }
+
+    public synchronized double getRatingVariance() { return rated < 2 ? Double.NaN : m2 / (rated - 1); }
+
+    public synchronized JsonObject toJson() {
+        JsonObject o = new JsonObject();
+        o.addProperty("reviews", total);
+        o.addProperty("undated", undated);
+
+        JsonObject rating = new JsonObject();
+        rating.addProperty("count", rated);
+        if (rated > 0) rating.addProperty("mean", mean);
+        if (rated > 1) {
+            double var = m2 / (rated - 1);
+            rating.addProperty("variance", var);
+            rating.addProperty("stddev", Math.sqrt(var));
+        }
+        JsonObject hist = new JsonObject();
+        for (int i = 0; i < BUCKETS; i++) {
+            if (histogram[i] > 0) hist.addProperty(String.valueOf(i / 2.0), histogram[i]);
+        }
+        rating.add("histogram", hist);
+        rating.addProperty("outOfScale", ratingOutOfScale);
+        o.add("rating", rating);
+
+        JsonObject months = new JsonObject();
+        perMonth.forEach(months::addProperty);
+        o.add("perMonth", months);
+
+        JsonObject sources = new JsonObject();
+        perSource.forEach(sources::addProperty);
+        o.add("perSource", sources);
+
+        JsonObject distinct = new JsonObject();
+        distinct.addProperty("all", reviewers.estimate());
+        reviewersPerSource.forEach((k, v) -> distinct.addProperty(k, v.estimate()));
+        o.add("distinctReviewersApprox", distinct);
+        return o;
+    }
+
+    public File write(String filename) throws Exception {
+        File f = new File(filename);
+        try (FileWriter fw = new FileWriter(f)) {
+            G.toJson(toJson(), fw);
+        }
+        return f;
+    }
+}
@@ -0,0 +1,284 @@
+package com.example.reviewscraper.util;
+
+import com.google.gson.JsonObject;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Structured, leveled event log for the scraping hot path.
+ *
+ * Callers pass an event name, a message template with {key} placeholders and the key/value
+ * pairs; nothing is formatted on the calling thread. Events below the level are dropped before
+ * any work, and diagnostics that need extra WebDriver calls should be guarded with
+ * {@link #isEnabled(Level)}. Accepted events go into a bounded ring buffer that a background
+ * thread drains: it appends one JSON object per line to the run's trace file and echoes INFO
+ * and above to the console (WARN/ERROR on stderr). When the buffer is full events are dropped
+ * and counted rather than blocking the scraper.
+ *
+ * Level: -Dreviewscraper.logLevel or logLevel= (default INFO). Trace file: -Dreviewscraper.trace
+ * or trace= ("off" disables it), default ~/.review-scraper/traces/run-&lt;time&gt;-&lt;pid&gt;.jsonl.
+ */
+public final class EventLog {
+
+    public enum Level { TRACE, DEBUG, INFO, WARN, ERROR }
+
+    private static final int CAPACITY = 8192;
+    private static final BlockingQueue<Event> RING = new ArrayBlockingQueue<>(CAPACITY);
+    private static final AtomicLong DROPPED = new AtomicLong();
+    /** Queued by {@link #shutdown()}: the writer stops once it has written everything before it. */
+    private static final Event STOP = new Event(Level.INFO, "log.stop", "", new Object[0]);
+
+    private static volatile Level level = parseLevel(System.getProperty("reviewscraper.logLevel", "INFO"));
+    private static volatile Path traceFile = defaultTraceFile(System.getProperty("reviewscraper.trace"));
+    private static Thread writer;
+
+    private EventLog() {}
+
+    private static final class Event {
+        final long ts = System.currentTimeMillis();
+        final String thread = Thread.currentThread().getName();
+        final Level level;
+        final String name;
+        final String template;
+        final Object[] fields;
+
+        Event(Level level, String name, String template, Object[] fields) {
+            this.level = level;
+            this.name = name;
+            this.template = template;
+            this.fields = fields;
+        }
+    }
+
+    public static void setLevel(Level l) {
+        level = l;
+    }
+
+    /**
+     * Trace file for this run; null disables the file (console echo stays).
+     */
+    public static void setTraceFile(Path file) {
+        traceFile = file;
+    }
+
+    public static Level parseLevel(String s) {
+        return Level.valueOf(s.trim().toUpperCase(Locale.ROOT));
+    }
+
+    public static boolean isEnabled(Level l) {
+        return l.compareTo(level) >= 0;
+    }
+
+    public static void debug(String event, String template, Object... fields) {
+        log(Level.DEBUG, event, template, fields);
+    }
+
+    public static void info(String event, String template, Object... fields) {
+        log(Level.INFO, event, template, fields);
+    }
+
+    public static void warn(String event, String template, Object... fields) {
+        log(Level.WARN, event, template, fields);
+    }
+
+    public static void error(String event, String template, Object... fields) {
+        log(Level.ERROR, event, template, fields);
+    }
+
+    /**
+     * @param fields alternating keys and values; values are formatted on the writer thread,
+     *               so pass immutable values (strings, numbers) rather than live objects
+     */
+    public static void log(Level l, String event, String template, Object... fields) {
+        if (!isEnabled(l)) return;
+        ensureWriter();
+        if (!RING.offer(new Event(l, event, template, fields))) {
+            DROPPED.incrementAndGet();
+        }
+    }
+
+    private static synchronized void ensureWriter() {
+        if (writer != null) return;
+        writer = new Thread(EventLog::drainLoop, "event-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(EventLog::shutdown, "event-log-flush"));
+    }
+
+    private static void drainLoop() {
+        List<Event> batch = new ArrayList<>(256);
+        BufferedWriter out = null;
+        Path openPath = null;
+        boolean stopping = false;
+        try {
+            while (!stopping) {
+                Event first = RING.poll(1, TimeUnit.SECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                RING.drainTo(batch, 255);
+                int stop = batch.indexOf(STOP);
+                if (stop >= 0) {
+                    batch.subList(stop, batch.size()).clear();
+                    stopping = true;
+                }
+                Path target = traceFile;
+                if (target != null && !target.equals(openPath)) {
+                    closeQuietly(out);
+                    out = open(target);
+                    openPath = out != null ? target : null;
+                }
+                try {
+                    write(batch, out);
+                    if ((stopping || RING.isEmpty()) && out != null) out.flush();
+                } catch (IOException e) {
+                    System.err.println("Trace file disabled: " + e.getMessage());
+                    closeQuietly(out);
+                    out = null;
+                    openPath = null;
+                    traceFile = null;
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeQuietly(out);
+        }
+    }
+
+    private static void write(List<Event> batch, BufferedWriter out) throws IOException {
+        long dropped = DROPPED.getAndSet(0);
+        if (dropped > 0) {
+            batch.add(new Event(Level.WARN, "log.dropped", "Event log buffer full, dropped {count} events",
+                    new Object[]{"count", dropped}));
+        }
+        for (Event e : batch) {
+            if (e.level.compareTo(Level.INFO) >= 0) {
+                String msg = render(e.template, e.fields);
+                if (e.level.compareTo(Level.WARN) >= 0) System.err.println(msg);
+                else System.out.println(msg);
+            }
+            if (out != null) {
+                out.write(toJson(e).toString());
+                out.newLine();
+            }
+        }
+    }
+
+    private static JsonObject toJson(Event e) {
+        JsonObject o = new JsonObject();
+        o.addProperty("ts", Instant.ofEpochMilli(e.ts).toString());
+        o.addProperty("level", e.level.name());
+        o.addProperty("event", e.name);
+        o.addProperty("thread", e.thread);
+        o.addProperty("msg", render(e.template, e.fields));
+        for (int i = 0; i + 1 < e.fields.length; i += 2) {
+            String key = String.valueOf(e.fields[i]);
+            Object v = e.fields[i + 1];
+            if (v == null) continue;
+            if (v instanceof Number) o.addProperty(key, (Number) v);
+            else if (v instanceof Boolean) o.addProperty(key, (Boolean) v);
+            else o.addProperty(key, String.valueOf(v));
+        }
+        return o;
+    }
+
+    /**
+     * Fill {key} placeholders of the template from the fields.
+     */
+    static String render(String template, Object[] fields) {
+        if (template == null) return "";
+        StringBuilder sb = new StringBuilder(template.length() + 32);
+        int i = 0;
+        while (i < template.length()) {
+            char c = template.charAt(i);
+            int close = c == '{' ? template.indexOf('}', i) : -1;
+            if (close < 0) {
+                sb.append(c);
+                i++;
+                continue;
+            }
+            String key = template.substring(i + 1, close);
+            Object v = field(fields, key);
+            sb.append(v != null || hasField(fields, key) ? String.valueOf(v) : template.substring(i, close + 1));
+            i = close + 1;
+        }
+        return sb.toString();
+    }
+
+    private static Object field(Object[] fields, String key) {
+        for (int i = 0; i + 1 < fields.length; i += 2) {
+            if (key.equals(fields[i])) return fields[i + 1];
+        }
+        return null;
+    }
+
+    private static boolean hasField(Object[] fields, String key) {
+        for (int i = 0; i + 1 < fields.length; i += 2) {
+            if (key.equals(fields[i])) return true;
+        }
+        return false;
+    }
+
+    private static BufferedWriter open(Path target) {
+        try {
+            if (target.getParent() != null) Files.createDirectories(target.getParent());
+            return Files.newBufferedWriter(target, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.err.println("Could not open trace file " + target + ": " + e.getMessage());
+            traceFile = null;
+            return null;
+        }
+    }
+
+    private static void closeQuietly(BufferedWriter out) {
+        if (out == null) return;
+        try { out.close(); } catch (IOException ignored) {}
+    }
+
+    private static void shutdown() {
+        Thread w;
+        synchronized (EventLog.class) {
+            w = writer;
+        }
+        if (w == null) return;
+        // queued behind everything logged so far; the writer is not interrupted, since that would
+        // close the trace file's (interruptible) channel in the middle of a write
+        try {
+            if (RING.offer(STOP, 2, TimeUnit.SECONDS)) w.join(3000);
+        } catch (InterruptedException ignored) {}
+    }
+
+    private static Path defaultTraceFile(String configured) {
+        if (configured != null && !configured.isBlank()) {
+            return "off".equalsIgnoreCase(configured) ? null : Paths.get(configured);
+        }
+        String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        return Paths.get(System.getProperty("user.home"), ".review-scraper", "traces",
+                "run-" + stamp + "-" + ProcessHandle.current().pid() + ".jsonl");
+    }
+
+    /**
+     * Resolve a trace= option: a path, or "off".
+     */
+    public static void configureTrace(String option) {
+        setTraceFile(defaultTraceFile(option));
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.reviewscraper.util;
+
+/**
+ * Single-pass, regex-free cleanup of scraped field values.
+ *
+ * {@link #text(String)} collapses whitespace (including NBSP and the other Unicode spaces sites
+ * use for layout), drops zero-width characters, and returns its argument unchanged when there is nothing to clean, so the
+ * common case allocates nothing. {@link #rating(String)} understands the shapes ratings come in
+ * ("4.5 out of 5 stars", "Rated 8/10", "90%", "★★★★☆", "4,5") and scales them to 5 points.
+ */
+public final class FieldNormalizer {
+
+    private static final double SCALE = 5.0;
+
+    private FieldNormalizer() {}
+
+    /**
+     * Trim and collapse whitespace: a run containing a line break becomes one '\n' (paragraphs
+     * survive), any other run one ' '. Zero-width characters are removed without separating
+     * the words around them.
+     * @return {@code s} itself if it was already clean, null for null
+     */
+    public static String text(String s) {
+        if (s == null) return null;
+        int n = s.length();
+        int dirty = firstDirty(s, n);
+        if (dirty < 0) return s;
+        // the clean prefix is copied in bulk; a space it ends with opens the run being collapsed
+        char[] buf = new char[n];
+        s.getChars(0, dirty, buf, 0);
+        int len = dirty;
+        int run = 0; // 0: none, 1: spaces, 2: spaces with a line break
+        if (len > 0 && (buf[len - 1] == ' ' || buf[len - 1] == '\n')) {
+            run = buf[--len] == '\n' ? 2 : 1;
+        }
+        for (int i = dirty; i < n; i++) {
+            char c = s.charAt(i);
+            if (isZeroWidth(c)) continue;
+            if (isSpace(c)) {
+                if (c == '\n' || c == '\r') run = 2;
+                else if (run == 0) run = 1;
+                continue;
+            }
+            if (run != 0 && len > 0) buf[len++] = run == 2 ? '\n' : ' ';
+            run = 0;
+            buf[len++] = c;
+        }
+        return new String(buf, 0, len);
+    }
+
+    /**
+     * Index of the first character that {@link #text(String)} would change, or -1.
+     */
+    private static int firstDirty(String s, int n) {
+        boolean prevSpace = true; // leading whitespace is dirty
+        for (int i = 0; i < n; i++) {
+            char c = s.charAt(i);
+            if (c > ' ' && c < '\u00A0') {
+                prevSpace = false;
+            } else if (c == ' ' || c == '\n') {
+                if (prevSpace) return i;
+                prevSpace = true;
+            } else if (isSpace(c) || isZeroWidth(c)) {
+                return i;
+            } else {
+                prevSpace = false;
+            }
+        }
+        return prevSpace && n > 0 ? n - 1 : -1;
+    }
+
+    static boolean isSpace(char c) {
+        if (c <= ' ') return c == ' ' || c == '\n' || c == '\t' || c == '\r' || c == '\f' || c == 0x0B;
+        switch (c) {
+            case '\u00A0': // NBSP
+            case '\u1680':
+            case '\u2028': case '\u2029':
+            case '\u202F': case '\u205F': case '\u3000':
+                return true;
+            default:
+                return c >= '\u2000' && c <= '\u200A';
+        }
+    }
+
+    /**
+     * Invisible characters that separate nothing: zero-width space, word joiner, BOM. ZWJ and
+     * ZWNJ are kept, emoji sequences and several scripts need them.
+     */
+    static boolean isZeroWidth(char c) {
+        return c == '\u200B' || c == '\u2060' || c == '\uFEFF';
+    }
+
+    /**
+     * Rating on a 5-point scale, or null if the text holds none.
+     *
+     * <ul>
+     *   <li>"x out of y", "x of y", "x/y": x scaled from y</li>
+     *   <li>"x%": percent of 5</li>
+     *   <li>star glyphs without a number: count of ★ (plus ½ for a half star)</li>
+     *   <li>a bare number: as is up to 5; above that read as out of 10, then out of 100</li>
+     * </ul>
+     * A decimal comma ("4,5") is accepted. Results are rounded to two decimals.
+     */
+    public static Double rating(String s) {
+        if (s == null) return null;
+        int n = s.length();
+        int i = 0;
+        int stars = 0;
+        boolean half = false;
+        while (i < n && !isDigit(s.charAt(i))) {
+            char c = s.charAt(i);
+            if (c == '\u2605') stars++;
+            else if (c == '\u00BD') half = true;
+            i++;
+        }
+        if (i == n) {
+            return stars > 0 || half ? Math.min(SCALE, stars + (half ? 0.5 : 0)) : null;
+        }
+        int end = numberEnd(s, i);
+        double value = number(s, i, end);
+        i = end;
+
+        // what follows the number decides its scale
+        int j = skipSpaces(s, i);
+        if (j < n && s.charAt(j) == '%') return round(value / 100 * SCALE);
+        double scale = 0;
+        int k = -1;
+        if (j < n && s.charAt(j) == '/') {
+            k = skipSpaces(s, j + 1);
+        } else if (startsWithIgnoreCase(s, j, "out of")) {
+            k = skipSpaces(s, j + 6);
+        } else if (startsWithIgnoreCase(s, j, "of ")) {
+            k = skipSpaces(s, j + 3);
+        }
+        if (k >= 0 && k < n && isDigit(s.charAt(k))) {
+            scale = number(s, k, numberEnd(s, k));
+        }
+        if (scale <= 0) {
+            if (value <= SCALE) return round(value);
+            scale = value <= 10 ? 10 : value <= 100 ? 100 : 0;
+            if (scale == 0) return null;
+        }
+        return round(Math.min(value, scale) / scale * SCALE);
+    }
+
+    /**
+     * End of the number starting at {@code i}: digits with at most one '.' or ',' decimal part.
+     */
+    private static int numberEnd(String s, int i) {
+        int n = s.length();
+        boolean fraction = false;
+        for (; i < n; i++) {
+            char c = s.charAt(i);
+            if (isDigit(c)) continue;
+            if ((c == '.' || c == ',') && !fraction && i + 1 < n && isDigit(s.charAt(i + 1))) {
+                fraction = true;
+                continue;
+            }
+            break;
+        }
+        return i;
+    }
+
+    private static double number(String s, int from, int to) {
+        long mantissa = 0;
+        long divisor = 1;
+        boolean fraction = false;
+        int digits = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (!isDigit(c)) {
+                fraction = true;
+            } else if (digits++ < 15) {
+                // beyond 15 significant digits it is not a rating anyway
+                mantissa = mantissa * 10 + (c - '0');
+                if (fraction) divisor *= 10;
+            }
+        }
+        return mantissa / (double) divisor;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static int skipSpaces(String s, int i) {
+        while (i < s.length() && (isSpace(s.charAt(i)) || isZeroWidth(s.charAt(i)))) i++;
+        return i;
+    }
+
+    private static boolean startsWithIgnoreCase(String s, int i, String prefix) {
+        return s.regionMatches(true, i, prefix, 0, prefix.length());
+    }
+
+    private static double round(double v) {
+        return Math.round(v * 100) / 100.0;
+    }
+}
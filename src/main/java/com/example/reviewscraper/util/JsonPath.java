@@ -0,0 +1,70 @@
+package com.example.reviewscraper.util;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+/**
+ * Minimal JSON path lookup for API response mapping: {@code $.data.reviews}, {@code user.name},
+ * {@code items[0].text}. Only member access and array indexes are supported.
+ */
+public final class JsonPath {
+
+    private JsonPath() {}
+
+    /**
+     * @return the element at {@code path}, or null if any step is missing
+     */
+    public static JsonElement get(JsonElement root, String path) {
+        if (root == null || path == null) return null;
+        String p = path.trim();
+        if (p.startsWith("$")) p = p.substring(1);
+        JsonElement cur = root;
+        int i = 0;
+        while (i < p.length() && cur != null) {
+            char c = p.charAt(i);
+            if (c == '.') {
+                i++;
+            } else if (c == '[') {
+                int close = p.indexOf(']', i);
+                if (close < 0) return null;
+                String idx = p.substring(i + 1, close).trim();
+                i = close + 1;
+                if (idx.startsWith("'") || idx.startsWith("\"")) {
+                    cur = member(cur, idx.substring(1, idx.length() - 1));
+                } else {
+                    if (!cur.isJsonArray()) return null;
+                    JsonArray arr = cur.getAsJsonArray();
+                    int n;
+                    try {
+                        n = Integer.parseInt(idx);
+                    } catch (NumberFormatException e) {
+                        return null;
+                    }
+                    if (n < 0) n += arr.size();
+                    cur = n >= 0 && n < arr.size() ? arr.get(n) : null;
+                }
+            } else {
+                int end = i;
+                while (end < p.length() && p.charAt(end) != '.' && p.charAt(end) != '[') end++;
+                cur = member(cur, p.substring(i, end));
+                i = end;
+            }
+        }
+        return cur == null || cur.isJsonNull() ? null : cur;
+    }
+
+    /**
+     * String value at {@code path} (numbers and booleans converted), or null.
+     */
+    public static String getString(JsonElement root, String path) {
+        JsonElement e = get(root, path);
+        return e != null && e.isJsonPrimitive() ? e.getAsString() : null;
+    }
+
+    private static JsonElement member(JsonElement e, String name) {
+        if (!e.isJsonObject()) return null;
+        JsonObject o = e.getAsJsonObject();
+        return o.get(name);
+    }
+}
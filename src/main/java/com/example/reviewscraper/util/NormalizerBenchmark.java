@@ -0,0 +1,92 @@
+package com.example.reviewscraper.util;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Function;
+
+/**
+ * Compares {@link FieldNormalizer} against the regex/trim code it replaced, on a mix of rating
+ * and text values as they come out of WebElement.getText()/getAttribute().
+ *
+ * <pre>
+ *   java -cp target/review12-0.0.1-SNAPSHOT.jar com.example.reviewscraper.util.NormalizerBenchmark [iterations=2000000]
+ * </pre>
+ * Reports ns/op and bytes allocated per op (HotSpot only) after a warm-up round.
+ */
+public class NormalizerBenchmark {
+
+    private static final String[] RATINGS = {
+            "4.5 out of 5 stars", "Rated 4 out of 5", "5", "4.0", "3.5 stars", "90%", "8/10", "4,5"
+    };
+    private static final String[] TEXTS = {
+            "Great tool for small teams",
+            "  Great tool for small teams \n",
+            "Easy to set up, support answered within a day.",
+            "Pros: fast search\n\nCons: pricing is steep for larger orgs and the export is limited",
+            "Reviewer Name"
+    };
+
+    public static void main(String[] args) {
+        int iterations = 2_000_000;
+        for (String a : args) {
+            if (a.startsWith("iterations=")) iterations = Integer.parseInt(a.substring(11));
+        }
+        Function<String, Object> legacyRating = NormalizerBenchmark::legacyRating;
+        Function<String, Object> newRating = FieldNormalizer::rating;
+        Function<String, Object> legacyText = String::trim;
+        Function<String, Object> newText = FieldNormalizer::text;
+
+        // warm-up both sides
+        run(legacyRating, RATINGS, iterations / 4);
+        run(newRating, RATINGS, iterations / 4);
+        run(legacyText, TEXTS, iterations / 4);
+        run(newText, TEXTS, iterations / 4);
+
+        report("rating  replaceAll + parseDouble", legacyRating, RATINGS, iterations);
+        report("rating  FieldNormalizer.rating", newRating, RATINGS, iterations);
+        report("text    trim", legacyText, TEXTS, iterations);
+        report("text    FieldNormalizer.text", newText, TEXTS, iterations);
+
+        System.out.println();
+        for (String r : RATINGS) {
+            System.out.printf("%-20s legacy=%-8s normalized=%s%n", '"' + r + '"', legacyRating(r), FieldNormalizer.rating(r));
+        }
+    }
+
+    private static void report(String label, Function<String, Object> f, String[] inputs, int iterations) {
+        long bytes0 = allocatedBytes();
+        long t0 = System.nanoTime();
+        long sink = run(f, inputs, iterations);
+        long nanos = System.nanoTime() - t0;
+        long bytes = allocatedBytes() - bytes0;
+        System.out.printf("%-36s %8.1f ns/op  %8s B/op%s%n", label, nanos / (double) iterations,
+                bytes0 < 0 ? "n/a" : String.format("%.1f", bytes / (double) iterations), sink == 42 ? " " : "");
+    }
+
+    private static long run(Function<String, Object> f, String[] inputs, int iterations) {
+        long sink = 0;
+        for (int i = 0; i < iterations; i++) {
+            Object v = f.apply(inputs[i % inputs.length]);
+            if (v != null) sink += v.hashCode();
+        }
+        return sink;
+    }
+
+    static Double legacyRating(String txt) {
+        if (txt == null) return null;
+        String digits = txt.replaceAll("[^0-9.]", "");
+        if (digits.isEmpty()) return null;
+        try {
+            return Double.parseDouble(digits);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+        if (mx instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) mx).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+}
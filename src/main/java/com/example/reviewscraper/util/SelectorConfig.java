@@ -1,11 +1,19 @@
 package com.example.reviewscraper.util;
 
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import org.openqa.selenium.By;
 
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Loads selector configuration JSON from resources/config/.
@@ -13,20 +21,122 @@ import java.util.Objects;
  * Example:
  *   SelectorConfig cfg = new SelectorConfig("capterra_selectors.json");
  *   String blockSelector = cfg.getString("reviewBlock");
+ *
+ * A loaded config is an immutable extraction plan: it is validated on construction and every
+ * selector string (and each alternative of a compound selector) gets a prebuilt {@link By}.
+ * Scrapers normally obtain the shared instance from {@link SelectorRegistry}.
  */
 public class SelectorConfig {
 
+    /** Keys that hold data or URLs rather than CSS selectors. */
+    private static final List<String> NON_SELECTOR_KEYS = List.of(
+            "source", "label", "searchUrlTemplate", "ensureReviewsPath", "dateAttrPrefer", "ratingAttrPrefer");
+
+    private final String name;
     private final JsonObject selectors;
+    private final SelectorStats stats;
+    private final Map<String, List<String>> alternatives;
+    private final Map<String, By> bys;
+    // selectors that are not in the config (scraper defaults) are compiled lazily
+    private final Map<String, List<String>> extraAlternatives = new ConcurrentHashMap<>();
+    private final Map<String, By> extraBys = new ConcurrentHashMap<>();
 
     public SelectorConfig(String fileName) throws Exception {  // ✅ fixed constructor name
+        this(fileName, loadResource(fileName), SelectorStats.load(SelectorStats.defaultPath(), fileName));
+    }
+
+    /**
+     * Build a plan from already parsed JSON.
+     * @throws IllegalArgumentException if the config is invalid
+     */
+    public SelectorConfig(String name, JsonObject json, SelectorStats stats) {
+        this.name = name;
+        this.selectors = json.deepCopy();
+        this.stats = stats;
+        validate(name, selectors);
+
+        Map<String, List<String>> alts = new HashMap<>();
+        Map<String, By> compiled = new HashMap<>();
+        for (Map.Entry<String, JsonElement> e : selectors.entrySet()) {
+            if (NON_SELECTOR_KEYS.contains(e.getKey()) || !isString(e.getValue())) continue;
+            compile(e.getValue().getAsString(), alts, compiled);
+        }
+        JsonElement pagination = selectors.get("pagination");
+        if (pagination != null && pagination.isJsonObject()) {
+            for (String k : List.of("nextLinkSelector", "loadMoreSelector")) {
+                JsonElement v = pagination.getAsJsonObject().get(k);
+                if (isString(v)) compile(v.getAsString(), alts, compiled);
+            }
+        }
+        this.alternatives = Collections.unmodifiableMap(alts);
+        this.bys = Collections.unmodifiableMap(compiled);
+    }
+
+    static JsonObject loadResource(String fileName) throws Exception {
         String path = "/config/" + fileName;
-        InputStream in = getClass().getResourceAsStream(path);
+        InputStream in = SelectorConfig.class.getResourceAsStream(path);
         if (in == null) {
             throw new IllegalArgumentException("Could not find selector config file: " + path);
         }
         try (InputStreamReader reader = new InputStreamReader(in)) {
-            this.selectors = JsonParser.parseReader(reader).getAsJsonObject();
+            return JsonParser.parseReader(reader).getAsJsonObject();
+        }
+    }
+
+    private static void compile(String selector, Map<String, List<String>> alts, Map<String, By> compiled) {
+        if (selector.isBlank()) return;
+        List<String> parts = split(selector);
+        alts.put(selector, parts);
+        compiled.put(selector, By.cssSelector(selector));
+        for (String p : parts) compiled.putIfAbsent(p, By.cssSelector(p));
+    }
+
+    /**
+     * Structural checks that catch broken edits before they replace a working plan.
+     */
+    static void validate(String name, JsonObject json) {
+        JsonElement block = json.get("reviewBlock");
+        if (!isString(block) || block.getAsString().isBlank()) {
+            throw new IllegalArgumentException(name + ": missing \"reviewBlock\" selector");
+        }
+        for (Map.Entry<String, JsonElement> e : json.entrySet()) {
+            if (NON_SELECTOR_KEYS.contains(e.getKey()) || !isString(e.getValue())) continue;
+            String sel = e.getValue().getAsString();
+            if (!balanced(sel)) {
+                throw new IllegalArgumentException(name + ": unbalanced brackets in \"" + e.getKey() + "\": " + sel);
+            }
+        }
+        JsonElement tpl = json.get("searchUrlTemplate");
+        if (isString(tpl) && !tpl.getAsString().contains("{company}")) {
+            throw new IllegalArgumentException(name + ": searchUrlTemplate has no {company} placeholder");
+        }
+    }
+
+    private static boolean balanced(String sel) {
+        int square = 0, round = 0;
+        char quote = 0;
+        for (int i = 0; i < sel.length(); i++) {
+            char c = sel.charAt(i);
+            if (quote != 0) {
+                if (c == quote) quote = 0;
+                continue;
+            }
+            if (c == '\'' || c == '"') quote = c;
+            else if (c == '[') square++;
+            else if (c == ']') square--;
+            else if (c == '(') round++;
+            else if (c == ')') round--;
+            if (square < 0 || round < 0) return false;
         }
+        return square == 0 && round == 0 && quote == 0;
+    }
+
+    private static boolean isString(JsonElement e) {
+        return e != null && e.isJsonPrimitive() && e.getAsJsonPrimitive().isString();
+    }
+
+    public String getName() {
+        return name;
     }
 
     /**
@@ -41,11 +151,60 @@ public class SelectorConfig {
         return null;
     }
 
+    /**
+     * Prebuilt locator for a selector (whole compound selector or one alternative).
+     */
+    public By by(String selector) {
+        By b = bys.get(selector);
+        return b != null ? b : extraBys.computeIfAbsent(selector, By::cssSelector);
+    }
+
+    /**
+     * Alternatives of a compound selector for {@code field}, ordered so the alternative that
+     * historically produced valid values for this source is tried first.
+     * @param field logical field name used for stats (e.g. "date")
+     * @param selector the compound selector, e.g. "time, .review-date, span"
+     */
+    public List<String> orderedAlternatives(String field, String selector) {
+        List<String> alts = alternatives.get(selector);
+        if (alts == null) alts = extraAlternatives.computeIfAbsent(selector, SelectorConfig::split);
+        return stats.order(field, alts);
+    }
+
+    public SelectorStats getStats() {
+        return stats;
+    }
+
+    public void saveStats() {
+        stats.save(SelectorStats.defaultPath());
+    }
+
+    /**
+     * Split a compound CSS selector on top-level commas (commas inside [...] or (...) are kept).
+     */
+    public static List<String> split(String selector) {
+        List<String> parts = new ArrayList<>();
+        int depth = 0;
+        int from = 0;
+        for (int i = 0; i <= selector.length(); i++) {
+            char c = i < selector.length() ? selector.charAt(i) : ',';
+            if (c == '(' || c == '[') depth++;
+            else if (c == ')' || c == ']') depth--;
+            else if (c == ',' && depth == 0) {
+                String part = selector.substring(from, i).trim();
+                if (!part.isEmpty()) parts.add(part);
+                from = i + 1;
+            }
+        }
+        return Collections.unmodifiableList(parts);
+    }
+
     /**
      * Optional: get the raw JsonObject if you want advanced usage.
+     * Returns a copy; the plan itself is immutable.
      */
     public JsonObject getJson() {
-        return selectors;
+        return selectors.deepCopy();
     }
 
     @Override
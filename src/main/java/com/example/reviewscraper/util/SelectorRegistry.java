@@ -0,0 +1,150 @@
+package com.example.reviewscraper.util;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide cache of parsed {@link SelectorConfig} plans, one per config file name.
+ *
+ * Each config is parsed and compiled once. If an external config directory is set
+ * ({@link #watch(Path)}, or -Dreviewscraper.configDir), files in it override the bundled
+ * resources and are watched: a modified file is re-parsed and swapped in atomically, so the
+ * next scrape picks it up without a restart. An invalid edit is logged and the previous plan kept.
+ */
+public final class SelectorRegistry {
+
+    private static final Map<String, SelectorConfig> PLANS = new ConcurrentHashMap<>();
+    private static final Map<String, SelectorStats> STATS = new ConcurrentHashMap<>();
+
+    private static volatile Path configDir;
+    private static WatchService watcher;
+
+    static {
+        String dir = System.getProperty("reviewscraper.configDir");
+        if (dir != null && !dir.isBlank()) {
+            watch(Path.of(dir));
+        }
+    }
+
+    private SelectorRegistry() {}
+
+    /**
+     * Current plan for a config file name such as "g2_selectors.json".
+     */
+    public static SelectorConfig get(String fileName) throws Exception {
+        SelectorConfig cfg = PLANS.get(fileName);
+        if (cfg != null) return cfg;
+        synchronized (SelectorRegistry.class) {
+            cfg = PLANS.get(fileName);
+            if (cfg == null) {
+                cfg = load(fileName);
+                PLANS.put(fileName, cfg);
+            }
+            return cfg;
+        }
+    }
+
+    /**
+     * Whether a config with this name exists in the config dir or the bundled resources.
+     */
+    public static boolean exists(String fileName) {
+        if (PLANS.containsKey(fileName)) return true;
+        Path dir = configDir;
+        if (dir != null && Files.isRegularFile(dir.resolve(fileName))) return true;
+        return SelectorRegistry.class.getResource("/config/" + fileName) != null;
+    }
+
+    private static SelectorConfig load(String fileName) throws Exception {
+        SelectorStats stats = STATS.computeIfAbsent(fileName,
+                n -> SelectorStats.load(SelectorStats.defaultPath(), n));
+        Path dir = configDir;
+        if (dir != null) {
+            Path external = dir.resolve(fileName);
+            if (Files.isRegularFile(external)) {
+                try (Reader r = Files.newBufferedReader(external, StandardCharsets.UTF_8)) {
+                    JsonObject json = JsonParser.parseReader(r).getAsJsonObject();
+                    return new SelectorConfig(fileName, json, stats);
+                }
+            }
+        }
+        return new SelectorConfig(fileName, SelectorConfig.loadResource(fileName), stats);
+    }
+
+    /**
+     * Re-parse one config and swap it in; keeps the old plan when the new one is invalid.
+     */
+    public static void reload(String fileName) {
+        try {
+            SelectorConfig cfg = load(fileName);
+            PLANS.put(fileName, cfg);
+            System.out.println("Reloaded selector config " + fileName);
+        } catch (Exception e) {
+            System.err.println("Keeping previous selector config " + fileName + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Use {@code dir} for config overrides and reload plans whenever a file in it changes.
+     */
+    public static synchronized void watch(Path dir) {
+        if (dir.equals(configDir) && watcher != null) return;
+        if (!Files.isDirectory(dir)) {
+            System.err.println("Selector config dir does not exist: " + dir);
+            return;
+        }
+        stopWatching();
+        configDir = dir;
+        PLANS.keySet().forEach(SelectorRegistry::reload);
+        try {
+            WatchService ws = FileSystems.getDefault().newWatchService();
+            dir.register(ws, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            watcher = ws;
+            Thread t = new Thread(() -> watchLoop(ws), "selector-config-watcher");
+            t.setDaemon(true);
+            t.start();
+        } catch (Exception e) {
+            System.err.println("Could not watch selector config dir " + dir + ": " + e.getMessage());
+        }
+    }
+
+    public static synchronized void stopWatching() {
+        if (watcher != null) {
+            try { watcher.close(); } catch (Exception ignored) {}
+            watcher = null;
+        }
+    }
+
+    private static void watchLoop(WatchService ws) {
+        try {
+            while (true) {
+                WatchKey key = ws.take();
+                for (WatchEvent<?> ev : key.pollEvents()) {
+                    Object ctx = ev.context();
+                    if (!(ctx instanceof Path)) continue;
+                    String name = ((Path) ctx).getFileName().toString();
+                    if (name.endsWith(".json") && PLANS.containsKey(name)) {
+                        reload(name);
+                    }
+                }
+                if (!key.reset()) break;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException ignored) {
+            // stopWatching()
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.reviewscraper.util;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-source record of which alternative of a compound selector actually produced a valid
+ * value for each field, e.g. for "date": {"time": 412, ".review-date": 3}.
+ *
+ * Stats are persisted in one JSON file shared by all sources (keyed by selector config name),
+ * by default ~/.review-scraper/selector-stats.json; override with -Dreviewscraper.selectorStats=path.
+ */
+public class SelectorStats {
+    private static final Gson G = new GsonBuilder().setPrettyPrinting().create();
+    /** Guards the read-modify-write of the shared stats file. */
+    private static final Object SAVE_LOCK = new Object();
+
+    private final String sourceKey;
+    private final Map<String, Map<String, Long>> hits = new HashMap<>();
+
+    public SelectorStats(String sourceKey) {
+        this.sourceKey = sourceKey;
+    }
+
+    public static Path defaultPath() {
+        String p = System.getProperty("reviewscraper.selectorStats");
+        if (p != null && !p.isBlank()) return Paths.get(p);
+        return Paths.get(System.getProperty("user.home"), ".review-scraper", "selector-stats.json");
+    }
+
+    /**
+     * Load the stats of one source; returns empty stats when the file is missing or unreadable.
+     */
+    public static SelectorStats load(Path file, String sourceKey) {
+        SelectorStats s = new SelectorStats(sourceKey);
+        JsonObject all = readAll(file);
+        JsonElement mine = all.get(sourceKey);
+        if (mine != null && mine.isJsonObject()) {
+            for (Map.Entry<String, JsonElement> field : mine.getAsJsonObject().entrySet()) {
+                if (!field.getValue().isJsonObject()) continue;
+                Map<String, Long> m = new HashMap<>();
+                for (Map.Entry<String, JsonElement> alt : field.getValue().getAsJsonObject().entrySet()) {
+                    m.put(alt.getKey(), alt.getValue().getAsLong());
+                }
+                s.hits.put(field.getKey(), m);
+            }
+        }
+        return s;
+    }
+
+    public synchronized void recordHit(String field, String alternative) {
+        hits.computeIfAbsent(field, k -> new HashMap<>()).merge(alternative, 1L, Long::sum);
+    }
+
+    public synchronized long hits(String field, String alternative) {
+        Map<String, Long> m = hits.get(field);
+        if (m == null) return 0;
+        return m.getOrDefault(alternative, 0L);
+    }
+
+    /**
+     * Alternatives sorted by historical hit count, most successful first.
+     * Ties keep configuration order.
+     */
+    public synchronized List<String> order(String field, List<String> alternatives) {
+        Map<String, Long> m = hits.get(field);
+        if (m == null || m.isEmpty() || alternatives.size() < 2) return alternatives;
+        List<String> sorted = new ArrayList<>(alternatives);
+        sorted.sort(Comparator.comparingLong((String a) -> m.getOrDefault(a, 0L)).reversed());
+        return sorted;
+    }
+
+    /**
+     * Write this source's stats back, preserving the entries of other sources. Saves of all
+     * sources in this process are serialized, so none overwrites another's entry with the file
+     * it read before that save; each writes its own temp file before the rename.
+     */
+    public void save(Path file) {
+        JsonElement mine;
+        synchronized (this) {
+            mine = G.toJsonTree(hits);
+        }
+        synchronized (SAVE_LOCK) {
+            Path tmp = null;
+            try {
+                JsonObject all = readAll(file);
+                all.add(sourceKey, mine);
+                Path dir = file.toAbsolutePath().getParent();
+                Files.createDirectories(dir);
+                tmp = Files.createTempFile(dir, file.getFileName() + ".", ".tmp");
+                try (Writer w = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                    G.toJson(all, w);
+                }
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (Exception e) {
+                System.err.println("could not save selector stats to " + file + ": " + e.getMessage());
+            } finally {
+                try {
+                    if (tmp != null) Files.deleteIfExists(tmp);
+                } catch (Exception ignored) {}
+            }
+        }
+    }
+
+    private static JsonObject readAll(Path file) {
+        if (!Files.isRegularFile(file)) return new JsonObject();
+        try (Reader r = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            JsonElement e = JsonParser.parseReader(r);
+            return e.isJsonObject() ? e.getAsJsonObject() : new JsonObject();
+        } catch (Exception e) {
+            System.err.println("ignoring unreadable selector stats " + file + ": " + e.getMessage());
+            return new JsonObject();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.reviewscraper.util;
+
+import java.lang.management.ManagementFactory;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reports cold-start milestones (driver ready, first page loaded) relative to JVM start.
+ * Each milestone is printed once per process.
+ */
+public final class StartupTimer {
+
+    private static final long JVM_START = ManagementFactory.getRuntimeMXBean().getStartTime();
+    private static final Set<String> SEEN = ConcurrentHashMap.newKeySet();
+
+    private StartupTimer() {}
+
+    public static void mark(String milestone) {
+        if (SEEN.add(milestone)) {
+            System.out.println("Startup: " + milestone + " after " + (System.currentTimeMillis() - JVM_START) + " ms");
+        }
+    }
+}